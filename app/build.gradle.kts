@@ -32,6 +32,12 @@ android {
     
     buildFeatures {
         viewBinding = true
+        buildConfig = true
+    }
+
+    testOptions {
+        // Lets JVM tests reach code that logs
+        unitTests.isReturnDefaultValues = true
     }
 }
 
@@ -46,6 +52,11 @@ dependencies {
     
     // Glide for image loading
     implementation(libs.glide)
+    implementation(libs.glide.recyclerview) {
+        // Uses the app's RecyclerView version
+        isTransitive = false
+    }
+    implementation(libs.glide.okhttp3)
     annotationProcessor("com.github.bumptech.glide:compiler:${libs.versions.glide.get()}")
 
     // Material 3
@@ -56,11 +67,13 @@ dependencies {
     implementation(libs.fragment.ktx)
     implementation(libs.preference.ktx)
     implementation(libs.androidx.swiperefreshlayout)
+    implementation(libs.androidx.asynclayoutinflater)
     
     // Networking
     implementation(libs.retrofit)
     implementation(libs.retrofit.converter.gson)
     implementation(libs.okhttp.logging)
+    implementation(libs.okhttp.brotli)
     implementation(libs.gson)
     
     // Coroutines
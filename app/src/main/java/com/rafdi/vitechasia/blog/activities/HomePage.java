@@ -42,15 +42,18 @@ import com.rafdi.vitechasia.blog.fragments.PopularFragment;
 import com.rafdi.vitechasia.blog.fragments.ProfileFragment;
 import com.rafdi.vitechasia.blog.fragments.SearchResultsFragment;
 import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.utils.DataHandler;
 import com.rafdi.vitechasia.blog.utils.SessionManager;
 import com.rafdi.vitechasia.blog.utils.ThemeManager;
+import com.rafdi.vitechasia.blog.adapters.ArticleCarousels;
 import com.rafdi.vitechasia.blog.adapters.ArticleVerticalAdapter;
 
 /**
  * Main activity for the blog application home page.
  * Handles navigation, search, and fragment management.
  */
-public class HomePage extends AppCompatActivity implements ArticleVerticalAdapter.OnArticleClickListener, HomeFragment.NavigationCallback {
+public class HomePage extends AppCompatActivity implements ArticleVerticalAdapter.OnArticleClickListener, HomeFragment.NavigationCallback,
+        ArticleCarousels.Host {
 
     private static final String TAG = "HomePage";
     private SessionManager sessionManager;
@@ -63,6 +66,9 @@ public class HomePage extends AppCompatActivity implements ArticleVerticalAdapte
     private PopupWindow searchDropdown;
     private SearchHistoryManager searchHistoryManager;
 
+    // Card views shared by the carousels of all fragments shown in this activity
+    private final ArticleCarousels articleCarousels = new ArticleCarousels();
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         // Initialize session manager
@@ -233,6 +239,7 @@ public class HomePage extends AppCompatActivity implements ArticleVerticalAdapte
         if (swipeRefreshLayout == null) return;
 
         try {
+            DataHandler.getInstance().invalidate();
             Fragment currentFragment = getSupportFragmentManager().findFragmentById(R.id.fragment_container);
 
             if (currentFragment != null) {
@@ -243,7 +250,7 @@ public class HomePage extends AppCompatActivity implements ArticleVerticalAdapte
                         loadArticleDetailFragment(currentArticle);
                     }
                 } else if (currentFragment instanceof HomeFragment) {
-                    loadHomeFragment();
+                    ((HomeFragment) currentFragment).refresh();
                 } else if (currentFragment instanceof LatestFragment) {
                     loadLatestFragment();
                 } else if (currentFragment instanceof PopularFragment) {
@@ -442,6 +449,11 @@ public class HomePage extends AppCompatActivity implements ArticleVerticalAdapte
         updateBottomNavSelection(navItemId);
     }
 
+    @Override
+    public ArticleCarousels getArticleCarousels() {
+        return articleCarousels;
+    }
+
     @Override
     protected void onDestroy() {
         // Clean up any pending callbacks to prevent memory leaks
@@ -0,0 +1,106 @@
+package com.rafdi.vitechasia.blog.adapters;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.rafdi.vitechasia.blog.R;
+
+import java.util.ArrayDeque;
+
+/**
+ * Shares article cards between the horizontal carousels of one activity.
+ *
+ * <p>Carousels set up through {@link #setUp(RecyclerView, ArticleHorizontalAdapter)} draw from a
+ * single {@link RecyclerView.RecycledViewPool}, so a carousel that scrolls into view reuses the
+ * cards of one that went off screen instead of inflating new ones. Cards can also be inflated
+ * ahead of time on a background thread with {@link #preinflate(ViewGroup)}; adapters take those
+ * before inflating on the main thread.
+ *
+ * <p>Views belong to the activity they were inflated for, so an instance must not outlive it.
+ * Activities that host carousels implement {@link Host} and own one instance.
+ */
+@MainThread
+public class ArticleCarousels {
+    // Enough cards for the carousels of one screen to scroll past each other
+    private static final int MAX_POOLED_CARDS = 24;
+    // Cards visible at once in a carousel plus the one being scrolled in
+    private static final int INITIAL_PREFETCH_ITEMS = 3;
+    private static final int PREINFLATED_CARDS = 8;
+
+    /**
+     * Implemented by activities that share one instance between their fragments.
+     */
+    public interface Host {
+        ArticleCarousels getArticleCarousels();
+    }
+
+    private final RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+    private final ArrayDeque<View> preinflated = new ArrayDeque<>();
+    private int inflating = 0;
+
+    public ArticleCarousels() {
+        pool.setMaxRecycledViews(ArticleHorizontalAdapter.VIEW_TYPE_CARD, MAX_POOLED_CARDS);
+    }
+
+    /**
+     * Returns the activity's shared instance, or a new one if the activity doesn't host one.
+     */
+    public static ArticleCarousels from(@Nullable Activity activity) {
+        if (activity instanceof Host) {
+            return ((Host) activity).getArticleCarousels();
+        }
+        return new ArticleCarousels();
+    }
+
+    /**
+     * Lays out a carousel horizontally on the shared pool and attaches its adapter.
+     */
+    public void setUp(@NonNull RecyclerView recyclerView, @NonNull ArticleHorizontalAdapter adapter) {
+        LinearLayoutManager layoutManager = new LinearLayoutManager(
+                recyclerView.getContext(), LinearLayoutManager.HORIZONTAL, false);
+        // Prefetch a full carousel while its row is scrolled into the parent list
+        layoutManager.setInitialPrefetchItemCount(INITIAL_PREFETCH_ITEMS);
+        // Hand the cards back to the pool when the parent list recycles the row
+        layoutManager.setRecycleChildrenOnDetach(true);
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setRecycledViewPool(pool);
+        adapter.setCarousels(this);
+        recyclerView.setAdapter(adapter);
+        adapter.attachImagePreloader(recyclerView);
+    }
+
+    /**
+     * Starts inflating cards in the background, up to a fixed number waiting to be used.
+     *
+     * @param parent The carousel or container the cards will be shown in, used for layout params
+     */
+    public void preinflate(@NonNull ViewGroup parent) {
+        int missing = PREINFLATED_CARDS - preinflated.size() - inflating;
+        if (missing <= 0) return;
+
+        AsyncLayoutInflater inflater = new AsyncLayoutInflater(parent.getContext());
+        for (int i = 0; i < missing; i++) {
+            inflating++;
+            inflater.inflate(R.layout.item_article_horizontal, parent, (view, resid, p) -> {
+                inflating--;
+                preinflated.add(view);
+            });
+        }
+    }
+
+    /**
+     * Returns a card inflated ahead of time, or null if none is ready.
+     */
+    @Nullable
+    View takePreinflated() {
+        return preinflated.poll();
+    }
+}
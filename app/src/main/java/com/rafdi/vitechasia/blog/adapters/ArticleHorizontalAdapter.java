@@ -5,6 +5,7 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.rafdi.vitechasia.blog.R;
 import com.rafdi.vitechasia.blog.models.Article;
@@ -12,18 +13,36 @@ import com.rafdi.vitechasia.blog.models.Article;
 /**
  * RecyclerView adapter for displaying articles in horizontal layout.
  * Now extends BaseArticleAdapter to reduce code duplication and improve maintainability.
+ * Cards are taken from {@link ArticleCarousels} when the adapter is set up through it.
  */
 public class ArticleHorizontalAdapter extends BaseArticleAdapter<ArticleHorizontalAdapter.ArticleViewHolder> {
 
+    static final int VIEW_TYPE_CARD = 0;
+
+    @Nullable
+    private ArticleCarousels carousels;
+
     public ArticleHorizontalAdapter(OnArticleClickListener listener) {
         super(listener);
     }
 
+    void setCarousels(@Nullable ArticleCarousels carousels) {
+        this.carousels = carousels;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE_CARD;
+    }
+
     @NonNull
     @Override
     public ArticleViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(parent.getContext())
-                .inflate(R.layout.item_article_horizontal, parent, false);
+        View view = carousels != null ? carousels.takePreinflated() : null;
+        if (view == null) {
+            view = LayoutInflater.from(parent.getContext())
+                    .inflate(R.layout.item_article_horizontal, parent, false);
+        }
         return new ArticleViewHolder(view);
     }
 
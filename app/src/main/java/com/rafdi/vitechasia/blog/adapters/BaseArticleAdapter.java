@@ -1,68 +1,141 @@
 package com.rafdi.vitechasia.blog.adapters;
 
+import android.util.Log;
 import android.view.View;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.engine.DiskCacheStrategy;
-import android.util.Log;
-
-import com.bumptech.glide.load.resource.drawable.DrawableTransitionOptions;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.ViewPreloadSizeProvider;
 import com.rafdi.vitechasia.blog.R;
-import androidx.annotation.Nullable;
 import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.utils.AppExecutors;
+import com.rafdi.vitechasia.blog.utils.ArticleImageLoader;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
-import androidx.recyclerview.widget.DiffUtil;
-
 /**
  * Base adapter class for article adapters that provides common functionality.
  * Reduces code duplication between ArticleVerticalAdapter and ArticleHorizontalAdapter.
+ *
+ * <p>List updates are diffed on a background thread and items have stable ids derived from
+ * {@link Article#getId()}, so replacing a long list never blocks the main thread. The list
+ * must only be changed from the main thread.
  */
 public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
     extends RecyclerView.Adapter<VH> {
     
     private static final String TAG = "BaseArticleAdapter";
-    private static final int DEFAULT_IMAGE_PLACEHOLDER = R.drawable.ic_placeholder_image;
-    private static final int DEFAULT_IMAGE_ERROR = R.drawable.error_image;
+    // Card images preloaded ahead of the scroll position
+    private static final int MAX_IMAGE_PRELOAD = 6;
+
+    // Partial update payloads, one per group of views that can be rebound on its own
+    private static final String PAYLOAD_TITLE = "title";
+    private static final String PAYLOAD_IMAGE = "image";
+    private static final String PAYLOAD_AUTHOR = "author";
+    private static final String PAYLOAD_DATE = "date";
+    private static final String PAYLOAD_CATEGORY = "category";
+    private static final String PAYLOAD_LIKE_COUNT = "like_count";
+    private static final String PAYLOAD_VIEW_COUNT = "view_count";
 
     protected List<Article> articles = new ArrayList<>();
     protected OnArticleClickListener listener;
 
+    // Incremented on every change to the list; a diff computed for an older generation is dropped
+    private int generation = 0;
+    // The latest list passed to setArticles() while its diff is being computed, otherwise null
+    @Nullable
+    private List<Article> pendingArticles;
+    // Measures the card image for preloading; null until a preloader is attached
+    @Nullable
+    private ViewPreloadSizeProvider<String> preloadSizeProvider;
+
     public interface OnArticleClickListener {
         void onArticleClick(Article article);
     }
 
     public BaseArticleAdapter(OnArticleClickListener listener) {
         this.listener = listener;
+        setHasStableIds(true);
     }
 
     /**
-     * Updates the list of articles and calculates the minimal set of changes to update the UI
+     * Updates the list of articles. The minimal set of changes, including payloads for the
+     * fields that changed, is calculated on a background thread and dispatched on the main
+     * thread. If the list is replaced again before that, the outdated diff is discarded.
      * @param newArticles New list of articles to display
      */
+    @MainThread
     public void setArticles(List<Article> newArticles) {
-        if (newArticles == null) {
-            newArticles = new ArrayList<>();
+        List<Article> target = newArticles != null ? new ArrayList<>(newArticles) : new ArrayList<>();
+        int token = ++generation;
+        pendingArticles = null;
+
+        if (articles.isEmpty() || target.isEmpty()) {
+            // Nothing to diff, a range insert or removal is exact
+            replaceArticles(target);
+            return;
+        }
+
+        pendingArticles = target;
+        List<Article> current = new ArrayList<>(articles);
+        AppExecutors.computation().execute(() -> {
+            DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(new ArticleDiffCallback(current, target));
+            AppExecutors.mainThread().execute(() -> {
+                if (token != generation) {
+                    // The list changed meanwhile, so this diff no longer applies
+                    return;
+                }
+                pendingArticles = null;
+                articles.clear();
+                articles.addAll(target);
+                diffResult.dispatchUpdatesTo(this);
+            });
+        });
+    }
+
+    private void replaceArticles(List<Article> newArticles) {
+        int oldSize = articles.size();
+        articles.clear();
+        articles.addAll(newArticles);
+        if (oldSize > 0) {
+            notifyItemRangeRemoved(0, oldSize);
+        }
+        if (!newArticles.isEmpty()) {
+            notifyItemRangeInserted(0, newArticles.size());
+        }
+    }
+
+    /**
+     * Restarts a diff that is still being computed, since it was based on the list before
+     * a direct change.
+     */
+    private void restartPendingDiff() {
+        List<Article> pending = pendingArticles;
+        if (pending != null) {
+            setArticles(pending);
         }
-        
-        // Use DiffUtil to calculate the differences
-        ArticleDiffCallback diffCallback = new ArticleDiffCallback(this.articles, newArticles);
-        DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-        
-        // Update the data
-        this.articles.clear();
-        this.articles.addAll(newArticles);
-        
-        // Dispatch the updates
-        diffResult.dispatchUpdatesTo(this);
+    }
+
+    /**
+     * Returns the position of the article with the given id in the list, or -1.
+     */
+    private static int indexOfId(List<Article> list, String id) {
+        for (int i = 0; i < list.size(); i++) {
+            if (Objects.equals(list.get(i).getId(), id)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -108,33 +181,41 @@ public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
      */
     private void bindImageView(ArticleViewHolder holder, Article article) {
         if (holder.articleImage != null) {
+            if (preloadSizeProvider != null) {
+                preloadSizeProvider.setView(holder.articleImage);
+            }
             loadArticleImage(holder.articleImage, article.getImageUrl());
         }
     }
 
     /**
-     * Enhanced image loading with caching and error handling.
+     * Loads a card-sized image, see {@link ArticleImageLoader#loadCard}.
      */
     protected void loadArticleImage(ImageView imageView, String imageUrl) {
         if (imageView == null) {
             Log.w(TAG, "ImageView is null, cannot load image");
             return;
         }
-        
-        if (imageUrl != null && !imageUrl.isEmpty()) {
-            Glide.with(imageView.getContext())
-                    .load(imageUrl)
-                    .placeholder(DEFAULT_IMAGE_PLACEHOLDER)
-                    .error(DEFAULT_IMAGE_ERROR)
-                    .diskCacheStrategy(DiskCacheStrategy.ALL)
-                    .skipMemoryCache(false)
-                    .transition(DrawableTransitionOptions.withCrossFade())
-                    .into(imageView);
-        } else {
-            Glide.with(imageView.getContext())
-                    .load(DEFAULT_IMAGE_PLACEHOLDER)
-                    .into(imageView);
+        ArticleImageLoader.loadCard(imageView, imageUrl);
+    }
+
+    /**
+     * Preloads the card images just ahead of the scroll position of the list showing this
+     * adapter. The preload size is taken from the first card that is bound.
+     */
+    @MainThread
+    public void attachImagePreloader(RecyclerView recyclerView) {
+        if (preloadSizeProvider == null) {
+            preloadSizeProvider = new ViewPreloadSizeProvider<>();
         }
+        recyclerView.addOnScrollListener(new RecyclerViewPreloader<>(
+                Glide.with(recyclerView),
+                ArticleImageLoader.cardPreloadProvider(Glide.with(recyclerView), position -> {
+                    Article article = getArticle(position);
+                    return article != null ? article.getImageUrl() : null;
+                }),
+                preloadSizeProvider,
+                MAX_IMAGE_PRELOAD));
     }
 
     /**
@@ -189,60 +270,58 @@ public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
     }
 
     /**
-     * Remove an article from the list.
+     * Remove an article from the list, and from a list update that is still pending.
      */
+    @MainThread
     public void removeArticle(Article article) {
         int position = articles.indexOf(article);
         if (position != -1) {
             articles.remove(position);
             notifyItemRemoved(position);
         }
+        if (pendingArticles != null) {
+            int pendingPosition = indexOfId(pendingArticles, article.getId());
+            if (pendingPosition != -1) {
+                pendingArticles.remove(pendingPosition);
+            }
+            restartPendingDiff();
+        }
     }
 
     /**
      * Update a specific article in the list with optimized updates.
      * @param updatedArticle The updated article with new data
      */
+    @MainThread
     public void updateArticle(Article updatedArticle) {
-        for (int i = 0; i < articles.size(); i++) {
-            Article article = articles.get(i);
-            if (article.getId().equals(updatedArticle.getId())) {
-                // Create a list of changes
-                List<Object> payloads = new ArrayList<>();
-                
-                // Check which fields changed
-                if (article.getLikeCount() != updatedArticle.getLikeCount()) {
-                    payloads.add("like_count");
-                }
-                if (article.getViewCount() != updatedArticle.getViewCount()) {
-                    payloads.add("view_count");
-                }
-                if (!Objects.equals(article.getTitle(), updatedArticle.getTitle())) {
-                    payloads.add("title");
-                }
-                if (!Objects.equals(article.getImageUrl(), updatedArticle.getImageUrl())) {
-                    payloads.add("image");
-                }
-                
-                // Update the article
-                articles.set(i, updatedArticle);
-                
-                if (payloads.isEmpty()) {
-                    // If no specific payloads, do a full update
-                    notifyItemChanged(i);
-                } else {
-                    // Otherwise, do a partial update
-                    notifyItemChanged(i, payloads);
-                }
-                break;
+        int position = indexOfId(articles, updatedArticle.getId());
+        if (position != -1) {
+            List<String> changes = changedFields(articles.get(position), updatedArticle);
+            articles.set(position, updatedArticle);
+            if (changes.isEmpty()) {
+                // If no specific payloads, do a full update
+                notifyItemChanged(position);
+            } else {
+                // Otherwise, do a partial update
+                notifyItemChanged(position, changes);
+            }
+        }
+        if (pendingArticles != null) {
+            int pendingPosition = indexOfId(pendingArticles, updatedArticle.getId());
+            if (pendingPosition != -1) {
+                pendingArticles.set(pendingPosition, updatedArticle);
             }
+            restartPendingDiff();
         }
     }
 
     /**
-     * Clear all articles from the adapter.
+     * Clear all articles from the adapter, discarding a list update that is still pending.
      */
+    @MainThread
     public void clearArticles() {
+        generation++;
+        pendingArticles = null;
         int size = articles.size();
         if (size > 0) {
             articles.clear();
@@ -271,6 +350,29 @@ public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
     public int getItemCount() {
         return articles.size();
     }
+
+    @Override
+    public long getItemId(int position) {
+        String id = articles.get(position).getId();
+        if (id == null) {
+            return RecyclerView.NO_ID;
+        }
+        return stableIdOf(id);
+    }
+
+    /**
+     * Derives the item id from the article id with a 64-bit FNV-1a hash, so ids stay stable
+     * across updates without remembering every article that was ever shown.
+     */
+    private static long stableIdOf(@NonNull String articleId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < articleId.length(); i++) {
+            hash ^= articleId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        // NO_ID is reserved for items without an id
+        return hash == RecyclerView.NO_ID ? 0 : hash;
+    }
     
     @Override
     public void onBindViewHolder(@NonNull VH holder, int position, @NonNull List<Object> payloads) {
@@ -282,35 +384,85 @@ public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
             Article article = articles.get(position);
             ArticleViewHolder viewHolder = (ArticleViewHolder) holder;
             
+            // Payloads are lists of changed fields, see changedFields()
             for (Object payload : payloads) {
-                if (payload instanceof String) {
-                    String change = (String) payload;
-                    switch (change) {
-                        case "like_count":
-                            if (viewHolder.likeCount != null) {
-                                viewHolder.likeCount.setText(String.valueOf(article.getLikeCount()));
-                            }
-                            break;
-                        case "view_count":
-                            if (viewHolder.viewCount != null) {
-                                viewHolder.viewCount.setText(String.valueOf(article.getViewCount()));
-                            }
-                            break;
-                        case "title":
-                            if (viewHolder.articleTitle != null) {
-                                viewHolder.articleTitle.setText(article.getTitle() != null ? article.getTitle() : "");
-                            }
-                            break;
-                        case "image":
-                            if (viewHolder.articleImage != null) {
-                                loadArticleImage(viewHolder.articleImage, article.getImageUrl());
-                            }
-                            break;
+                if (payload instanceof List) {
+                    for (Object change : (List<?>) payload) {
+                        bindChange(viewHolder, article, change);
                     }
+                } else {
+                    bindChange(viewHolder, article, payload);
                 }
             }
         }
     }
+
+    /**
+     * Rebinds the views affected by a single changed field.
+     */
+    private void bindChange(ArticleViewHolder viewHolder, Article article, Object change) {
+        if (!(change instanceof String)) {
+            return;
+        }
+        switch ((String) change) {
+            case PAYLOAD_LIKE_COUNT:
+            case PAYLOAD_VIEW_COUNT:
+                bindSocialStats(viewHolder, article);
+                break;
+            case PAYLOAD_TITLE:
+                if (viewHolder.articleTitle != null) {
+                    viewHolder.articleTitle.setText(article.getTitle() != null ? article.getTitle() : "");
+                }
+                break;
+            case PAYLOAD_AUTHOR:
+                if (viewHolder.articleAuthor != null) {
+                    viewHolder.articleAuthor.setText(article.getAuthorName() != null ? article.getAuthorName() : "");
+                }
+                break;
+            case PAYLOAD_DATE:
+                if (viewHolder.articleDate != null) {
+                    viewHolder.articleDate.setText(article.getPublishDate() != null ? article.getFormattedDate() : "");
+                }
+                break;
+            case PAYLOAD_CATEGORY:
+                bindCategories(viewHolder, article);
+                break;
+            case PAYLOAD_IMAGE:
+                bindImageView(viewHolder, article);
+                break;
+        }
+    }
+
+    /**
+     * Lists the displayed fields that differ between two versions of an article.
+     * An empty list means the item looks the same.
+     */
+    static List<String> changedFields(Article oldArticle, Article newArticle) {
+        List<String> changes = new ArrayList<>();
+        if (!Objects.equals(oldArticle.getTitle(), newArticle.getTitle())) {
+            changes.add(PAYLOAD_TITLE);
+        }
+        if (!Objects.equals(oldArticle.getImageUrl(), newArticle.getImageUrl())) {
+            changes.add(PAYLOAD_IMAGE);
+        }
+        if (!Objects.equals(oldArticle.getAuthorName(), newArticle.getAuthorName())) {
+            changes.add(PAYLOAD_AUTHOR);
+        }
+        if (!Objects.equals(oldArticle.getPublishDate(), newArticle.getPublishDate())) {
+            changes.add(PAYLOAD_DATE);
+        }
+        if (!Objects.equals(oldArticle.getCategoryId(), newArticle.getCategoryId())
+                || !Objects.equals(oldArticle.getSubcategoryId(), newArticle.getSubcategoryId())) {
+            changes.add(PAYLOAD_CATEGORY);
+        }
+        if (oldArticle.getLikeCount() != newArticle.getLikeCount()) {
+            changes.add(PAYLOAD_LIKE_COUNT);
+        }
+        if (oldArticle.getViewCount() != newArticle.getViewCount()) {
+            changes.add(PAYLOAD_VIEW_COUNT);
+        }
+        return changes;
+    }
     
     /**
      * Callback for calculating the diff between two non-null items in a list.
@@ -338,46 +490,19 @@ public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
         public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
             Article oldArticle = oldArticles.get(oldItemPosition);
             Article newArticle = newArticles.get(newItemPosition);
-            return oldArticle.getId().equals(newArticle.getId());
+            return Objects.equals(oldArticle.getId(), newArticle.getId());
         }
 
         @Override
         public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-            Article oldArticle = oldArticles.get(oldItemPosition);
-            Article newArticle = newArticles.get(newItemPosition);
-            
             // Compare the fields that affect the UI
-            return Objects.equals(oldArticle.getTitle(), newArticle.getTitle()) &&
-                   oldArticle.getLikeCount() == newArticle.getLikeCount() &&
-                   oldArticle.getViewCount() == newArticle.getViewCount() &&
-                   Objects.equals(oldArticle.getImageUrl(), newArticle.getImageUrl()) &&
-                   Objects.equals(oldArticle.getAuthorName(), newArticle.getAuthorName()) &&
-                   Objects.equals(oldArticle.getPublishDate(), newArticle.getPublishDate()) &&
-                   Objects.equals(oldArticle.getCategoryId(), newArticle.getCategoryId()) &&
-                   Objects.equals(oldArticle.getSubcategoryId(), newArticle.getSubcategoryId());
+            return changedFields(oldArticles.get(oldItemPosition), newArticles.get(newItemPosition)).isEmpty();
         }
 
         @Nullable
         @Override
         public Object getChangePayload(int oldItemPosition, int newItemPosition) {
-            Article oldArticle = oldArticles.get(oldItemPosition);
-            Article newArticle = newArticles.get(newItemPosition);
-            
-            List<String> changes = new ArrayList<>();
-            
-            if (!Objects.equals(oldArticle.getTitle(), newArticle.getTitle())) {
-                changes.add("title");
-            }
-            if (!Objects.equals(oldArticle.getImageUrl(), newArticle.getImageUrl())) {
-                changes.add("image");
-            }
-            if (oldArticle.getLikeCount() != newArticle.getLikeCount()) {
-                changes.add("like_count");
-            }
-            if (oldArticle.getViewCount() != newArticle.getViewCount()) {
-                changes.add("view_count");
-            }
-            
+            List<String> changes = changedFields(oldArticles.get(oldItemPosition), newArticles.get(newItemPosition));
             return changes.isEmpty() ? null : changes;
         }
     }
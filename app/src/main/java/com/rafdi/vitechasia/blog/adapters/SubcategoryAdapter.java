@@ -7,15 +7,16 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
-import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.button.MaterialButton;
 import com.rafdi.vitechasia.blog.R;
 import com.rafdi.vitechasia.blog.models.Article;
-import com.rafdi.vitechasia.blog.utils.DataHandler;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import androidx.annotation.Nullable;
@@ -24,13 +25,18 @@ import androidx.recyclerview.widget.DiffUtil;
 /**
  * RecyclerView adapter for displaying subcategories with nested article lists.
  * Used in category fragments to show subcategories and their preview articles.
+ * The nested carousels share their cards through {@link ArticleCarousels}. Each row's articles
+ * come from a preloaded snapshot, so binding a row does no data work.
  */
 public class SubcategoryAdapter extends RecyclerView.Adapter<SubcategoryAdapter.SubcategoryViewHolder> {
 
     private final List<String> subcategoryNames = new ArrayList<>();
+    // Subcategory -> preview articles shown in its row
+    private Map<String, List<Article>> previews = new LinkedHashMap<>();
     private final String categoryId;
     private final OnViewAllClickListener viewAllListener;
     private final OnArticleClickListener articleClickListener;
+    private final ArticleCarousels carousels;
 
     public interface OnViewAllClickListener {
         void onViewAllClick(String categoryId, String subcategoryName);
@@ -42,25 +48,45 @@ public class SubcategoryAdapter extends RecyclerView.Adapter<SubcategoryAdapter.
 
     public SubcategoryAdapter(String categoryId, OnViewAllClickListener viewAllListener, 
                             OnArticleClickListener articleClickListener) {
+        this(categoryId, viewAllListener, articleClickListener, new ArticleCarousels());
+    }
+
+    public SubcategoryAdapter(String categoryId, OnViewAllClickListener viewAllListener,
+                            OnArticleClickListener articleClickListener, ArticleCarousels carousels) {
         this.categoryId = categoryId;
         this.viewAllListener = viewAllListener;
         this.articleClickListener = articleClickListener;
+        this.carousels = carousels;
     }
 
     /**
-     * Updates the list of subcategories with efficient diffing
-     * @param subcategories New list of subcategory names
+     * Shows one row per subcategory with its preview articles, with efficient diffing.
+     * Subcategories without articles are left out unless none has any.
+     * @param previews Subcategory name -> preview articles. Rows follow the map's iteration
+     *                 order, so pass an ordered map such as a LinkedHashMap
      */
-    public void setSubcategories(List<String> subcategories) {
-        if (subcategories == null) {
-            subcategories = new ArrayList<>();
+    public void setPreviews(Map<String, List<Article>> previews) {
+        // Copied so later changes to the caller's map don't reach the rows
+        Map<String, List<Article>> newPreviews =
+                previews != null ? new LinkedHashMap<>(previews) : new LinkedHashMap<>();
+
+        List<String> subcategories = new ArrayList<>();
+        for (Map.Entry<String, List<Article>> entry : newPreviews.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                subcategories.add(entry.getKey());
+            }
         }
-        
-        SubcategoryDiffCallback diffCallback = new SubcategoryDiffCallback(this.subcategoryNames, subcategories);
+        if (subcategories.isEmpty()) {
+            subcategories.addAll(newPreviews.keySet());
+        }
+
+        SubcategoryDiffCallback diffCallback = new SubcategoryDiffCallback(
+                this.subcategoryNames, subcategories, this.previews, newPreviews);
         DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
         
         this.subcategoryNames.clear();
         this.subcategoryNames.addAll(subcategories);
+        this.previews = newPreviews;
         
         diffResult.dispatchUpdatesTo(this);
     }
@@ -71,10 +97,16 @@ public class SubcategoryAdapter extends RecyclerView.Adapter<SubcategoryAdapter.
     private static class SubcategoryDiffCallback extends DiffUtil.Callback {
         private final List<String> oldList;
         private final List<String> newList;
+        private final Map<String, List<Article>> oldPreviews;
+        private final Map<String, List<Article>> newPreviews;
         
-        public SubcategoryDiffCallback(List<String> oldList, List<String> newList) {
+        public SubcategoryDiffCallback(List<String> oldList, List<String> newList,
+                                       Map<String, List<Article>> oldPreviews,
+                                       Map<String, List<Article>> newPreviews) {
             this.oldList = oldList != null ? oldList : new ArrayList<>();
             this.newList = newList != null ? newList : new ArrayList<>();
+            this.oldPreviews = oldPreviews;
+            this.newPreviews = newPreviews;
         }
         
         @Override
@@ -95,8 +127,31 @@ public class SubcategoryAdapter extends RecyclerView.Adapter<SubcategoryAdapter.
         
         @Override
         public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-            // For subcategories, the content is the same if the names are equal
-            return oldList.get(oldItemPosition).equals(newList.get(newItemPosition));
+            // The row only needs rebinding if its preview cards would look different
+            return looksTheSame(oldPreviews.get(oldList.get(oldItemPosition)),
+                    newPreviews.get(newList.get(newItemPosition)));
+        }
+
+        /**
+         * Compares two preview lists by article id and the fields the cards display, since
+         * {@link Article} doesn't implement equals.
+         */
+        private static boolean looksTheSame(List<Article> oldArticles, List<Article> newArticles) {
+            if (oldArticles == null || newArticles == null) {
+                return oldArticles == newArticles;
+            }
+            if (oldArticles.size() != newArticles.size()) {
+                return false;
+            }
+            for (int i = 0; i < oldArticles.size(); i++) {
+                Article oldArticle = oldArticles.get(i);
+                Article newArticle = newArticles.get(i);
+                if (!Objects.equals(oldArticle.getId(), newArticle.getId())
+                        || !BaseArticleAdapter.changedFields(oldArticle, newArticle).isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
         }
         
         @Nullable
@@ -112,13 +167,15 @@ public class SubcategoryAdapter extends RecyclerView.Adapter<SubcategoryAdapter.
     public SubcategoryViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_subcategory_card, parent, false);
-        return new SubcategoryViewHolder(view);
+        return new SubcategoryViewHolder(view, carousels);
     }
 
     @Override
     public void onBindViewHolder(@NonNull SubcategoryViewHolder holder, int position) {
         String subcategoryName = subcategoryNames.get(position);
-        holder.bind(subcategoryName, categoryId, viewAllListener, articleClickListener);
+        List<Article> articles = previews.get(subcategoryName);
+        holder.bind(subcategoryName, categoryId, articles != null ? articles : Collections.emptyList(),
+                viewAllListener, articleClickListener);
     }
 
     @Override
@@ -132,28 +189,25 @@ public class SubcategoryAdapter extends RecyclerView.Adapter<SubcategoryAdapter.
         private final RecyclerView articlesRecyclerView;
         private final ArticleHorizontalAdapter articlesAdapter;
         private OnArticleClickListener articleClickListener;
+        // The subcategory whose articles the carousel shows
+        private String boundSubcategory;
 
-        public SubcategoryViewHolder(@NonNull View itemView) {
+        public SubcategoryViewHolder(@NonNull View itemView, ArticleCarousels carousels) {
             super(itemView);
             subcategoryTitle = itemView.findViewById(R.id.subcategoryTitle);
             viewAllButton = itemView.findViewById(R.id.viewAllButton);
             articlesRecyclerView = itemView.findViewById(R.id.articlesRecyclerView);
 
-            // Set up horizontal layout manager for articles
-            articlesRecyclerView.setLayoutManager(
-                    new LinearLayoutManager(itemView.getContext(),
-                            LinearLayoutManager.HORIZONTAL, false));
-
-            // Initialize articles adapter
+            // Initialize articles adapter on the shared card pool
             articlesAdapter = new ArticleHorizontalAdapter(article -> {
                 if (this.articleClickListener != null) {
                     this.articleClickListener.onArticleClick(article);
                 }
             });
-            articlesRecyclerView.setAdapter(articlesAdapter);
+            carousels.setUp(articlesRecyclerView, articlesAdapter);
         }
 
-        public void bind(String subcategoryName, String categoryId,
+        public void bind(String subcategoryName, String categoryId, List<Article> articles,
                         OnViewAllClickListener viewAllListener,
                         OnArticleClickListener articleClickListener) {
             // Store the click listener
@@ -172,17 +226,14 @@ public class SubcategoryAdapter extends RecyclerView.Adapter<SubcategoryAdapter.
                 }
             });
 
-            // Set up articles (first 5)
-            // Use the subcategory name as ID since we don't have separate IDs in this context
-            String subcategoryId = subcategoryName != null ? 
-                subcategoryName.toLowerCase().replace(" ", "") : "";
-            List<Article> articles = DataHandler.getDummyArticlesBySubcategory(subcategoryId);
-            if (articles != null && !articles.isEmpty()) {
-                int count = Math.min(5, articles.size());
-                articlesAdapter.setArticles(articles.subList(0, count));
-            } else {
-                articlesAdapter.setArticles(new ArrayList<>());
+            // Set up the preloaded preview articles. A recycled row showing another subcategory
+            // is replaced right away rather than diffed, so its old cards never flash
+            if (boundSubcategory != null && !boundSubcategory.equals(subcategoryName)) {
+                articlesAdapter.clearArticles();
+                articlesRecyclerView.scrollToPosition(0);
             }
+            boundSubcategory = subcategoryName;
+            articlesAdapter.setArticles(articles);
 
             // Set button color based on category
             int colorResId = getCategoryColor(categoryId);
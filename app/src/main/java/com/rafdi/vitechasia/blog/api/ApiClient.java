@@ -1,44 +1,95 @@
 package com.rafdi.vitechasia.blog.api;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.rafdi.vitechasia.blog.BuildConfig;
+import com.rafdi.vitechasia.blog.models.Article;
+
 import okhttp3.OkHttpClient;
+import okhttp3.brotli.BrotliInterceptor;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
+
 import java.util.concurrent.TimeUnit;
 
 /**
  * A singleton class that provides a configured Retrofit instance and API service instances.
- * This class handles the network client configuration including timeouts and logging.
+ * This class handles the network client configuration including timeouts, response
+ * compression and logging.
  * 
  * <p>Use {@link #getClient()} to get a configured Retrofit instance or
  * {@link #getArticleApiService()} to get a ready-to-use ArticleApiService instance.
+ * Other HTTP users such as image loading derive their clients from {@link #getHttpClient()}
+ * so that all requests share one connection pool and dispatcher.
+ *
+ * <p>API responses are not cached over HTTP: PocketBase sends neither ETag nor Last-Modified
+ * for records, so there is nothing to revalidate with. Freshness is handled by the repository's
+ * Room cache and delta sync instead.
+ *
+ * <p>Every call is recorded in {@link NetworkMetrics}. Request and response bodies are only
+ * logged in debug builds.
  */
 
 public class ApiClient {
     private static final String BASE_URL = "https://127.0.0.1:8090/api/";
     private static Retrofit retrofit = null;
+    private static OkHttpClient httpClient = null;
+
+    /**
+     * Creates the Gson instance used to parse API responses. Articles and response pages are
+     * bound by hand-written streaming adapters rather than by reflection.
+     */
+    public static Gson createGson() {
+        return new GsonBuilder()
+                .registerTypeAdapter(Article.class, new ArticleTypeAdapter())
+                .registerTypeAdapterFactory(new PocketBaseResponseTypeAdapterFactory())
+                .create();
+    }
     
     /**
-     * Gets the singleton Retrofit instance, creating it if necessary.
-     * The client is configured with a 30-second timeout and HTTP logging.
+     * Gets the shared OkHttp client of the API, creating it if necessary.
+     * The client is configured with a 30-second timeout, brotli/gzip response
+     * compression, {@link NetworkMetrics} and, in debug builds, HTTP logging. Use
+     * {@link OkHttpClient#newBuilder()} to derive a client with other settings that still shares
+     * the connection pool.
      *
-     * @return Configured Retrofit instance
+     * @return The shared OkHttpClient
      */
-    public static Retrofit getClient() {
-        if (retrofit == null) {
-            HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
-            logging.setLevel(HttpLoggingInterceptor.Level.BODY);
-            
-            OkHttpClient.Builder httpClient = new OkHttpClient.Builder()
+    public static synchronized OkHttpClient getHttpClient() {
+        if (httpClient == null) {
+            OkHttpClient.Builder builder = new OkHttpClient.Builder()
                     .connectTimeout(30, TimeUnit.SECONDS)
                     .readTimeout(30, TimeUnit.SECONDS)
                     .writeTimeout(30, TimeUnit.SECONDS)
-                    .addInterceptor(logging);
-            
+                    .eventListenerFactory(NetworkMetrics.getInstance());
+            if (BuildConfig.DEBUG) {
+                // Bodies can hold user data, so release builds never copy them into logcat
+                HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
+                logging.setLevel(HttpLoggingInterceptor.Level.BODY);
+                builder.addInterceptor(logging);
+            }
+            httpClient = builder
+                    // Advertises "br,gzip" and decodes either; added after logging so the
+                    // logged body is the decoded JSON
+                    .addInterceptor(BrotliInterceptor.INSTANCE)
+                    .build();
+        }
+        return httpClient;
+    }
+
+    /**
+     * Gets the singleton Retrofit instance, creating it if necessary.
+     * Requests go through the shared client from {@link #getHttpClient()}.
+     *
+     * @return Configured Retrofit instance
+     */
+    public static synchronized Retrofit getClient() {
+        if (retrofit == null) {
             retrofit = new Retrofit.Builder()
                     .baseUrl(BASE_URL)
-                    .addConverterFactory(GsonConverterFactory.create())
-                    .client(httpClient.build())
+                    .addConverterFactory(GsonConverterFactory.create(createGson()))
+                    .client(getHttpClient())
                     .build();
         }
         return retrofit;
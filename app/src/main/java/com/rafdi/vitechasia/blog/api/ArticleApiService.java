@@ -69,12 +69,14 @@ public interface ArticleApiService {
 
     /**
      * Fetches a single article by its unique identifier.
+     * PocketBase answers this endpoint with the bare record, not a list response.
      *
      * @param id The unique identifier of the article to retrieve.
-     * @return A {@link Call} that represents the HTTP request for a single article.
+     * @param expand Comma-separated list of relations to expand, or null for none
+     * @return A {@link Call} that yields the {@link Article}.
      */
     @GET("collections/Article/records/{id}")
-    Call<PocketBaseResponse<Article>> getArticleById(
+    Call<Article> getArticleById(
             @Path("id") String id,
             @Query("expand") String expand
     );
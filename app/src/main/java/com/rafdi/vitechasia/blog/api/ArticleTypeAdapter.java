@@ -0,0 +1,141 @@
+package com.rafdi.vitechasia.blog.api;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Streaming Gson adapter for {@link Article} records.
+ *
+ * <p>Reads the fields straight from the {@link JsonReader} with a switch on the field name
+ * instead of reflection, and skips everything it doesn't know (e.g. {@code collectionId}).
+ * The collection names {@code category}, {@code subcategory} and {@code created} are
+ * accepted as aliases of the model fields; an explicit {@code publishDate} wins over
+ * {@code created}. Dates are parsed with {@link PocketBaseDates}.
+ */
+public class ArticleTypeAdapter extends TypeAdapter<Article> {
+
+    @Override
+    public Article read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        Article article = new Article();
+        Date created = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    article.setId(in.nextString());
+                    break;
+                case "title":
+                    article.setTitle(in.nextString());
+                    break;
+                case "content":
+                    article.setContent(in.nextString());
+                    break;
+                case "imageUrl":
+                    article.setImageUrl(in.nextString());
+                    break;
+                case "categoryId":
+                case "category":
+                    article.setCategoryId(in.nextString());
+                    break;
+                case "subcategoryId":
+                case "subcategory":
+                    article.setSubcategoryId(in.nextString());
+                    break;
+                case "authorId":
+                    article.setAuthorId(in.nextString());
+                    break;
+                case "authorName":
+                    article.setAuthorName(in.nextString());
+                    break;
+                case "authorImageUrl":
+                    article.setAuthorImageUrl(in.nextString());
+                    break;
+                case "publishDate":
+                    article.setPublishDate(PocketBaseDates.parse(in.nextString()));
+                    break;
+                case "created":
+                    created = PocketBaseDates.parse(in.nextString());
+                    break;
+                case "updated":
+                    article.setUpdated(PocketBaseDates.parse(in.nextString()));
+                    break;
+                case "viewCount":
+                    article.setViewCount(readInt(in));
+                    break;
+                case "likeCount":
+                    article.setLikeCount(readInt(in));
+                    break;
+                case "shareCount":
+                    article.setShareCount(readInt(in));
+                    break;
+                case "commentCount":
+                    article.setCommentCount(readInt(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+
+        if (article.getPublishDate() == null) {
+            article.setPublishDate(created);
+        }
+        return article;
+    }
+
+    @Override
+    public void write(JsonWriter out, Article article) throws IOException {
+        if (article == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(article.getId());
+        out.name("title").value(article.getTitle());
+        out.name("content").value(article.getContent());
+        out.name("imageUrl").value(article.getImageUrl());
+        out.name("categoryId").value(article.getCategoryId());
+        out.name("subcategoryId").value(article.getSubcategoryId());
+        out.name("authorId").value(article.getAuthorId());
+        out.name("authorName").value(article.getAuthorName());
+        out.name("authorImageUrl").value(article.getAuthorImageUrl());
+        out.name("publishDate").value(article.getPublishDate() != null
+                ? PocketBaseDates.format(article.getPublishDate()) : null);
+        out.name("updated").value(article.getUpdated() != null
+                ? PocketBaseDates.format(article.getUpdated()) : null);
+        out.name("viewCount").value(article.getViewCount());
+        out.name("likeCount").value(article.getLikeCount());
+        out.name("shareCount").value(article.getShareCount());
+        out.name("commentCount").value(article.getCommentCount());
+        out.endObject();
+    }
+
+    /**
+     * Reads a count, tolerating numbers sent as strings or with a fraction.
+     */
+    private static int readInt(JsonReader in) throws IOException {
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            // nextInt() has not consumed the value if it wasn't an integer
+            return (int) in.nextDouble();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.rafdi.vitechasia.blog.api;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Response;
+
+/**
+ * Thrown when the API answers with a non-successful HTTP status.
+ * Carries the status code and the server's {@code Retry-After} hint so callers can decide
+ * whether and when to retry.
+ */
+public class HttpStatusException extends Exception {
+    private final int code;
+    private final long retryAfterMs;
+
+    public HttpStatusException(int code, String message, long retryAfterMs) {
+        super(message);
+        this.code = code;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    /**
+     * Creates an exception from an unsuccessful Retrofit response, including the error body
+     * in the message when there is one.
+     */
+    public static HttpStatusException fromResponse(Response<?> response) {
+        String message = response.message();
+        if (response.errorBody() != null) {
+            try {
+                message = message + ": " + response.errorBody().string();
+            } catch (IOException ignored) {
+                // Keep the status message only
+            }
+        }
+        return new HttpStatusException(response.code(), message,
+                parseRetryAfter(response.headers().get("Retry-After"), System.currentTimeMillis()));
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * The delay requested by the server in milliseconds, or -1 if none was given.
+     */
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+
+    /**
+     * Whether the request may succeed if repeated: rate limiting and server-side errors.
+     */
+    public boolean isRetryable() {
+        return code == 429 || code >= 500;
+    }
+
+    /**
+     * Parses a {@code Retry-After} header given either as delta-seconds or as an HTTP date.
+     *
+     * @return The delay in milliseconds, or -1 if the header is missing or malformed
+     */
+    static long parseRetryAfter(String value, long now) {
+        if (value == null || value.trim().isEmpty()) {
+            return -1;
+        }
+        String trimmed = value.trim();
+        try {
+            // toMillis saturates instead of overflowing on absurd values
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(trimmed)));
+        } catch (NumberFormatException ignored) {
+            // Not delta-seconds, try an HTTP date
+        }
+        try {
+            SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+            Date date = format.parse(trimmed);
+            return date != null ? Math.max(0, date.getTime() - now) : -1;
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.rafdi.vitechasia.blog.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * In-app registry of network metrics, grouped by endpoint.
+ *
+ * <p>Installed on the shared client as its {@link EventListener.Factory}, so every call records
+ * its DNS, connect, time-to-first-byte and total latency into histograms, together with the
+ * bytes sent and received. {@code RetryWithBackoff} reports how many attempts each operation
+ * needed through {@link #recordAttempts(String, int, boolean)}.
+ *
+ * <p>Article calls are grouped by route, e.g. {@code collections/Article/records} and
+ * {@code collections/Article/records/{id}}; any other call, such as an image download, is
+ * grouped by host. Use {@link #toJson()} to dump everything.
+ */
+public final class NetworkMetrics implements EventListener.Factory {
+    /** Endpoint of article list queries. */
+    public static final String ENDPOINT_ARTICLES = "collections/Article/records";
+    /** Endpoint of single article requests. */
+    public static final String ENDPOINT_ARTICLE = "collections/Article/records/{id}";
+
+    private static final NetworkMetrics INSTANCE = new NetworkMetrics();
+    private static final String RECORD_ID = "{id}";
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    private NetworkMetrics() {
+    }
+
+    public static NetworkMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    @NonNull
+    @Override
+    public EventListener create(@NonNull Call call) {
+        return new CallListener(endpoint(call.request().url()));
+    }
+
+    /**
+     * Records the outcome of a retried operation.
+     *
+     * @param endpoint The endpoint the operation calls, as returned by {@link #endpoint(HttpUrl)}
+     * @param attempts How many attempts were made, including the first one
+     * @param succeeded Whether the last attempt succeeded
+     */
+    public void recordAttempts(@NonNull String endpoint, int attempts, boolean succeeded) {
+        metricsFor(endpoint).recordAttempts(attempts, succeeded);
+    }
+
+    /**
+     * Clears all recorded metrics.
+     */
+    public void reset() {
+        endpoints.clear();
+    }
+
+    /**
+     * Returns all metrics as a JSON document with one object per endpoint. Latencies are in
+     * milliseconds and percentiles are the upper bound of the histogram bucket they fall in.
+     */
+    @NonNull
+    public String toJson() {
+        JsonObject root = new JsonObject();
+        JsonObject byEndpoint = new JsonObject();
+        for (Map.Entry<String, EndpointMetrics> entry : new TreeMap<>(endpoints).entrySet()) {
+            byEndpoint.add(entry.getKey(), entry.getValue().toJson());
+        }
+        root.addProperty("timestamp", System.currentTimeMillis());
+        root.add("endpoints", byEndpoint);
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+
+    /**
+     * Returns the endpoint a URL is recorded under.
+     */
+    @NonNull
+    public static String endpoint(@NonNull HttpUrl url) {
+        List<String> segments = url.pathSegments();
+        int start = !segments.isEmpty() && "api".equals(segments.get(0)) ? 1 : 0;
+        if (segments.size() - start >= 3
+                && "collections".equals(segments.get(start))
+                && "records".equals(segments.get(start + 2))) {
+            String route = "collections/" + segments.get(start + 1) + "/records";
+            return segments.size() - start > 3 ? route + "/" + RECORD_ID : route;
+        }
+        return url.host();
+    }
+
+    private EndpointMetrics metricsFor(String endpoint) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        if (metrics == null) {
+            EndpointMetrics created = new EndpointMetrics();
+            metrics = endpoints.putIfAbsent(endpoint, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Collects the events of a single call and records them when the call ends. OkHttp delivers
+     * the events of one call sequentially, so no locking is needed until then.
+     */
+    private final class CallListener extends EventListener {
+        private final String endpoint;
+        private long callStart;
+        private long dnsStart;
+        private long connectStart;
+        // Summed because redirects and route retries can resolve and connect more than once
+        private long dnsNanos = -1;
+        private long connectNanos = -1;
+        private long ttfbNanos = -1;
+        private long requestBytes;
+        private long responseBytes;
+
+        CallListener(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public void callStart(@NonNull Call call) {
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(@NonNull Call call, @NonNull String domainName,
+                           @NonNull List<InetAddress> inetAddressList) {
+            dnsNanos = Math.max(dnsNanos, 0) + System.nanoTime() - dnsStart;
+        }
+
+        @Override
+        public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress,
+                                 @NonNull Proxy proxy) {
+            connectStart = System.nanoTime();
+        }
+
+        @Override
+        public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress,
+                               @NonNull Proxy proxy, @Nullable Protocol protocol) {
+            connectNanos = Math.max(connectNanos, 0) + System.nanoTime() - connectStart;
+        }
+
+        @Override
+        public void connectFailed(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress,
+                                  @NonNull Proxy proxy, @Nullable Protocol protocol,
+                                  @NonNull IOException ioe) {
+            connectNanos = Math.max(connectNanos, 0) + System.nanoTime() - connectStart;
+        }
+
+        @Override
+        public void requestHeadersEnd(@NonNull Call call, @NonNull Request request) {
+            requestBytes += request.headers().byteCount();
+        }
+
+        @Override
+        public void requestBodyEnd(@NonNull Call call, long byteCount) {
+            requestBytes += byteCount;
+        }
+
+        @Override
+        public void responseHeadersStart(@NonNull Call call) {
+            if (ttfbNanos < 0) {
+                ttfbNanos = System.nanoTime() - callStart;
+            }
+        }
+
+        @Override
+        public void responseHeadersEnd(@NonNull Call call, @NonNull Response response) {
+            responseBytes += response.headers().byteCount();
+        }
+
+        @Override
+        public void responseBodyEnd(@NonNull Call call, long byteCount) {
+            responseBytes += byteCount;
+        }
+
+        @Override
+        public void callEnd(@NonNull Call call) {
+            record(false);
+        }
+
+        @Override
+        public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+            record(true);
+        }
+
+        private void record(boolean failed) {
+            metricsFor(endpoint).recordCall(System.nanoTime() - callStart, dnsNanos, connectNanos,
+                    ttfbNanos, requestBytes, responseBytes, failed);
+        }
+    }
+
+    /**
+     * Metrics of one endpoint. All access is synchronized on the instance.
+     */
+    private static final class EndpointMetrics {
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LatencyHistogram dns = new LatencyHistogram();
+        private final LatencyHistogram connect = new LatencyHistogram();
+        private final LatencyHistogram ttfb = new LatencyHistogram();
+        private long calls;
+        private long failures;
+        private long requestBytes;
+        private long responseBytes;
+        private long operations;
+        private long attempts;
+        private long retriedOperations;
+        private long exhaustedOperations;
+
+        synchronized void recordCall(long totalNanos, long dnsNanos, long connectNanos,
+                                     long ttfbNanos, long sent, long received, boolean failed) {
+            calls++;
+            if (failed) {
+                failures++;
+            }
+            requestBytes += sent;
+            responseBytes += received;
+            total.record(totalNanos);
+            // Phases that did not happen, e.g. DNS on a pooled connection, are not recorded
+            if (dnsNanos >= 0) dns.record(dnsNanos);
+            if (connectNanos >= 0) connect.record(connectNanos);
+            if (ttfbNanos >= 0) ttfb.record(ttfbNanos);
+        }
+
+        synchronized void recordAttempts(int count, boolean succeeded) {
+            operations++;
+            attempts += count;
+            if (count > 1) {
+                retriedOperations++;
+            }
+            if (!succeeded) {
+                exhaustedOperations++;
+            }
+        }
+
+        synchronized JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("calls", calls);
+            json.addProperty("failures", failures);
+            json.addProperty("requestBytes", requestBytes);
+            json.addProperty("responseBytes", responseBytes);
+
+            JsonObject latency = new JsonObject();
+            latency.add("total", total.toJson());
+            latency.add("dns", dns.toJson());
+            latency.add("connect", connect.toJson());
+            latency.add("ttfb", ttfb.toJson());
+            json.add("latencyMs", latency);
+
+            JsonObject retries = new JsonObject();
+            retries.addProperty("operations", operations);
+            retries.addProperty("attempts", attempts);
+            retries.addProperty("retried", retriedOperations);
+            retries.addProperty("exhausted", exhaustedOperations);
+            json.add("retries", retries);
+            return json;
+        }
+    }
+
+    /**
+     * Latency histogram with fixed, roughly logarithmic millisecond buckets, which keeps the
+     * memory per endpoint constant while still showing the tail.
+     */
+    private static final class LatencyHistogram {
+        private static final long[] BOUNDS_MS = {
+                5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000
+        };
+
+        // The last bucket counts everything above the largest bound
+        private final long[] counts = new long[BOUNDS_MS.length + 1];
+        private long count;
+        private long sumMs;
+        private long maxMs;
+
+        void record(long nanos) {
+            long ms = TimeUnit.NANOSECONDS.toMillis(nanos);
+            int bucket = 0;
+            while (bucket < BOUNDS_MS.length && ms > BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            counts[bucket]++;
+            count++;
+            sumMs += ms;
+            maxMs = Math.max(maxMs, ms);
+        }
+
+        private long percentile(double fraction) {
+            long rank = (long) Math.ceil(count * fraction);
+            long seen = 0;
+            for (int i = 0; i < BOUNDS_MS.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(BOUNDS_MS[i], maxMs);
+                }
+            }
+            return maxMs;
+        }
+
+        JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("count", count);
+            if (count == 0) {
+                return json;
+            }
+            json.addProperty("mean", sumMs / count);
+            json.addProperty("p50", percentile(0.50));
+            json.addProperty("p90", percentile(0.90));
+            json.addProperty("p99", percentile(0.99));
+            json.addProperty("max", maxMs);
+
+            JsonArray buckets = new JsonArray();
+            for (int i = 0; i < counts.length; i++) {
+                JsonObject bucket = new JsonObject();
+                bucket.addProperty("le", i < BOUNDS_MS.length ? String.valueOf(BOUNDS_MS[i]) : "+Inf");
+                bucket.addProperty("count", counts[i]);
+                buckets.add(bucket);
+            }
+            json.add("buckets", buckets);
+            return json;
+        }
+    }
+}
@@ -105,17 +105,11 @@ public class PocketBaseClient {
 
     // Get article by ID
     public void getArticleById(String id, String expand, PocketBaseCallback<Article> callback) {
-        apiService.getArticleById(id, expand).enqueue(new Callback<PocketBaseResponse<Article>>() {
+        apiService.getArticleById(id, expand).enqueue(new Callback<Article>() {
             @Override
-            public void onResponse(Call<PocketBaseResponse<Article>> call,
-                                   Response<PocketBaseResponse<Article>> response) {
+            public void onResponse(Call<Article> call, Response<Article> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    List<Article> items = response.body().getItems();
-                    if (!items.isEmpty()) {
-                        callback.onSuccess(items.get(0));
-                    } else {
-                        callback.onError("Article not found");
-                    }
+                    callback.onSuccess(response.body());
                 } else {
                     callback.onError("Failed to fetch article: " +
                             (response.errorBody() != null ?
@@ -124,7 +118,7 @@ public class PocketBaseClient {
             }
 
             @Override
-            public void onFailure(Call<PocketBaseResponse<Article>> call, Throwable t) {
+            public void onFailure(Call<Article> call, Throwable t) {
                 callback.onError("Network error: " + t.getMessage());
             }
         });
@@ -0,0 +1,193 @@
+package com.rafdi.vitechasia.blog.api;
+
+import java.util.Date;
+
+/**
+ * Parses and formats the datetimes used by PocketBase without {@link java.text.SimpleDateFormat}.
+ *
+ * <p>PocketBase writes UTC datetimes as {@code 2024-05-01 10:20:30.123Z}. The parser also
+ * accepts the ISO 8601 {@code T} separator, any number of fraction digits, a numeric
+ * {@code +hh:mm} offset and plain dates. Parsing works directly on the characters and is
+ * thread-safe, so it can be used from the JSON adapters for every item of a page.
+ */
+public final class PocketBaseDates {
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private PocketBaseDates() {
+    }
+
+    /**
+     * Parses a PocketBase or ISO 8601 datetime.
+     *
+     * @return The parsed date, or null if the value is empty or malformed
+     */
+    public static Date parse(String value) {
+        long millis = parseMillis(value);
+        return millis != Long.MIN_VALUE ? new Date(millis) : null;
+    }
+
+    /**
+     * Parses a PocketBase or ISO 8601 datetime into epoch milliseconds.
+     *
+     * @return The epoch milliseconds, or {@link Long#MIN_VALUE} if the value is empty or malformed
+     */
+    public static long parseMillis(String value) {
+        if (value == null) {
+            return Long.MIN_VALUE;
+        }
+        int length = value.length();
+        if (length < 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return Long.MIN_VALUE;
+        }
+
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int millis = 0;
+        int offsetMinutes = 0;
+        int pos = 10;
+        if (pos < length) {
+            char separator = value.charAt(pos);
+            if ((separator != ' ' && separator != 'T') || length < pos + 6
+                    || value.charAt(pos + 3) != ':') {
+                return Long.MIN_VALUE;
+            }
+            hour = digits(value, pos + 1, 2);
+            minute = digits(value, pos + 4, 2);
+            pos += 6;
+            if (pos + 2 < length && value.charAt(pos) == ':') {
+                second = digits(value, pos + 1, 2);
+                pos += 3;
+            }
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 60) {
+                return Long.MIN_VALUE;
+            }
+
+            if (pos < length && value.charAt(pos) == '.') {
+                pos++;
+                int scale = 100;
+                int start = pos;
+                while (pos < length && isDigit(value.charAt(pos))) {
+                    // Only millisecond precision is kept; further digits are skipped
+                    millis += (value.charAt(pos) - '0') * scale;
+                    scale /= 10;
+                    pos++;
+                }
+                if (pos == start) {
+                    return Long.MIN_VALUE;
+                }
+            }
+
+            if (pos < length) {
+                char zone = value.charAt(pos);
+                if (zone == 'Z' || zone == 'z') {
+                    pos++;
+                } else if (zone == '+' || zone == '-') {
+                    if (length < pos + 6 || value.charAt(pos + 3) != ':') {
+                        return Long.MIN_VALUE;
+                    }
+                    int offsetHours = digits(value, pos + 1, 2);
+                    int offsetMins = digits(value, pos + 4, 2);
+                    if (offsetHours < 0 || offsetMins < 0) {
+                        return Long.MIN_VALUE;
+                    }
+                    offsetMinutes = (offsetHours * 60 + offsetMins) * (zone == '-' ? -1 : 1);
+                    pos += 6;
+                }
+            }
+            if (pos != length) {
+                return Long.MIN_VALUE;
+            }
+        }
+
+        long days = daysFromCivil(year, month, day);
+        return days * MILLIS_PER_DAY
+                + ((hour * 60L + minute - offsetMinutes) * 60L + second) * 1000L
+                + millis;
+    }
+
+    /**
+     * Formats a date the way PocketBase stores it, e.g. {@code 2024-05-01 10:20:30.123Z}.
+     */
+    public static String format(Date date) {
+        return format(date.getTime());
+    }
+
+    /**
+     * Formats epoch milliseconds the way PocketBase stores them, in UTC.
+     */
+    public static String format(long epochMillis) {
+        long days = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        long millisOfDay = Math.floorMod(epochMillis, MILLIS_PER_DAY);
+
+        // Inverse of daysFromCivil
+        long z = days + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        StringBuilder out = new StringBuilder(24);
+        pad(out, year, 4).append('-');
+        pad(out, month, 2).append('-');
+        pad(out, day, 2).append(' ');
+        pad(out, millisOfDay / 3_600_000L, 2).append(':');
+        pad(out, millisOfDay / MILLIS_PER_MINUTE % 60, 2).append(':');
+        pad(out, millisOfDay / 1000 % 60, 2).append('.');
+        pad(out, millisOfDay % 1000, 3).append('Z');
+        return out.toString();
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date (Howard Hinnant's algorithm).
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Reads a fixed number of ASCII digits, or returns -1 if any of them is not a digit.
+     */
+    private static int digits(String value, int start, int count) {
+        if (start + count > value.length()) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = value.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static StringBuilder pad(StringBuilder out, long value, int width) {
+        String digits = Long.toString(value);
+        for (int i = digits.length(); i < width; i++) {
+            out.append('0');
+        }
+        return out.append(digits);
+    }
+}
@@ -0,0 +1,387 @@
+package com.rafdi.vitechasia.blog.api;
+
+import com.rafdi.vitechasia.blog.models.SearchFilters;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builder for PocketBase list query parameters.
+ * Produces the {@code filter}, {@code sort} and {@code fields} parameters passed through the
+ * {@link ArticleApiService#getArticles(int, int, Map)} query map, so filtering and sorting
+ * happen on the server and only the requested page is transferred.
+ *
+ * <p>List screens should request the {@link #summary()} projection: it leaves out the
+ * article body, which is by far the largest field, and is loaded separately when an
+ * article is opened.
+ *
+ * <p>String values are always quoted and escaped; never concatenate user input into a
+ * clause passed to {@link #where(String)}.
+ */
+public final class PocketBaseQuery {
+    public static final String FIELD_ID = "id";
+    public static final String FIELD_TITLE = "title";
+    public static final String FIELD_CONTENT = "content";
+    public static final String FIELD_AUTHOR_NAME = "authorName";
+    public static final String FIELD_CATEGORY = "category";
+    public static final String FIELD_SUBCATEGORY = "subcategory";
+    public static final String FIELD_PUBLISH_DATE = "publishDate";
+    public static final String FIELD_VIEW_COUNT = "viewCount";
+    public static final String FIELD_UPDATED = "updated";
+
+    public static final String PARAM_FILTER = "filter";
+    public static final String PARAM_SORT = "sort";
+    public static final String PARAM_FIELDS = "fields";
+    public static final String PARAM_SKIP_TOTAL = "skipTotal";
+
+    /**
+     * The fields needed to render an article card. Category and subcategory are requested
+     * under both their collection and their model names.
+     */
+    public static final String SUMMARY_FIELDS = "id,title,imageUrl,"
+            + "category,categoryId,subcategory,subcategoryId,"
+            + "authorId,authorName,authorImageUrl,publishDate,"
+            + "viewCount,likeCount,shareCount,commentCount";
+
+    private final List<String> clauses = new ArrayList<>();
+    private String sort;
+    private String fields;
+    private boolean skipTotal;
+
+    /**
+     * Builds the query for a text search with the given filters applied.
+     *
+     * @param text    The raw search text; every word must appear in the title, content or author name
+     * @param filters The filters and sort order, may be null
+     * @param now     The reference time in milliseconds for date range filters
+     */
+    public static PocketBaseQuery forSearch(String text, SearchFilters filters, long now) {
+        PocketBaseQuery query = new PocketBaseQuery().matchText(text);
+        if (filters != null) {
+            query.inCategories(filters.getSelectedCategories())
+                    .inSubcategory(filters.getSelectedSubcategory())
+                    .publishedAfter(filters.getPublishedAfter(now))
+                    .sortBy(sortFor(filters.getSortBy()));
+        }
+        return query;
+    }
+
+    /**
+     * Requires every whitespace-separated word of the text to appear in the title,
+     * content or author name.
+     */
+    public PocketBaseQuery matchText(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return this;
+        }
+        for (String word : text.trim().split("\\s+")) {
+            String value = quote(word);
+            clauses.add("(" + FIELD_TITLE + "~" + value +
+                    " || " + FIELD_CONTENT + "~" + value +
+                    " || " + FIELD_AUTHOR_NAME + "~" + value + ")");
+        }
+        return this;
+    }
+
+    /**
+     * Restricts results to a single category. A null or empty value is ignored.
+     */
+    public PocketBaseQuery inCategory(String category) {
+        if (category != null && !category.isEmpty()) {
+            clauses.add(FIELD_CATEGORY + "=" + quote(category));
+        }
+        return this;
+    }
+
+    /**
+     * Restricts results to articles whose category or subcategory matches, so one id works
+     * for both levels of the hierarchy. Null or empty is ignored.
+     */
+    public PocketBaseQuery inCategoryOrSubcategory(String id) {
+        if (id != null && !id.isEmpty()) {
+            clauses.add("(" + FIELD_CATEGORY + "=" + quote(id)
+                    + " || " + FIELD_SUBCATEGORY + "=" + quote(id) + ")");
+        }
+        return this;
+    }
+
+    /**
+     * Restricts results to any of the given categories. A null or empty collection is ignored.
+     */
+    public PocketBaseQuery inCategories(Collection<String> categories) {
+        if (categories == null || categories.isEmpty()) {
+            return this;
+        }
+        StringBuilder clause = new StringBuilder("(");
+        for (String category : categories) {
+            if (clause.length() > 1) {
+                clause.append(" || ");
+            }
+            clause.append(FIELD_CATEGORY).append("=").append(quote(category));
+        }
+        clauses.add(clause.append(")").toString());
+        return this;
+    }
+
+    /**
+     * Restricts results to the articles with the given ids. PocketBase filters have no
+     * {@code in} operator, so the ids are combined with {@code ||}. An empty collection is ignored.
+     */
+    public PocketBaseQuery withIds(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return this;
+        }
+        StringBuilder clause = new StringBuilder("(");
+        for (String id : ids) {
+            if (clause.length() > 1) {
+                clause.append(" || ");
+            }
+            clause.append(FIELD_ID).append("=").append(quote(id));
+        }
+        clauses.add(clause.append(")").toString());
+        return this;
+    }
+
+    /**
+     * Splits ids into groups whose {@link #withIds(Collection)} filter stays within the given
+     * length once URL-encoded, so that a multi-get never exceeds the URL limits of servers and
+     * proxies. The length is estimated on the safe side: every character except letters, digits
+     * and {@code -._~} is counted as percent-encoded. An id that exceeds the limit on its own
+     * gets a group of its own.
+     *
+     * @param ids              The ids to split, in the order they should be requested
+     * @param maxEncodedLength The maximum encoded length of each group's filter
+     */
+    public static List<List<String>> partitionIds(Collection<String> ids, int maxEncodedLength) {
+        List<List<String>> groups = new ArrayList<>();
+        List<String> group = new ArrayList<>();
+        int separatorLength = encodedLength(" || ");
+        // The clause is wrapped in parentheses
+        int length = encodedLength("()");
+        for (String id : ids) {
+            int clauseLength = encodedLength(FIELD_ID + "=" + quote(id));
+            int added = group.isEmpty() ? clauseLength : separatorLength + clauseLength;
+            if (!group.isEmpty() && length + added > maxEncodedLength) {
+                groups.add(group);
+                group = new ArrayList<>();
+                length = encodedLength("()");
+                added = clauseLength;
+            }
+            group.add(id);
+            length += added;
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    /**
+     * Returns an upper bound of the length of a value once percent-encoded in a query string.
+     */
+    private static int encodedLength(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_' || c == '~') {
+                length += 1;
+            } else if (c < 0x80) {
+                length += 3;
+            } else if (c < 0x800) {
+                length += 6;
+            } else {
+                // Also covers each half of a surrogate pair, which is 4 bytes in total
+                length += 9;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Restricts results to a single subcategory. A null or empty value is ignored.
+     */
+    public PocketBaseQuery inSubcategory(String subcategory) {
+        if (subcategory != null && !subcategory.isEmpty()) {
+            clauses.add(FIELD_SUBCATEGORY + "=" + quote(subcategory));
+        }
+        return this;
+    }
+
+    /**
+     * Restricts results to any of the given subcategories. A null or empty collection is ignored.
+     */
+    public PocketBaseQuery inSubcategories(Collection<String> subcategories) {
+        if (subcategories == null || subcategories.isEmpty()) {
+            return this;
+        }
+        StringBuilder clause = new StringBuilder("(");
+        for (String subcategory : subcategories) {
+            if (clause.length() > 1) {
+                clause.append(" || ");
+            }
+            clause.append(FIELD_SUBCATEGORY).append("=").append(quote(subcategory));
+        }
+        clauses.add(clause.append(")").toString());
+        return this;
+    }
+
+    /**
+     * Restricts results to articles published at or after the given date. Null is ignored.
+     */
+    public PocketBaseQuery publishedAfter(Date date) {
+        if (date != null) {
+            clauses.add(FIELD_PUBLISH_DATE + ">=" + quote(PocketBaseDates.format(date)));
+        }
+        return this;
+    }
+
+    /**
+     * Restricts results to records changed after the given position in {@code updated, id}
+     * order. Combined with {@link #sortBy(String)} on {@code "updated,id"} this pages through
+     * changes with a keyset cursor, which unlike page numbers doesn't skip records when others
+     * are edited in the meantime. A null date is ignored; a null id compares only the time.
+     */
+    public PocketBaseQuery updatedAfter(Date updated, String afterId) {
+        if (updated == null) {
+            return this;
+        }
+        String time = quote(PocketBaseDates.format(updated));
+        if (afterId == null) {
+            clauses.add(FIELD_UPDATED + ">" + time);
+        } else {
+            clauses.add(FIELD_UPDATED + ">" + time + " || (" + FIELD_UPDATED + "=" + time
+                    + " && " + FIELD_ID + ">" + quote(afterId) + ")");
+        }
+        return this;
+    }
+
+    /**
+     * Restricts results to records whose id sorts after the given one. Null is ignored.
+     */
+    public PocketBaseQuery idAfter(String afterId) {
+        if (afterId != null) {
+            clauses.add(FIELD_ID + ">" + quote(afterId));
+        }
+        return this;
+    }
+
+    /**
+     * Adds a raw clause that is combined with the others using {@code &&}.
+     * The clause must not contain unescaped user input.
+     */
+    public PocketBaseQuery where(String clause) {
+        if (clause != null && !clause.isEmpty()) {
+            clauses.add(clause);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the sort expression, e.g. {@code "-publishDate"}. Null leaves the server default order.
+     */
+    public PocketBaseQuery sortBy(String sort) {
+        this.sort = sort;
+        return this;
+    }
+
+    /**
+     * Restricts the response to the given comma-separated fields. Null returns every field.
+     */
+    public PocketBaseQuery fields(String fields) {
+        this.fields = fields;
+        return this;
+    }
+
+    /**
+     * Requests only the fields shown on list cards, see {@link #SUMMARY_FIELDS}.
+     */
+    public PocketBaseQuery summary() {
+        return fields(SUMMARY_FIELDS);
+    }
+
+    /**
+     * Asks the server not to count the matching records. The response then reports no totals,
+     * which saves a second query on the server when the caller pages by cursor.
+     */
+    public PocketBaseQuery skipTotal() {
+        this.skipTotal = true;
+        return this;
+    }
+
+    public String getFilter() {
+        if (clauses.size() == 1) {
+            return clauses.get(0);
+        }
+        StringBuilder filter = new StringBuilder();
+        for (String clause : clauses) {
+            if (filter.length() > 0) {
+                filter.append(" && ");
+            }
+            filter.append("(").append(clause).append(")");
+        }
+        return filter.toString();
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public String getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns the query parameters to pass as the {@code @QueryMap} of a list call.
+     */
+    public Map<String, String> toQueryMap() {
+        Map<String, String> params = new HashMap<>();
+        if (!clauses.isEmpty()) {
+            params.put(PARAM_FILTER, getFilter());
+        }
+        if (sort != null && !sort.isEmpty()) {
+            params.put(PARAM_SORT, sort);
+        }
+        if (fields != null && !fields.isEmpty()) {
+            params.put(PARAM_FIELDS, fields);
+        }
+        if (skipTotal) {
+            params.put(PARAM_SKIP_TOTAL, "true");
+        }
+        return params;
+    }
+
+    /**
+     * Maps a {@link SearchFilters.SortBy} to a PocketBase sort expression. Ties are broken by
+     * id, so articles with the same date or view count keep their order from page to page.
+     * Relevance has no server-side equivalent and returns null.
+     */
+    public static String sortFor(SearchFilters.SortBy sortBy) {
+        if (sortBy == null) {
+            return null;
+        }
+        switch (sortBy) {
+            case DATE_NEWEST:
+                return "-" + FIELD_PUBLISH_DATE + ",-" + FIELD_ID;
+            case DATE_OLDEST:
+                return FIELD_PUBLISH_DATE + ",-" + FIELD_ID;
+            case POPULARITY:
+                return "-" + FIELD_VIEW_COUNT + ",-" + FIELD_ID;
+            case RELEVANCE:
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Wraps a value in single quotes, escaping backslashes and quotes.
+     */
+    public static String quote(String value) {
+        String escaped = value == null ? "" : value.replace("\\", "\\\\").replace("'", "\\'");
+        return "'" + escaped + "'";
+    }
+}
@@ -21,6 +21,36 @@ public class PocketBaseResponse<T> {
     @SerializedName("totalPages")
     private int totalPages;
 
+    public PocketBaseResponse() {
+        // Used by Gson
+    }
+
+    public PocketBaseResponse(List<T> items, int page, int perPage, int totalItems, int totalPages) {
+        this.items = items;
+        this.page = page;
+        this.perPage = perPage;
+        this.totalItems = totalItems;
+        this.totalPages = totalPages;
+    }
+
+    /**
+     * Slices one page out of a list held in memory, e.g. for local fallbacks that should look
+     * like a server page to the caller.
+     *
+     * @param all     The full list
+     * @param page    The 1-based page number
+     * @param perPage The number of items per page
+     */
+    public static <T> PocketBaseResponse<T> ofList(List<T> all, int page, int perPage) {
+        int size = all != null ? all.size() : 0;
+        int safePerPage = Math.max(1, perPage);
+        int from = Math.min(Math.max(0, page - 1) * safePerPage, size);
+        int to = Math.min(from + safePerPage, size);
+        List<T> items = size > 0 ? new ArrayList<>(all.subList(from, to)) : new ArrayList<>();
+        int totalPages = (size + safePerPage - 1) / safePerPage;
+        return new PocketBaseResponse<>(items, page, safePerPage, size, totalPages);
+    }
+
     // Getters and setters
     public List<T> getItems() {
         return items != null ? items : new ArrayList<>();
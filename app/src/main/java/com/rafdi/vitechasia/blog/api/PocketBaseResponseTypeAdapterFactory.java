@@ -0,0 +1,115 @@
+package com.rafdi.vitechasia.blog.api;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates streaming Gson adapters for {@link PocketBaseResponse} of any item type.
+ *
+ * <p>The page envelope is read field by field and every item is handed to the item type's
+ * own adapter (e.g. {@link ArticleTypeAdapter}) as it is reached in the stream, so a page is
+ * bound without reflection and without building a JSON tree first.
+ */
+public class PocketBaseResponseTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != PocketBaseResponse.class) {
+            return null;
+        }
+        Type itemType = type.getType() instanceof ParameterizedType
+                ? ((ParameterizedType) type.getType()).getActualTypeArguments()[0]
+                : Object.class;
+        TypeAdapter<?> itemAdapter = gson.getAdapter(TypeToken.get(itemType));
+        return (TypeAdapter<T>) new ResponseAdapter<>(itemAdapter);
+    }
+
+    private static final class ResponseAdapter<E> extends TypeAdapter<PocketBaseResponse<E>> {
+        private final TypeAdapter<E> itemAdapter;
+
+        ResponseAdapter(TypeAdapter<E> itemAdapter) {
+            this.itemAdapter = itemAdapter;
+        }
+
+        @Override
+        public PocketBaseResponse<E> read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            List<E> items = null;
+            int page = 0;
+            int perPage = 0;
+            int totalItems = 0;
+            int totalPages = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "page":
+                        page = in.nextInt();
+                        break;
+                    case "perPage":
+                        perPage = in.nextInt();
+                        break;
+                    case "totalItems":
+                        totalItems = in.nextInt();
+                        break;
+                    case "totalPages":
+                        totalPages = in.nextInt();
+                        break;
+                    case "items":
+                        // PocketBase sends the paging fields first, so the page size is usually known
+                        items = new ArrayList<>(perPage > 0 ? Math.min(perPage, 500) : 10);
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            items.add(itemAdapter.read(in));
+                        }
+                        in.endArray();
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return new PocketBaseResponse<>(items, page, perPage, totalItems, totalPages);
+        }
+
+        @Override
+        public void write(JsonWriter out, PocketBaseResponse<E> response) throws IOException {
+            if (response == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("page").value(response.getPage());
+            out.name("perPage").value(response.getPerPage());
+            out.name("totalItems").value(response.getTotalItems());
+            out.name("totalPages").value(response.getTotalPages());
+            out.name("items").beginArray();
+            for (E item : response.getItems()) {
+                itemAdapter.write(out, item);
+            }
+            out.endArray();
+            out.endObject();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.rafdi.vitechasia.blog.database;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Room database holding the app's local article cache with its stored list pages, and the
+ * user's social interactions, reading progress and bookmarks.
+ *
+ * <p>Use {@link #getInstance(Context)} to get the singleton instance of this class.
+ */
+@Database(entities = {ArticleEntity.class, SocialInteractionEntity.class, ReadingProgressEntity.class,
+        BookmarkEntity.class, ArticlePageEntity.class},
+        version = 5, exportSchema = false)
+public abstract class AppDatabase extends RoomDatabase {
+    private static final String DATABASE_NAME = "sintesis.db";
+    private static volatile AppDatabase instance;
+
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `social_interactions` ("
+                    + "`article_id` TEXT NOT NULL, "
+                    + "`liked` INTEGER NOT NULL, "
+                    + "`shared` INTEGER NOT NULL, "
+                    + "`like_count` INTEGER NOT NULL, "
+                    + "`share_count` INTEGER NOT NULL, "
+                    + "`comment_count` INTEGER NOT NULL, "
+                    + "`updated_at` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`article_id`))");
+        }
+    };
+
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `reading_progress` ("
+                    + "`article_id` TEXT NOT NULL, "
+                    + "`progress` INTEGER NOT NULL, "
+                    + "`last_read_at` INTEGER NOT NULL, "
+                    + "`in_progress` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`article_id`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_reading_progress_in_progress_last_read_at` "
+                    + "ON `reading_progress` (`in_progress`, `last_read_at`)");
+        }
+    };
+
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `bookmarks` ("
+                    + "`article_id` TEXT NOT NULL, "
+                    + "`bookmarked_at` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`article_id`))");
+        }
+    };
+
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `article_pages` ("
+                    + "`query_key` TEXT NOT NULL, "
+                    + "`page` INTEGER NOT NULL, "
+                    + "`position` INTEGER NOT NULL, "
+                    + "`article_id` TEXT NOT NULL, "
+                    + "PRIMARY KEY(`query_key`, `page`, `position`))");
+        }
+    };
+
+    public abstract ArticleDao articleDao();
+
+    public abstract SocialInteractionDao socialInteractionDao();
+
+    public abstract ReadingProgressDao readingProgressDao();
+
+    public abstract BookmarkDao bookmarkDao();
+
+    /**
+     * Returns the singleton database, creating it on first use.
+     *
+     * @param context Any context (the application context is used internally)
+     * @return The shared AppDatabase instance
+     */
+    public static AppDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (AppDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(
+                                    context.getApplicationContext(),
+                                    AppDatabase.class,
+                                    DATABASE_NAME)
+                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5)
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
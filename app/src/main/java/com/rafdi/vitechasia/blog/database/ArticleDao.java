@@ -0,0 +1,125 @@
+package com.rafdi.vitechasia.blog.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import androidx.room.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data access object for the cached {@link ArticleEntity} rows.
+ * All methods block and must be called off the main thread.
+ */
+@Dao
+public interface ArticleDao {
+
+    /**
+     * Returns the articles of a stored list page in the order the server returned them.
+     * Articles deleted since the page was stored are left out, see {@link #getPageSize}.
+     */
+    @Query("SELECT articles.* FROM article_pages " +
+            "INNER JOIN articles ON articles.id = article_pages.article_id " +
+            "WHERE article_pages.query_key = :queryKey AND article_pages.page = :page " +
+            "ORDER BY article_pages.position")
+    List<ArticleEntity> getPage(String queryKey, int page);
+
+    /**
+     * Returns the number of articles a stored list page had, or 0 if it was never stored.
+     */
+    @Query("SELECT COUNT(*) FROM article_pages WHERE query_key = :queryKey AND page = :page")
+    int getPageSize(String queryKey, int page);
+
+    @Query("DELETE FROM article_pages WHERE query_key = :queryKey AND page = :page")
+    void deletePage(String queryKey, int page);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertPageEntries(List<ArticlePageEntity> entries);
+
+    /**
+     * Records which articles a list page returned, replacing what was stored for that page.
+     * The articles themselves are written with {@link #upsertAll(List)}.
+     */
+    @Transaction
+    default void replacePage(String queryKey, int page, List<String> articleIds) {
+        deletePage(queryKey, page);
+        List<ArticlePageEntity> entries = new ArrayList<>(articleIds.size());
+        for (int i = 0; i < articleIds.size(); i++) {
+            entries.add(new ArticlePageEntity(queryKey, page, i, articleIds.get(i)));
+        }
+        if (!entries.isEmpty()) {
+            insertPageEntries(entries);
+        }
+    }
+
+    /**
+     * Returns every cached article, newest first.
+     */
+    @Query("SELECT * FROM articles ORDER BY publish_date DESC")
+    List<ArticleEntity> getAllArticles();
+
+    @Query("SELECT COUNT(*) FROM articles")
+    int getArticleCount();
+
+    @Query("SELECT id FROM articles")
+    List<String> getAllIds();
+
+    @Query("DELETE FROM articles WHERE id IN (:ids)")
+    void deleteByIds(List<String> ids);
+
+    @Query("SELECT * FROM articles WHERE id = :id LIMIT 1")
+    ArticleEntity getArticleById(String id);
+
+    /**
+     * Returns the cached articles among the given ids, in no particular order.
+     */
+    @Query("SELECT * FROM articles WHERE id IN (:ids)")
+    List<ArticleEntity> getArticlesByIds(List<String> ids);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<ArticleEntity> articles);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(ArticleEntity article);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertAllIfAbsent(List<ArticleEntity> articles);
+
+    /**
+     * Updates every column except {@code content} of existing rows.
+     */
+    @Update(entity = ArticleEntity.class)
+    void updateSummaries(List<ArticleSummary> summaries);
+
+    /**
+     * Writes articles received from the API. Rows that came with their body replace the cached
+     * row; summary rows (no body) are inserted if new and otherwise update every column except
+     * the body, so a list refresh never drops content that was loaded on the detail screen.
+     */
+    @Transaction
+    default void upsertAll(List<ArticleEntity> articles) {
+        List<ArticleEntity> full = new ArrayList<>();
+        List<ArticleEntity> summaries = new ArrayList<>();
+        for (ArticleEntity article : articles) {
+            if (article.content != null) {
+                full.add(article);
+            } else {
+                summaries.add(article);
+            }
+        }
+        if (!full.isEmpty()) {
+            insertAll(full);
+        }
+        if (!summaries.isEmpty()) {
+            insertAllIfAbsent(summaries);
+            List<ArticleSummary> updates = new ArrayList<>(summaries.size());
+            for (ArticleEntity article : summaries) {
+                updates.add(ArticleSummary.fromEntity(article));
+            }
+            updateSummaries(updates);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.rafdi.vitechasia.blog.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.Date;
+
+/**
+ * Room entity mirroring the server-side fields of an {@link Article}.
+ * Used by {@link ArticleDao} as the offline cache behind the ArticleRepository.
+ */
+@Entity(tableName = "articles")
+public class ArticleEntity {
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "id")
+    public String id = "";
+
+    @ColumnInfo(name = "title")
+    public String title;
+
+    @ColumnInfo(name = "content")
+    public String content;
+
+    @ColumnInfo(name = "image_url")
+    public String imageUrl;
+
+    @ColumnInfo(name = "category_id")
+    public String categoryId;
+
+    @ColumnInfo(name = "subcategory_id")
+    public String subcategoryId;
+
+    @ColumnInfo(name = "author_id")
+    public String authorId;
+
+    @ColumnInfo(name = "author_name")
+    public String authorName;
+
+    @ColumnInfo(name = "author_image_url")
+    public String authorImageUrl;
+
+    @ColumnInfo(name = "publish_date")
+    public Long publishDate;
+
+    @ColumnInfo(name = "view_count")
+    public int viewCount;
+
+    @ColumnInfo(name = "like_count")
+    public int likeCount;
+
+    @ColumnInfo(name = "share_count")
+    public int shareCount;
+
+    @ColumnInfo(name = "comment_count")
+    public int commentCount;
+
+    // Time the row was last written from a network response
+    @ColumnInfo(name = "cached_at")
+    public long cachedAt;
+
+    /**
+     * Creates an entity from an article received from the API.
+     *
+     * @param article The article to convert
+     * @return The entity, or null if the article has no ID
+     */
+    public static ArticleEntity fromArticle(Article article) {
+        if (article == null || article.getId() == null) {
+            return null;
+        }
+
+        ArticleEntity entity = new ArticleEntity();
+        entity.id = article.getId();
+        entity.title = article.getTitle();
+        entity.content = article.getContent();
+        entity.imageUrl = article.getImageUrl();
+        entity.categoryId = article.getCategoryId();
+        entity.subcategoryId = article.getSubcategoryId();
+        entity.authorId = article.getAuthorId();
+        entity.authorName = article.getAuthorName();
+        entity.authorImageUrl = article.getAuthorImageUrl();
+        entity.publishDate = article.getPublishDate() != null ? article.getPublishDate().getTime() : null;
+        entity.viewCount = article.getViewCount();
+        entity.likeCount = article.getLikeCount();
+        entity.shareCount = article.getShareCount();
+        entity.commentCount = article.getCommentCount();
+        entity.cachedAt = System.currentTimeMillis();
+        return entity;
+    }
+
+    /**
+     * Converts this cached row back into an {@link Article}.
+     */
+    public Article toArticle() {
+        Article article = new Article(
+                id,
+                title,
+                content,
+                imageUrl,
+                categoryId,
+                subcategoryId,
+                authorId,
+                authorName,
+                authorImageUrl,
+                publishDate != null ? new Date(publishDate) : null,
+                viewCount,
+                likeCount
+        );
+        article.setShareCount(shareCount);
+        article.setCommentCount(commentCount);
+        return article;
+    }
+}
@@ -0,0 +1,37 @@
+package com.rafdi.vitechasia.blog.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+/**
+ * Room entity for one position of a cached list page: which article the server returned at
+ * that position of that page of a query. A page is served from the cache only if it was stored
+ * this way, so it matches what the server returned rather than whatever rows the cache holds.
+ */
+@Entity(tableName = "article_pages", primaryKeys = {"query_key", "page", "position"})
+public class ArticlePageEntity {
+    @NonNull
+    @ColumnInfo(name = "query_key")
+    public String queryKey = "";
+
+    @ColumnInfo(name = "page")
+    public int page;
+
+    @ColumnInfo(name = "position")
+    public int position;
+
+    @NonNull
+    @ColumnInfo(name = "article_id")
+    public String articleId = "";
+
+    public ArticlePageEntity() {
+    }
+
+    public ArticlePageEntity(@NonNull String queryKey, int page, int position, @NonNull String articleId) {
+        this.queryKey = queryKey;
+        this.page = page;
+        this.position = position;
+        this.articleId = articleId;
+    }
+}
@@ -0,0 +1,77 @@
+package com.rafdi.vitechasia.blog.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+/**
+ * Partial row of the {@code articles} table without the {@code content} column.
+ * Used by {@link ArticleDao#updateSummaries(java.util.List)} so that refreshing a row from a
+ * list response, which doesn't include the article body, keeps the body that was cached
+ * when the article was opened.
+ */
+public class ArticleSummary {
+    @NonNull
+    @ColumnInfo(name = "id")
+    public String id = "";
+
+    @ColumnInfo(name = "title")
+    public String title;
+
+    @ColumnInfo(name = "image_url")
+    public String imageUrl;
+
+    @ColumnInfo(name = "category_id")
+    public String categoryId;
+
+    @ColumnInfo(name = "subcategory_id")
+    public String subcategoryId;
+
+    @ColumnInfo(name = "author_id")
+    public String authorId;
+
+    @ColumnInfo(name = "author_name")
+    public String authorName;
+
+    @ColumnInfo(name = "author_image_url")
+    public String authorImageUrl;
+
+    @ColumnInfo(name = "publish_date")
+    public Long publishDate;
+
+    @ColumnInfo(name = "view_count")
+    public int viewCount;
+
+    @ColumnInfo(name = "like_count")
+    public int likeCount;
+
+    @ColumnInfo(name = "share_count")
+    public int shareCount;
+
+    @ColumnInfo(name = "comment_count")
+    public int commentCount;
+
+    @ColumnInfo(name = "cached_at")
+    public long cachedAt;
+
+    /**
+     * Copies every column except {@code content} from a full entity.
+     */
+    public static ArticleSummary fromEntity(ArticleEntity entity) {
+        ArticleSummary summary = new ArticleSummary();
+        summary.id = entity.id;
+        summary.title = entity.title;
+        summary.imageUrl = entity.imageUrl;
+        summary.categoryId = entity.categoryId;
+        summary.subcategoryId = entity.subcategoryId;
+        summary.authorId = entity.authorId;
+        summary.authorName = entity.authorName;
+        summary.authorImageUrl = entity.authorImageUrl;
+        summary.publishDate = entity.publishDate;
+        summary.viewCount = entity.viewCount;
+        summary.likeCount = entity.likeCount;
+        summary.shareCount = entity.shareCount;
+        summary.commentCount = entity.commentCount;
+        summary.cachedAt = entity.cachedAt;
+        return summary;
+    }
+}
@@ -0,0 +1,31 @@
+package com.rafdi.vitechasia.blog.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Data access object for {@link BookmarkEntity} rows.
+ * All methods block and must be called off the main thread.
+ */
+@Dao
+public interface BookmarkDao {
+
+    /**
+     * Returns all bookmarks, oldest first.
+     */
+    @Query("SELECT * FROM bookmarks ORDER BY bookmarked_at ASC")
+    List<BookmarkEntity> getAll();
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(BookmarkEntity bookmark);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<BookmarkEntity> bookmarks);
+
+    @Query("DELETE FROM bookmarks WHERE article_id = :articleId")
+    void delete(String articleId);
+}
@@ -0,0 +1,28 @@
+package com.rafdi.vitechasia.blog.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Room entity for one bookmarked article. Written by the BookmarkManager.
+ */
+@Entity(tableName = "bookmarks")
+public class BookmarkEntity {
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "article_id")
+    public String articleId = "";
+
+    @ColumnInfo(name = "bookmarked_at")
+    public long bookmarkedAt;
+
+    public BookmarkEntity() {
+    }
+
+    public BookmarkEntity(@NonNull String articleId, long bookmarkedAt) {
+        this.articleId = articleId;
+        this.bookmarkedAt = bookmarkedAt;
+    }
+}
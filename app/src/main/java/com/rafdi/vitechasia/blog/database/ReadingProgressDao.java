@@ -0,0 +1,35 @@
+package com.rafdi.vitechasia.blog.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Data access object for {@link ReadingProgressEntity} rows.
+ * All methods block and must be called off the main thread.
+ */
+@Dao
+public interface ReadingProgressDao {
+
+    /**
+     * Returns the most recently read unfinished articles, newest first.
+     */
+    @Query("SELECT * FROM reading_progress WHERE in_progress = 1 " +
+            "ORDER BY last_read_at DESC LIMIT :limit")
+    List<ReadingProgressEntity> getRecentInProgress(int limit);
+
+    @Query("SELECT * FROM reading_progress")
+    List<ReadingProgressEntity> getAll();
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(ReadingProgressEntity progress);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<ReadingProgressEntity> progress);
+
+    @Query("DELETE FROM reading_progress WHERE article_id = :articleId")
+    void delete(String articleId);
+}
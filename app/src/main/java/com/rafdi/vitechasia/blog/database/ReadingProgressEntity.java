@@ -0,0 +1,41 @@
+package com.rafdi.vitechasia.blog.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Room entity holding how far the user has read one article.
+ * The index on {@code (in_progress, last_read_at)} serves the "continue reading" query, which
+ * reads the most recent unfinished articles without scanning the whole table.
+ */
+@Entity(tableName = "reading_progress",
+        indices = {@Index(value = {"in_progress", "last_read_at"})})
+public class ReadingProgressEntity {
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "article_id")
+    public String articleId = "";
+
+    // 0-100 percentage
+    @ColumnInfo(name = "progress")
+    public int progress;
+
+    @ColumnInfo(name = "last_read_at")
+    public long lastReadAt;
+
+    @ColumnInfo(name = "in_progress")
+    public boolean inProgress;
+
+    public ReadingProgressEntity() {
+    }
+
+    public ReadingProgressEntity(@NonNull String articleId, int progress, long lastReadAt) {
+        this.articleId = articleId;
+        this.progress = progress;
+        this.lastReadAt = lastReadAt;
+        this.inProgress = progress > 0 && progress < 100;
+    }
+}
@@ -0,0 +1,28 @@
+package com.rafdi.vitechasia.blog.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Data access object for {@link SocialInteractionEntity} rows.
+ * All methods block and must be called off the main thread.
+ */
+@Dao
+public interface SocialInteractionDao {
+
+    @Query("SELECT * FROM social_interactions")
+    List<SocialInteractionEntity> getAll();
+
+    /**
+     * Writes a batch of rows in a single transaction.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<SocialInteractionEntity> interactions);
+
+    @Query("DELETE FROM social_interactions")
+    void deleteAll();
+}
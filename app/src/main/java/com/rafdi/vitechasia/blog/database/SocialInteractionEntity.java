@@ -0,0 +1,57 @@
+package com.rafdi.vitechasia.blog.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Room entity holding the user's likes and shares and the locally known counters of one article.
+ * Written in batches by the SocialInteractionManager.
+ */
+@Entity(tableName = "social_interactions")
+public class SocialInteractionEntity {
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "article_id")
+    public String articleId = "";
+
+    @ColumnInfo(name = "liked")
+    public boolean liked;
+
+    @ColumnInfo(name = "shared")
+    public boolean shared;
+
+    @ColumnInfo(name = "like_count")
+    public int likeCount;
+
+    @ColumnInfo(name = "share_count")
+    public int shareCount;
+
+    @ColumnInfo(name = "comment_count")
+    public int commentCount;
+
+    @ColumnInfo(name = "updated_at")
+    public long updatedAt;
+
+    public SocialInteractionEntity() {
+    }
+
+    public SocialInteractionEntity(@NonNull String articleId) {
+        this.articleId = articleId;
+    }
+
+    /**
+     * Returns a copy, so a snapshot can be written while the original keeps changing.
+     */
+    public SocialInteractionEntity copy() {
+        SocialInteractionEntity copy = new SocialInteractionEntity(articleId);
+        copy.liked = liked;
+        copy.shared = shared;
+        copy.likeCount = likeCount;
+        copy.shareCount = shareCount;
+        copy.commentCount = commentCount;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+}
@@ -17,10 +17,14 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.bumptech.glide.Glide;
 import com.rafdi.vitechasia.blog.R;
 import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.utils.ArticleImageLoader;
 import com.rafdi.vitechasia.blog.utils.BookmarkManager;
+import com.rafdi.vitechasia.blog.utils.DataHandler;
+import com.rafdi.vitechasia.blog.utils.DataRequest;
 import android.widget.ScrollView;
 
 import com.rafdi.vitechasia.blog.utils.ReadingProgressManager;
+import com.rafdi.vitechasia.blog.utils.ReadingProgressTracker;
 import com.rafdi.vitechasia.blog.utils.SocialInteractionManager;
 import com.rafdi.vitechasia.blog.utils.ShareUtils;
 
@@ -56,7 +60,15 @@ public class ArticleDetailFragment extends Fragment implements SwipeRefreshLayou
     private String subcategoryId;
     private BookmarkManager bookmarkManager;
     private ReadingProgressManager readingProgressManager;
+    private ReadingProgressTracker readingProgressTracker;
     private SocialInteractionManager socialInteractionManager;
+    // Re-applies likes and shares when they finish loading after the screen was set up
+    private final SocialInteractionManager.InteractionsListener interactionsListener = () -> {
+        if (article != null && likeButton != null) {
+            socialInteractionManager.initializeArticleSocialState(article);
+            updateSocialInteractionUI();
+        }
+    };
     
     public static ArticleDetailFragment newInstance(Article article) {
         ArticleDetailFragment fragment = new ArticleDetailFragment();
@@ -97,6 +109,7 @@ public class ArticleDetailFragment extends Fragment implements SwipeRefreshLayou
 
             // Initialize SocialInteractionManager
             socialInteractionManager = SocialInteractionManager.getInstance();
+            socialInteractionManager.addListener(interactionsListener);
 
             // Initialize views
             articleImage = view.findViewById(R.id.articleImage);
@@ -123,9 +136,6 @@ public class ArticleDetailFragment extends Fragment implements SwipeRefreshLayou
                 swipeRefreshLayout.setOnRefreshListener(this);
             }
 
-            // Set up reading progress tracking
-            setupReadingProgressTracking();
-            
             // Set click listeners for category and subcategory
             articleCategory.setOnClickListener(this);
             articleSubcategory.setOnClickListener(this);
@@ -154,6 +164,10 @@ public class ArticleDetailFragment extends Fragment implements SwipeRefreshLayou
                     socialInteractionManager.initializeArticleSocialState(article);
 
                     updateUI();
+                    loadContentIfMissing();
+
+                    // Set up reading progress tracking
+                    setupReadingProgressTracking();
                 }
             }
         } catch (Exception e) {
@@ -164,6 +178,31 @@ public class ArticleDetailFragment extends Fragment implements SwipeRefreshLayou
         }
     }
     
+    /**
+     * Lists only load article summaries, so the body is fetched when the article is opened.
+     * The rest of the screen is already shown from the summary in the meantime.
+     */
+    private void loadContentIfMissing() {
+        if (article.getContent() != null || article.getId() == null) return;
+
+        DataHandler.getInstance().getArticleById(article.getId(), DataRequest.bindTo(getViewLifecycleOwner()),
+                new DataHandler.SingleArticleCallback() {
+                    @Override
+                    public void onArticleLoaded(Article loaded) {
+                        // Keep the summary's user state (bookmark, like) and only take the body
+                        if (loaded != null && loaded.getContent() != null && article != null) {
+                            article.setContent(loaded.getContent());
+                            updateUI();
+                        }
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        // The summary stays on screen; pull to refresh tries again
+                    }
+                });
+    }
+
     // Simple method to get current article
     public Article getCurrentArticle() {
         return article;
@@ -224,13 +263,9 @@ public class ArticleDetailFragment extends Fragment implements SwipeRefreshLayou
                 articleDate.setText(article.getFormattedDate());
             }
             
-            // Load article image
+            // Load article image, starting from the cached card image if there is one
             if (article.getImageUrl() != null && !article.getImageUrl().isEmpty()) {
-                Glide.with(requireContext())
-                    .load(article.getImageUrl())
-                    .placeholder(R.drawable.ic_placeholder_image)
-                    .error(R.drawable.ic_placeholder_image)
-                    .into(articleImage);
+                ArticleImageLoader.loadHero(articleImage, article.getImageUrl());
             }
             
             // Load author image
@@ -359,23 +394,8 @@ public class ArticleDetailFragment extends Fragment implements SwipeRefreshLayou
     private void setupReadingProgressTracking() {
         if (scrollView == null || article == null) return;
 
-        scrollView.getViewTreeObserver().addOnScrollChangedListener(() -> {
-            if (scrollView.getChildCount() > 0) {
-                View child = scrollView.getChildAt(0);
-                int scrollY = scrollView.getScrollY();
-                int height = child.getHeight() - scrollView.getHeight();
-
-                if (height > 0) {
-                    int progress = (int) ((float) scrollY / height * 100);
-                    progress = Math.max(0, Math.min(100, progress));
-
-                    // Save progress every 10% or when significant progress is made
-                    if (progress % 10 == 0 || progress == 100) {
-                        readingProgressManager.saveReadingProgress(article, progress);
-                    }
-                }
-            }
-        });
+        readingProgressTracker = new ReadingProgressTracker(scrollView, article, readingProgressManager);
+        readingProgressTracker.start();
     }
     
     @Override
@@ -409,26 +429,35 @@ public class ArticleDetailFragment extends Fragment implements SwipeRefreshLayou
             swipeRefreshLayout.setRefreshing(false);
         }
         // Refresh article content if needed
+        DataHandler.getInstance().invalidate();
         updateUI();
+        if (article != null) {
+            loadContentIfMissing();
+        }
     }
     
     @Override
     public void onPause() {
         super.onPause();
+        // Write likes and shares made on this screen without waiting for the batch delay
+        if (socialInteractionManager != null) {
+            socialInteractionManager.flush();
+        }
         // Save current reading progress when leaving the fragment
-        if (readingProgressManager != null && article != null) {
-            // Calculate current progress based on scroll position
-            if (scrollView != null && scrollView.getChildCount() > 0) {
-                View child = scrollView.getChildAt(0);
-                int scrollY = scrollView.getScrollY();
-                int height = child.getHeight() - scrollView.getHeight();
-
-                if (height > 0) {
-                    int progress = (int) ((float) scrollY / height * 100);
-                    progress = Math.max(0, Math.min(100, progress));
-                    readingProgressManager.saveReadingProgress(article, progress);
-                }
-            }
+        if (readingProgressTracker != null) {
+            readingProgressTracker.flush();
+        }
+    }
+
+    @Override
+    public void onDestroyView() {
+        if (socialInteractionManager != null) {
+            socialInteractionManager.removeListener(interactionsListener);
+        }
+        if (readingProgressTracker != null) {
+            readingProgressTracker.release();
+            readingProgressTracker = null;
         }
+        super.onDestroyView();
     }
 }
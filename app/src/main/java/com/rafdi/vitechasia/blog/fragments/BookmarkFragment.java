@@ -4,7 +4,6 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.Button;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 
@@ -17,26 +16,42 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.rafdi.vitechasia.blog.R;
 import com.rafdi.vitechasia.blog.adapters.ArticleVerticalAdapter;
 import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.utils.BookmarkManager;
 import com.rafdi.vitechasia.blog.utils.DataHandler;
-import com.rafdi.vitechasia.blog.utils.PaginationUtils;
+import com.rafdi.vitechasia.blog.utils.DataRequest;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Fragment for displaying user's bookmarked articles.
- * Supports pagination and bookmark management.
+ * Loads only the bookmarked ids, rendering from the index and local cache first, and applies
+ * later results and bookmark changes to the list as a diff.
  */
 public class BookmarkFragment extends Fragment {
     
-    private static final int ITEMS_PER_PAGE = 10;
-    
     private RecyclerView recyclerView;
-    private Button btnLoadMore;
     private ProgressBar progressBar;
     private ArticleVerticalAdapter verticalAdapter;
-    private PaginationUtils<Article> paginationUtils;
+    private DataRequest loadRequest;
     private TextView emptyView;
+    private BookmarkManager bookmarkManager;
+    // Removals are applied locally; new bookmarks need their article, so they trigger a reload
+    private final BookmarkManager.BookmarkListener bookmarkListener = new BookmarkManager.BookmarkListener() {
+        @Override
+        public void onBookmarkChanged(String articleId, boolean bookmarked) {
+            if (bookmarked) {
+                loadBookmarkedArticles();
+            } else {
+                removeArticle(articleId);
+            }
+        }
+
+        @Override
+        public void onBookmarksLoaded() {
+            loadBookmarkedArticles();
+        }
+    };
     
     public BookmarkFragment() {
         // Required empty public constructor
@@ -59,7 +74,6 @@ public class BookmarkFragment extends Fragment {
         
         // Initialize views
         recyclerView = view.findViewById(R.id.recycler_view_articles);
-        btnLoadMore = view.findViewById(R.id.btn_load_more);
         progressBar = view.findViewById(R.id.progress_bar);
         emptyView = view.findViewById(R.id.empty_view);
         
@@ -69,12 +83,11 @@ public class BookmarkFragment extends Fragment {
         // Initialize adapter
         verticalAdapter = new ArticleVerticalAdapter(new ArrayList<>(), this::onArticleClick);
         recyclerView.setAdapter(verticalAdapter);
+        verticalAdapter.attachImagePreloader(recyclerView);
         
-        // Set up load more button
-        btnLoadMore.setOnClickListener(v -> loadNextPage());
-        
-        // Load bookmarked articles
-        loadBookmarkedArticles();
+        // Bookmarked articles are loaded in onResume
+        bookmarkManager = BookmarkManager.getInstance(requireContext());
+        bookmarkManager.addListener(bookmarkListener);
         
         return view;
     }
@@ -82,40 +95,55 @@ public class BookmarkFragment extends Fragment {
     @Override
     public void onResume() {
         super.onResume();
-        // Refresh bookmarks when returning to this fragment
+        // Refresh bookmarks when returning to this fragment; unchanged items stay in place
         loadBookmarkedArticles();
     }
     
     private void loadBookmarkedArticles() {
-        showLoading(true);
-        emptyView.setVisibility(View.GONE);
-        
-        // Simulate network/database call
-        new android.os.Handler().postDelayed(() -> {
-            // Get bookmarked articles from DummyDataGenerator
-            List<Article> bookmarkedArticles = DataHandler.getBookmarkedArticles(requireContext());
-            
-            // Initialize or update pagination
-            if (paginationUtils == null) {
-                paginationUtils = new PaginationUtils<>(bookmarkedArticles, ITEMS_PER_PAGE);
-            } else {
-                paginationUtils.updateData(bookmarkedArticles);
+        if (getView() == null) return;
+        if (loadRequest != null) {
+            loadRequest.cancel();
+        }
+        loadRequest = DataRequest.bindTo(getViewLifecycleOwner());
+        // Only show the spinner when there is nothing to look at yet
+        showLoading(verticalAdapter.getItemCount() == 0);
+        DataHandler.getInstance().getBookmarkedArticles(requireContext(), loadRequest,
+                new DataHandler.DataLoadListener() {
+                    @Override
+                    public void onDataLoaded(List<Article> articles) {
+                        showLoading(false);
+                        verticalAdapter.setArticles(articles);
+                        updateEmptyState();
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        showLoading(false);
+                        updateEmptyState();
+                    }
+                });
+    }
+
+    private void removeArticle(String articleId) {
+        for (Article article : verticalAdapter.getArticles()) {
+            if (articleId.equals(article.getId())) {
+                verticalAdapter.removeArticle(article);
+                break;
             }
-            
-            // Update UI
-            updateArticleList();
-            showLoading(false);
-            updateEmptyState();
-            updateLoadMoreButton();
-            
-        }, 500); // Simulate network delay
+        }
+        updateEmptyState();
     }
-    
-    private void updateArticleList() {
-        if (paginationUtils != null) {
-            List<Article> currentPage = paginationUtils.getCurrentPageItems();
-            verticalAdapter.setArticles(currentPage);
+
+    @Override
+    public void onDestroyView() {
+        if (bookmarkManager != null) {
+            bookmarkManager.removeListener(bookmarkListener);
+        }
+        if (loadRequest != null) {
+            loadRequest.cancel();
+            loadRequest = null;
         }
+        super.onDestroyView();
     }
     
     private void updateEmptyState() {
@@ -130,22 +158,6 @@ public class BookmarkFragment extends Fragment {
         }
     }
     
-    private void updateLoadMoreButton() {
-        if (paginationUtils != null) {
-            btnLoadMore.setVisibility(paginationUtils.hasNextPage() ? View.VISIBLE : View.GONE);
-        } else {
-            btnLoadMore.setVisibility(View.GONE);
-        }
-    }
-    
-    private void loadNextPage() {
-        if (paginationUtils != null && paginationUtils.hasNextPage()) {
-            paginationUtils.loadNextPage();
-            updateArticleList();
-            updateLoadMoreButton();
-        }
-    }
-    
     private void onArticleClick(Article article) {
         // Navigate to article detail
         ArticleDetailFragment articleDetailFragment = ArticleDetailFragment.newInstance(article);
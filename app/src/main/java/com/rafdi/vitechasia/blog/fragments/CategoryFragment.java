@@ -5,7 +5,6 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -15,13 +14,14 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.rafdi.vitechasia.blog.R;
+import com.rafdi.vitechasia.blog.adapters.ArticleCarousels;
 import com.rafdi.vitechasia.blog.adapters.ArticleVerticalAdapter;
 import com.rafdi.vitechasia.blog.adapters.SubcategoryAdapter;
 import com.rafdi.vitechasia.blog.models.Article;
 import com.rafdi.vitechasia.blog.models.Category;
 import com.rafdi.vitechasia.blog.utils.DataHandler;
+import com.rafdi.vitechasia.blog.utils.DataRequest;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -34,6 +34,8 @@ public class CategoryFragment extends Fragment implements
         SubcategoryAdapter.OnArticleClickListener {
 
     private static final String ARG_CATEGORY_ID = "category_id";
+    // Articles shown in each subcategory row
+    private static final int SUBCATEGORY_PREVIEW_SIZE = 5;
 
     private String categoryId;
     private Category category;
@@ -74,9 +76,12 @@ public class CategoryFragment extends Fragment implements
         categoryTitle.setText(getCategoryDisplayName(categoryId));
 
         // Setup RecyclerView with SubcategoryAdapter
-        subcategoryAdapter = new SubcategoryAdapter(categoryId, this, this);
+        ArticleCarousels carousels = ArticleCarousels.from(getActivity());
+        subcategoryAdapter = new SubcategoryAdapter(categoryId, this, this, carousels);
         subcategoriesRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
         subcategoriesRecyclerView.setAdapter(subcategoryAdapter);
+        // Cards are inflated while the subcategories load
+        carousels.preinflate(subcategoriesRecyclerView);
 
         // Load subcategories for this category
         loadSubcategories();
@@ -100,59 +105,10 @@ public class CategoryFragment extends Fragment implements
             return;
         }
         
-        // We'll track how many subcategories we've processed
-        final int totalSubcategories = subcategories.size();
-        final int[] processedCount = {0};
-        final List<String> subcategoriesWithArticles = new ArrayList<>();
-        
-        for (String subcategoryId : subcategories) {
-            category.getArticlesForSubcategory(subcategoryId, new DataHandler.DataLoadListener() {
-                @Override
-                public void onDataLoaded(List<Article> articles) {
-                    if (articles != null && !articles.isEmpty()) {
-                        subcategoriesWithArticles.add(subcategoryId);
-                    }
-                    
-                    // Check if we've processed all subcategories
-                    processedCount[0]++;
-                    if (processedCount[0] >= totalSubcategories) {
-                        // If no subcategories with articles found, use all available subcategories
-                        if (subcategoriesWithArticles.isEmpty()) {
-                            subcategoriesWithArticles.addAll(subcategories);
-                        }
-                        
-                        // Update the adapter on the UI thread
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> 
-                                subcategoryAdapter.setSubcategories(subcategoriesWithArticles)
-                            );
-                        }
-                    }
-                }
-
-                @Override
-                public void onError(String message) {
-                    // Just log the error and continue
-                    if (getActivity() != null) {
-                        Log.e("CategoryFragment", "Error loading articles for subcategory: " + message);
-                    }
-                    
-                    // Still count this as processed
-                    processedCount[0]++;
-                    if (processedCount[0] >= totalSubcategories) {
-                        if (subcategoriesWithArticles.isEmpty()) {
-                            subcategoriesWithArticles.addAll(subcategories);
-                        }
-                        
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> 
-                                subcategoryAdapter.setSubcategories(subcategoriesWithArticles)
-                            );
-                        }
-                    }
-                }
-            });
-        }
+        // One grouped request for the whole category; rows only look up their articles
+        DataHandler.getInstance().getSubcategoryPreviews(category, SUBCATEGORY_PREVIEW_SIZE,
+                DataRequest.bindTo(getViewLifecycleOwner()),
+                previews -> subcategoryAdapter.setPreviews(previews));
     }
     
     private Category findCategoryById(String categoryId) {
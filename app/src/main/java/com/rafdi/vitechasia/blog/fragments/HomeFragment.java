@@ -12,14 +12,15 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
-import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.button.MaterialButton;
 import com.rafdi.vitechasia.blog.R;
+import com.rafdi.vitechasia.blog.adapters.ArticleCarousels;
 import com.rafdi.vitechasia.blog.adapters.ArticleHorizontalAdapter;
 import com.rafdi.vitechasia.blog.models.Article;
 import com.rafdi.vitechasia.blog.utils.DataHandler;
+import com.rafdi.vitechasia.blog.utils.DataRequest;
 
 import java.util.List;
 
@@ -44,6 +45,11 @@ public class HomeFragment extends Fragment implements ArticleHorizontalAdapter.O
     private RecyclerView sportsArticlesRecyclerView;
     private RecyclerView techArticlesRecyclerView;
     private RecyclerView newsArticlesRecyclerView;
+    // Shared card pool for all carousels on this screen
+    private ArticleCarousels carousels;
+    // Views of the whole catalog, refreshed whenever it is delivered
+    private ArticleHorizontalAdapter latestAdapter;
+    private ArticleHorizontalAdapter popularAdapter;
 
     // View All Buttons
     private MaterialButton viewAllSportsButton;
@@ -93,6 +99,42 @@ public class HomeFragment extends Fragment implements ArticleHorizontalAdapter.O
         initializeViews(view);
         setupRecyclerViews();
         setupClickListeners();
+        loadCatalog();
+    }
+
+    /**
+     * Reloads the catalog behind the latest and popular carousels, e.g. on pull-to-refresh.
+     */
+    public void refresh() {
+        if (getView() != null) {
+            loadCatalog();
+        }
+    }
+
+    /**
+     * Loads the whole catalog, which the repository keeps in step with the server by a delta
+     * sync, and fills the latest and popular carousels from it. The catalog may be delivered
+     * more than once: cached first, then again if the sync changed it.
+     */
+    private void loadCatalog() {
+        DataHandler.getInstance().getAllArticles(DataRequest.bindTo(getViewLifecycleOwner()),
+                new DataHandler.DataLoadListener() {
+            @Override
+            public void onDataLoaded(List<Article> articles) {
+                // The catalog has been published to the article index, so use its sorted views
+                if (latestAdapter != null) {
+                    latestAdapter.setArticles(DataHandler.getNewestArticles(5));
+                }
+                if (popularAdapter != null) {
+                    popularAdapter.setArticles(DataHandler.getMostViewedArticles(5));
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                Log.e("HomeFragment", "Error loading articles: " + message);
+            }
+        });
     }
 
     private void initializeViews(View view) {
@@ -112,6 +154,12 @@ public class HomeFragment extends Fragment implements ArticleHorizontalAdapter.O
     }
 
     private void setupRecyclerViews() {
+        carousels = ArticleCarousels.from(getActivity());
+        if (newsArticlesRecyclerView != null) {
+            // Cards for the carousels that fill in after loading are inflated in the background
+            carousels.preinflate(newsArticlesRecyclerView);
+        }
+
         // Continue Reading Articles (if any articles are in progress)
         setupContinueReadingRecyclerView();
 
@@ -133,22 +181,17 @@ public class HomeFragment extends Fragment implements ArticleHorizontalAdapter.O
     private void setupHorizontalRecyclerView(RecyclerView recyclerView, String type) {
         if (recyclerView == null) return;
         
-        recyclerView.setLayoutManager(new LinearLayoutManager(
-            requireContext(), 
-            LinearLayoutManager.HORIZONTAL, 
-            false
-        ));
-        
         ArticleHorizontalAdapter adapter = new ArticleHorizontalAdapter(this);
-        recyclerView.setAdapter(adapter);
+        carousels.setUp(recyclerView, adapter);
         
         // Load appropriate data based on type
         if ("latest".equals(type)) {
-           List<Article> latestArticles = DataHandler.getNewestArticles(5);
-           adapter.setArticles(latestArticles);
+           // Shows what the index already holds until the catalog is loaded
+           latestAdapter = adapter;
+           adapter.setArticles(DataHandler.getNewestArticles(5));
         } else if ("popular".equals(type)) {
-           List<Article> popularArticles = DataHandler.getMostViewedArticles(5);
-           adapter.setArticles(popularArticles);
+           popularAdapter = adapter;
+           adapter.setArticles(DataHandler.getMostViewedArticles(5));
         } else if ("bookmarked".equals(type)) {
             List<Article> bookmarkedArticles = DataHandler.getBookmarkedArticles(requireContext());
             if (bookmarkedArticles.isEmpty()) {
@@ -163,7 +206,8 @@ public class HomeFragment extends Fragment implements ArticleHorizontalAdapter.O
             }
         } else {
             // This is a category view
-            DataHandler.getInstance().getArticlesByCategory(type, new DataHandler.DataLoadListener() {
+            DataHandler.getInstance().getArticlesByCategory(type,
+                    DataRequest.bindTo(getViewLifecycleOwner()), new DataHandler.DataLoadListener() {
                 @Override
                 public void onDataLoaded(List<Article> categoryArticles) {
                     if (getActivity() != null) {
@@ -191,33 +235,35 @@ public class HomeFragment extends Fragment implements ArticleHorizontalAdapter.O
     private void setupContinueReadingRecyclerView() {
         if (continueReadingRecyclerView == null) return;
 
-        continueReadingRecyclerView.setLayoutManager(new LinearLayoutManager(
-            requireContext(),
-            LinearLayoutManager.HORIZONTAL,
-            false
-        ));
-
         ArticleHorizontalAdapter adapter = new ArticleHorizontalAdapter(this);
-        continueReadingRecyclerView.setAdapter(adapter);
+        carousels.setUp(continueReadingRecyclerView, adapter);
 
         // Load continue reading articles
-        List<Article> continueReadingArticles = DataHandler.getContinueReadingArticles(requireContext(), 5);
-        if (continueReadingArticles.isEmpty()) {
-            // Hide continue reading section if no articles in progress
-            continueReadingRecyclerView.setVisibility(View.GONE);
-            View continueReadingHeader = getView() != null ? getView().findViewById(R.id.continueReadingHeader) : null;
-            if (continueReadingHeader != null) {
-                continueReadingHeader.setVisibility(View.GONE);
+        DataHandler.getContinueReadingArticles(requireContext(), 5, new DataHandler.DataLoadListener() {
+            @Override
+            public void onDataLoaded(List<Article> continueReadingArticles) {
+                View rootView = getView();
+                if (rootView == null || continueReadingRecyclerView == null) return;
+
+                // Hide continue reading section if no articles in progress
+                int visibility = continueReadingArticles.isEmpty() ? View.GONE : View.VISIBLE;
+                continueReadingRecyclerView.setVisibility(visibility);
+                View continueReadingHeader = rootView.findViewById(R.id.continueReadingHeader);
+                if (continueReadingHeader != null) {
+                    continueReadingHeader.setVisibility(visibility);
+                }
+                if (!continueReadingArticles.isEmpty()) {
+                    adapter.setArticles(continueReadingArticles);
+                }
             }
-        } else {
-            // Show continue reading section
-            continueReadingRecyclerView.setVisibility(View.VISIBLE);
-            View continueReadingHeader = getView() != null ? getView().findViewById(R.id.continueReadingHeader) : null;
-            if (continueReadingHeader != null) {
-                continueReadingHeader.setVisibility(View.VISIBLE);
+
+            @Override
+            public void onError(String message) {
+                if (getView() != null && continueReadingRecyclerView != null) {
+                    continueReadingRecyclerView.setVisibility(View.GONE);
+                }
             }
-            adapter.setArticles(continueReadingArticles);
-        }
+        });
     }
 
     private void setupClickListeners() {
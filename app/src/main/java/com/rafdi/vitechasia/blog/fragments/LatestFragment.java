@@ -4,7 +4,6 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.Button;
 import android.widget.ProgressBar;
 
 import androidx.annotation.NonNull;
@@ -16,25 +15,22 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.rafdi.vitechasia.blog.R;
 import com.rafdi.vitechasia.blog.adapters.ArticleVerticalAdapter;
 import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.utils.ArticlePager;
 import com.rafdi.vitechasia.blog.utils.DataHandler;
-import com.rafdi.vitechasia.blog.utils.PaginationUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Fragment for displaying the latest articles in chronological order.
- * Supports pagination for loading more content.
+ * Loads further pages from the API while scrolling.
  */
 public class LatestFragment extends Fragment {
     
-    private static final int ITEMS_PER_PAGE = 10;
-    
     private RecyclerView recyclerView;
-    private Button btnLoadMore;
     private ProgressBar progressBar;
     private ArticleVerticalAdapter verticalAdapter;
-    private PaginationUtils<Article> paginationUtils;
+    private ArticlePager pager;
     
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
@@ -52,7 +48,6 @@ public class LatestFragment extends Fragment {
         
         // Initialize views
         recyclerView = view.findViewById(R.id.recycler_view_articles);
-        btnLoadMore = view.findViewById(R.id.btn_load_more);
         progressBar = view.findViewById(R.id.progress_bar);
         
         // Setup RecyclerView
@@ -61,9 +56,7 @@ public class LatestFragment extends Fragment {
         // Initialize adapter
         verticalAdapter = new ArticleVerticalAdapter(new ArrayList<>(), this::onArticleClick);
         recyclerView.setAdapter(verticalAdapter);
-        
-        // Set up load more button
-        btnLoadMore.setOnClickListener(v -> loadNextPage());
+        verticalAdapter.attachImagePreloader(recyclerView);
         
         // Load latest articles
         loadLatestArticles();
@@ -72,57 +65,37 @@ public class LatestFragment extends Fragment {
     }
     
     private void loadLatestArticles() {
-        showLoading(true);
-
-        // Use new DataHandler approach that tries API first, falls back to dummy data
-        DataHandler.getInstance().getLatestArticles(100, new DataHandler.DataLoadListener() {
-            @Override
-            public void onDataLoaded(List<Article> articles) {
-                requireActivity().runOnUiThread(() -> {
-                    // Initialize or update pagination
-                    if (paginationUtils == null) {
-                        paginationUtils = new PaginationUtils<>(articles, ITEMS_PER_PAGE);
-                    } else {
-                        paginationUtils.updateData(articles);
+        pager = new ArticlePager(
+                (page, perPage, request, listener) ->
+                        DataHandler.getInstance().getLatestArticlesPage(page, perPage, request, listener),
+                new ArticlePager.Listener() {
+                    @Override
+                    public void onArticlesChanged(List<Article> articles) {
+                        verticalAdapter.setArticles(articles);
                     }
 
-                    // Update UI
-                    updateArticleList();
-                    showLoading(false);
-                    updateLoadMoreButton();
-                });
-            }
+                    @Override
+                    public void onLoadingChanged(boolean loading) {
+                        showLoading(loading);
+                    }
 
-            @Override
-            public void onError(String message) {
-                requireActivity().runOnUiThread(() -> {
-                    showLoading(false);
-                    // Could show error message to user here if needed
-                    // For now, we'll just hide loading indicator
+                    @Override
+                    public void onError(String message) {
+                        // Could show error message to user here if needed
+                        // For now, we'll just hide loading indicator
+                        showLoading(false);
+                    }
                 });
-            }
-        });
+        pager.attach(recyclerView);
+        pager.refresh();
     }
-    
-    private void updateArticleList() {
-        if (paginationUtils != null) {
-            List<Article> currentPage = paginationUtils.getCurrentPageItems();
-            verticalAdapter.setArticles(currentPage);
-        }
-    }
-    
-    private void updateLoadMoreButton() {
-        if (getView() != null && paginationUtils != null) {
-            btnLoadMore.setVisibility(paginationUtils.hasNextPage() ? View.VISIBLE : View.GONE);
-        }
-    }
-    
-    private void loadNextPage() {
-        if (paginationUtils != null && paginationUtils.hasNextPage()) {
-            paginationUtils.loadNextPage();
-            updateArticleList();
-            updateLoadMoreButton();
+
+    @Override
+    public void onDestroyView() {
+        if (pager != null) {
+            pager.detach();
         }
+        super.onDestroyView();
     }
     
     private void onArticleClick(Article article) {
@@ -0,0 +1,61 @@
+package com.rafdi.vitechasia.blog.fragments;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.fragment.app.Fragment;
+
+import com.rafdi.vitechasia.blog.R;
+import com.rafdi.vitechasia.blog.api.NetworkMetrics;
+
+/**
+ * Debug screen showing the per-endpoint network metrics as JSON.
+ * Only reachable from the profile screen in debug builds.
+ */
+public class NetworkMetricsFragment extends Fragment {
+
+    private TextView metricsJson;
+
+    public NetworkMetricsFragment() {
+        // Required empty public constructor
+    }
+
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container,
+                             Bundle savedInstanceState) {
+        View view = inflater.inflate(R.layout.fragment_network_metrics, container, false);
+
+        metricsJson = view.findViewById(R.id.metrics_json);
+        view.findViewById(R.id.btn_refresh).setOnClickListener(v -> showMetrics());
+        view.findViewById(R.id.btn_share).setOnClickListener(v -> shareMetrics());
+        view.findViewById(R.id.btn_reset).setOnClickListener(v -> {
+            NetworkMetrics.getInstance().reset();
+            showMetrics();
+        });
+
+        return view;
+    }
+
+    @Override
+    public void onResume() {
+        super.onResume();
+        showMetrics();
+    }
+
+    private void showMetrics() {
+        metricsJson.setText(NetworkMetrics.getInstance().toJson());
+    }
+
+    private void shareMetrics() {
+        Intent intent = new Intent(Intent.ACTION_SEND);
+        intent.setType("application/json");
+        intent.putExtra(Intent.EXTRA_SUBJECT, getString(R.string.network_metrics));
+        intent.putExtra(Intent.EXTRA_TEXT, NetworkMetrics.getInstance().toJson());
+        startActivity(Intent.createChooser(intent, getString(R.string.share_metrics)));
+    }
+}
@@ -17,6 +17,7 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.bumptech.glide.Glide;
+import com.rafdi.vitechasia.blog.BuildConfig;
 import com.rafdi.vitechasia.blog.R;
 import com.rafdi.vitechasia.blog.activities.LoginActivity;
 import com.rafdi.vitechasia.blog.models.User;
@@ -68,6 +69,13 @@ public class ProfileFragment extends Fragment {
         // Set up click listeners
         loginButton.setOnClickListener(v -> handleLogin());
         logoutButton.setOnClickListener(v -> handleLogout());
+
+        // Network metrics are a debugging aid and not part of the release UI
+        if (BuildConfig.DEBUG) {
+            Button metricsButton = view.findViewById(R.id.btn_network_metrics);
+            metricsButton.setVisibility(View.VISIBLE);
+            metricsButton.setOnClickListener(v -> openNetworkMetrics());
+        }
         
         // Set up theme switch listeners
         setupThemeSwitches();
@@ -144,6 +152,16 @@ public class ProfileFragment extends Fragment {
         }
     }
     
+    private void openNetworkMetrics() {
+        if (getActivity() != null) {
+            getActivity().getSupportFragmentManager()
+                    .beginTransaction()
+                    .replace(R.id.fragment_container, new NetworkMetricsFragment())
+                    .addToBackStack(null)
+                    .commit();
+        }
+    }
+    
     private void handleNotLoggedIn() {
         // User is not logged in, show login button and hide profile info
         loginButton.setVisibility(View.VISIBLE);
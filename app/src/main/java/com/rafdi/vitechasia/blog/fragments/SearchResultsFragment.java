@@ -29,15 +29,18 @@ import com.rafdi.vitechasia.blog.activities.HomePage;
 import com.rafdi.vitechasia.blog.adapters.ArticleVerticalAdapter;
 import com.rafdi.vitechasia.blog.models.Article;
 import com.rafdi.vitechasia.blog.models.Category;
+import com.rafdi.vitechasia.blog.models.SearchFilters;
+import com.rafdi.vitechasia.blog.models.SearchFilters.DateRange;
+import com.rafdi.vitechasia.blog.models.SearchFilters.SortBy;
+import com.rafdi.vitechasia.blog.utils.ArticlePager;
 import com.rafdi.vitechasia.blog.utils.DataHandler;
 import com.rafdi.vitechasia.blog.utils.SearchHistoryManager;
 import com.rafdi.vitechasia.blog.utils.CategoryManager;
-import com.rafdi.vitechasia.blog.utils.PaginationUtils;
 import com.rafdi.vitechasia.blog.utils.ErrorHandler;
-import com.rafdi.vitechasia.blog.utils.RetryWithBackoff;
 import com.google.android.material.snackbar.Snackbar;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -52,36 +55,20 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
     private String selectedSubcategory = null;
     private SortBy currentSortBy = SortBy.RELEVANCE;
     private DateRange currentDateRange = DateRange.ALL_TIME;
-    
-    private enum SortBy {
-        RELEVANCE,
-        DATE_NEWEST,
-        DATE_OLDEST,
-        POPULARITY
-    }
-    
-    private enum DateRange {
-        ALL_TIME,
-        LAST_24_HOURS,
-        LAST_WEEK,
-        LAST_MONTH,
-        LAST_YEAR
-    }
+
     private RecyclerView resultsRecyclerView;
     private ArticleVerticalAdapter verticalAdapter;
     private TextView noResultsText;
     private TextView searchQueryText;
     private ChipGroup chipGroupFilters;
     private LinearLayout searchHistoryLayout;
-    private static final int ITEMS_PER_PAGE = 10;
     
     private List<Article> allSearchResults = new ArrayList<>();
     private SearchHistoryManager searchHistoryManager;
     private CategoryManager categoryManager;
     private TextInputLayout dateRangeLayout;
-    private Button btnLoadMore;
     private ProgressBar progressBar;
-    private PaginationUtils<Article> paginationUtils;
+    private ArticlePager pager;
 
     public static SearchResultsFragment newInstance(String query) {
         SearchResultsFragment fragment = new SearchResultsFragment();
@@ -123,11 +110,7 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
         searchQueryText = view.findViewById(R.id.searchQueryText);
         chipGroupFilters = view.findViewById(R.id.chip_group_filters);
         searchHistoryLayout = view.findViewById(R.id.searchHistoryLayout);
-        btnLoadMore = view.findViewById(R.id.btn_load_more);
         progressBar = view.findViewById(R.id.progress_bar);
-        
-        // Set up load more button
-        btnLoadMore.setOnClickListener(v -> loadNextPage());
 
         // Set search query text
         if (searchQueryText != null && searchQuery != null) {
@@ -140,6 +123,8 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
         verticalAdapter = new ArticleVerticalAdapter(new ArrayList<>(), this);
         resultsRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
         resultsRecyclerView.setAdapter(verticalAdapter);
+        verticalAdapter.attachImagePreloader(resultsRecyclerView);
+        setupPager();
 
         // Display search history if no query
         if (searchQuery == null || searchQuery.trim().isEmpty()) {
@@ -169,7 +154,6 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
             noResultsText.setVisibility(View.VISIBLE);
             noResultsText.setText("No search history available");
             resultsRecyclerView.setVisibility(View.GONE);
-            btnLoadMore.setVisibility(View.GONE);
             return;
         }
 
@@ -201,69 +185,55 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
             return;
         }
 
-        Log.d("SearchResultsFragment", "Fetching all articles to filter by query: " + searchQuery);
+        Log.d("SearchResultsFragment", "Searching server for query: " + searchQuery);
         
-        // Show loading state
-        showLoading(true);
-        
-        // Use RetryWithBackoff for the API call
-        RetryWithBackoff<Object> retryWithBackoff = new RetryWithBackoff<>(requireContext());
-        retryWithBackoff.execute(
-            () -> {
-                // This runs on a background thread
-                final List<Article>[] result = new List[1];
-                final Object lock = new Object();
-                
-                DataHandler.getInstance().getAllArticles(new DataHandler.DataLoadListener() {
+        // Filtering and sorting happen on the server; start again from the first page
+        pager.refresh();
+    }
+
+    private void setupPager() {
+        pager = new ArticlePager(
+                (page, perPage, request, listener) -> DataHandler.getInstance()
+                        .searchArticles(searchQuery, buildSearchFilters(), page, perPage, request, listener),
+                new ArticlePager.Listener() {
                     @Override
-                    public void onDataLoaded(List<Article> articles) {
-                        synchronized (lock) {
-                            result[0] = articles;
-                            lock.notify();
-                        }
+                    public void onArticlesChanged(List<Article> articles) {
+                        handleSearchResults(articles);
+                    }
+
+                    @Override
+                    public void onLoadingChanged(boolean loading) {
+                        showLoading(loading);
                     }
 
                     @Override
                     public void onError(String message) {
-                        synchronized (lock) {
-                            result[0] = null;
-                            lock.notify();
+                        if (allSearchResults.isEmpty()) {
+                            handleSearchError(new Exception(message));
+                        } else {
+                            Log.w("SearchResultsFragment", "Failed to load next page: " + message);
                         }
                     }
                 });
-                
-                // Wait for the callback to complete
-                synchronized (lock) {
-                    try {
-                        lock.wait(10000); // 10 second timeout
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        return null;
-                    }
-                }
-                
-                if (result[0] == null) {
-                    throw new Exception("Failed to load articles");
-                }
-                
-                return result[0];
-            },
-            new RetryWithBackoff.Callback<Object>() {
-                @Override
-                public void onSuccess(Object result) {
-                    if (result instanceof List) {
-                        handleSearchResults((List<Article>) result);
-                    } else {
-                        handleSearchError(new Exception("Unexpected result type"));
-                    }
-                }
+        pager.attach(resultsRecyclerView);
+    }
 
-                @Override
-                public void onError(String errorMessage, boolean isNetworkError) {
-                    handleSearchError(new Exception(errorMessage));
-                }
-            }
-        );
+    @Override
+    public void onDestroyView() {
+        if (pager != null) {
+            pager.detach();
+        }
+        super.onDestroyView();
+    }
+
+    private SearchFilters buildSearchFilters() {
+        SearchFilters filters = new SearchFilters();
+        filters.setSortBy(currentSortBy);
+        filters.setDateRange(currentDateRange);
+        filters.setSelectedCategories(selectedCategory != null ?
+                Collections.singletonList(selectedCategory) : null);
+        filters.setSelectedSubcategory(selectedSubcategory);
+        return filters;
     }
 
     private void handleSearchError(Throwable throwable) {
@@ -281,38 +251,19 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
     }
     
     private void handleSearchResults(List<Article> articles) {
-        Log.d("SearchResultsFragment", "Processing " + (articles != null ? articles.size() : 0) + " articles");
+        Log.d("SearchResultsFragment", "Showing " + articles.size() + " search results");
         
-        try {
-            // Filter articles based on search query
-            allSearchResults = new ArrayList<>();
-            int matchCount = 0;
-            
-            if (articles != null) {
-                for (Article article : articles) {
-                    if (matchesSearchQuery(article, searchQuery)) {
-                        allSearchResults.add(article);
-                        matchCount++;
-                    }
-                }
-            }
-            
-            Log.d("SearchResultsFragment", "Found " + matchCount + " articles matching query");
-            
-            requireActivity().runOnUiThread(() -> {
-                applyFilters();
-                showLoading(false);
-            });
-        } catch (Exception e) {
-            Log.e("SearchResultsFragment", "Error processing search results", e);
-            handleSearchError(e);
+        allSearchResults = articles;
+        if (allSearchResults.isEmpty()) {
+            showNoResults();
+        } else {
+            updateArticleList();
         }
     }
     
     private void showLoading(boolean show) {
         if (show) {
             progressBar.setVisibility(View.VISIBLE);
-            btnLoadMore.setVisibility(View.GONE);
             noResultsText.setVisibility(View.GONE);
         } else {
             progressBar.setVisibility(View.GONE);
@@ -338,90 +289,10 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
         }
     }
 
-    private boolean matchesSearchQuery(Article article, String query) {
-        if (article == null || query == null) {
-            Log.d("SearchResultsFragment", "matchesSearchQuery: article or query is null");
-            return false;
-        }
-
-        String lowerQuery = query.toLowerCase();
-        boolean matches = (article.getTitle() != null && article.getTitle().toLowerCase().contains(lowerQuery)) ||
-               (article.getContent() != null && article.getContent().toLowerCase().contains(lowerQuery)) ||
-               (article.getAuthorName() != null && article.getAuthorName().toLowerCase().contains(lowerQuery));
-        
-        if (matches) {
-            Log.d("SearchResultsFragment", "Match found in article: " + article.getTitle());
-            Log.d("SearchResultsFragment", "  Title: " + article.getTitle());
-            Log.d("SearchResultsFragment", "  Content: " + (article.getContent() != null ? "[content available]" : "null"));
-            Log.d("SearchResultsFragment", "  Author: " + article.getAuthorName());
-        }
-        
-        return matches;
-    }
-
     private void applyFilters() {
-        if (allSearchResults == null || allSearchResults.isEmpty()) {
-            showNoResults();
-            return;
-        }
-        
-        // Initialize or update pagination
-        if (paginationUtils == null) {
-            paginationUtils = new PaginationUtils<>(allSearchResults, ITEMS_PER_PAGE);
-        } else {
-            paginationUtils.updateData(allSearchResults);
-        }
-
-        List<Article> filteredResults = new ArrayList<>();
-        long currentTime = System.currentTimeMillis();
-        long timeRange = getTimeRangeInMillis(currentDateRange);
-        
-        // Apply category and subcategory filters
-        for (Article article : allSearchResults) {
-            boolean matchesCategory = selectedCategory == null ||
-                (article.getCategoryId() != null && article.getCategoryId().equalsIgnoreCase(selectedCategory));
-
-            boolean matchesSubcategory = selectedSubcategory == null ||
-                (article.getSubcategoryId() != null && article.getSubcategoryId().equalsIgnoreCase(selectedSubcategory));
-                
-            boolean matchesDateRange = currentDateRange == DateRange.ALL_TIME || 
-                (article.getPublishDate() != null && 
-                 (currentTime - article.getPublishDate().getTime()) <= timeRange);
-
-            if (matchesCategory && matchesSubcategory && matchesDateRange) {
-                filteredResults.add(article);
-            }
-        }
-        
-        // Apply sorting
-        if (currentSortBy == SortBy.DATE_NEWEST) {
-            filteredResults.sort((a1, a2) -> {
-                if (a1.getPublishDate() == null || a2.getPublishDate() == null) return 0;
-                return a2.getPublishDate().compareTo(a1.getPublishDate());
-            });
-        } else if (currentSortBy == SortBy.DATE_OLDEST) {
-            filteredResults.sort((a1, a2) -> {
-                if (a1.getPublishDate() == null || a2.getPublishDate() == null) return 0;
-                return a1.getPublishDate().compareTo(a2.getPublishDate());
-            });
-        } else if (currentSortBy == SortBy.POPULARITY) {
-            filteredResults.sort((a1, a2) -> Integer.compare(a2.getViewCount(), a1.getViewCount()));
-        }
-        
-        // Update filter chips
+        // Filters are part of the server query, so any change starts a new search from page 1
         updateFilterChips();
-
-        // Update UI
-        requireActivity().runOnUiThread(() -> {
-            if (filteredResults.isEmpty()) {
-                showNoResults();
-                btnLoadMore.setVisibility(View.GONE);
-            } else {
-                updateArticleList();
-                updateLoadMoreButton();
-            }
-            updateFilterChips();
-        });
+        performSearch();
     }
 
     private void showFilterDialog() {
@@ -613,10 +484,10 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
                 Chip chip = new Chip(requireContext());
                 chip.setText(displayName);
                 chip.setCheckable(true);
-                chip.setChecked(displayName.equals(selectedSubcategory));
+                chip.setChecked(subcategory.equals(selectedSubcategory));
                 chip.setOnCheckedChangeListener((buttonView, isChecked) -> {
                     if (isChecked) {
-                        selectedSubcategory = displayName;
+                        selectedSubcategory = subcategory;
                     }
                 });
                 subcategoryChipGroup.addView(chip);
@@ -627,22 +498,6 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
         }
     }
 
-    private long getTimeRangeInMillis(DateRange dateRange) {
-        switch (dateRange) {
-            case LAST_24_HOURS:
-                return 24 * 60 * 60 * 1000L;
-            case LAST_WEEK:
-                return 7 * 24 * 60 * 60 * 1000L;
-            case LAST_MONTH:
-                return 30L * 24 * 60 * 60 * 1000L;
-            case LAST_YEAR:
-                return 365L * 24 * 60 * 60 * 1000L;
-            case ALL_TIME:
-            default:
-                return Long.MAX_VALUE;
-        }
-    }
-    
     private String getSortByText(SortBy sortBy) {
         switch (sortBy) {
             case DATE_NEWEST:
@@ -697,7 +552,9 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
 
         // Add subcategory filter chip
         if (selectedSubcategory != null) {
-            addFilterChip(selectedSubcategory, v -> {
+            String displayName = selectedSubcategory.substring(0, 1).toUpperCase() +
+                    selectedSubcategory.substring(1);
+            addFilterChip(displayName, v -> {
                 selectedSubcategory = null;
                 applyFilters();
             });
@@ -735,40 +592,19 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
     }
 
     private void updateArticleList() {
-        if (paginationUtils != null) {
-            List<Article> currentPage = paginationUtils.getCurrentPageItems();
-            if (verticalAdapter == null) {
-                verticalAdapter = new ArticleVerticalAdapter(currentPage, this);
-                resultsRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
-                resultsRecyclerView.setAdapter(verticalAdapter);
-            } else {
-                verticalAdapter.setArticles(currentPage);
-            }
-            resultsRecyclerView.setVisibility(View.VISIBLE);
-            noResultsText.setVisibility(View.GONE);
-        }
-    }
-    
-    private void updateLoadMoreButton() {
-        if (paginationUtils != null) {
-            btnLoadMore.setVisibility(paginationUtils.hasNextPage() ? View.VISIBLE : View.GONE);
+        List<Article> results = new ArrayList<>(allSearchResults);
+        if (verticalAdapter == null) {
+            verticalAdapter = new ArticleVerticalAdapter(results, this);
+            resultsRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+            resultsRecyclerView.setAdapter(verticalAdapter);
+            verticalAdapter.attachImagePreloader(resultsRecyclerView);
         } else {
-            btnLoadMore.setVisibility(View.GONE);
-        }
-    }
-    
-    private void loadNextPage() {
-        if (paginationUtils != null && paginationUtils.hasNextPage()) {
-            paginationUtils.loadNextPage();
-            updateArticleList();
-            updateLoadMoreButton();
+            verticalAdapter.setArticles(results);
         }
+        resultsRecyclerView.setVisibility(View.VISIBLE);
+        noResultsText.setVisibility(View.GONE);
     }
     
-    private void showResults(List<Article> results) {
-        updateArticleList();
-    }
-
     private void showNoResults() {
         Log.d("SearchResultsFragment", "showNoResults called");
         
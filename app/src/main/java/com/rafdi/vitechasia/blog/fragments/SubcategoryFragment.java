@@ -19,6 +19,7 @@ import com.rafdi.vitechasia.blog.adapters.ArticleVerticalAdapter;
 import com.rafdi.vitechasia.blog.models.Article;
 import com.rafdi.vitechasia.blog.models.Category;
 import com.rafdi.vitechasia.blog.utils.DataHandler;
+import com.rafdi.vitechasia.blog.utils.DataRequest;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -87,6 +88,7 @@ public class SubcategoryFragment extends Fragment implements ArticleVerticalAdap
         verticalAdapter = new ArticleVerticalAdapter(new ArrayList<>(), this);
         articlesRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
         articlesRecyclerView.setAdapter(verticalAdapter);
+        verticalAdapter.attachImagePreloader(articlesRecyclerView);
 
         // Load articles
         loadArticles(noArticlesText);
@@ -113,7 +115,8 @@ public class SubcategoryFragment extends Fragment implements ArticleVerticalAdap
         noArticlesText.setVisibility(View.VISIBLE);
         
         // Use the async method to get articles
-        category.getArticlesForSubcategory(subcategoryName, new DataHandler.DataLoadListener() {
+        category.getArticlesForSubcategory(subcategoryName,
+                DataRequest.bindTo(getViewLifecycleOwner()), new DataHandler.DataLoadListener() {
             @Override
             public void onDataLoaded(List<Article> subcategoryArticles) {
                 if (getActivity() == null) return;
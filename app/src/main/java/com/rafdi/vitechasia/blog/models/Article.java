@@ -24,6 +24,7 @@ public class Article implements Parcelable {
     private String authorName;
     private String authorImageUrl;
     private Date publishDate;
+    private Date updated; // Server-side time of the last change, used for delta sync
     private int viewCount;
     private int likeCount;
     private int shareCount;
@@ -227,6 +228,14 @@ public class Article implements Parcelable {
         this.publishDate = publishDate;
     }
 
+    public Date getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(Date updated) {
+        this.updated = updated;
+    }
+
     public int getViewCount() {
         return viewCount;
     }
@@ -275,6 +284,35 @@ public class Article implements Parcelable {
         isSharedByUser = sharedByUser;
     }
 
+    /**
+     * Returns a copy, so that a shared instance can be changed without affecting other holders.
+     */
+    public Article copy() {
+        Article copy = new Article();
+        copy.id = id;
+        copy.title = title;
+        copy.content = content;
+        copy.imageUrl = imageUrl;
+        copy.categoryId = categoryId;
+        copy.subcategoryId = subcategoryId;
+        copy.authorId = authorId;
+        copy.authorName = authorName;
+        copy.authorImageUrl = authorImageUrl;
+        copy.publishDate = publishDate;
+        copy.updated = updated;
+        copy.viewCount = viewCount;
+        copy.likeCount = likeCount;
+        copy.shareCount = shareCount;
+        copy.commentCount = commentCount;
+        copy.isBookmarked = isBookmarked;
+        copy.isLikedByUser = isLikedByUser;
+        copy.isSharedByUser = isSharedByUser;
+        copy.readingProgress = readingProgress;
+        copy.lastReadTime = lastReadTime;
+        copy.isInProgress = isInProgress;
+        return copy;
+    }
+
     public String getFormattedDate() {
         if (publishDate == null) return "";
         SimpleDateFormat sdf = new SimpleDateFormat("MMM d, yyyy", Locale.getDefault());
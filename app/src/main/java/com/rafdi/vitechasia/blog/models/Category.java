@@ -4,6 +4,7 @@ import android.os.Parcel;
 import android.os.Parcelable;
 
 import com.rafdi.vitechasia.blog.utils.DataHandler;
+import com.rafdi.vitechasia.blog.utils.DataRequest;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -88,7 +89,18 @@ public class Category implements Parcelable {
      * @param callback Callback to handle the result or error
      */
     public void getArticlesForSubcategory(String subcategory, DataHandler.DataLoadListener callback) {
-        DataHandler.getInstance().getArticlesBySubcategory(subcategory, new DataHandler.DataLoadListener() {
+        getArticlesForSubcategory(subcategory, null, callback);
+    }
+
+    /**
+     * Get articles for a specific subcategory asynchronously
+     * @param subcategory The subcategory to get articles for
+     * @param request Cancels delivery when the caller goes away, may be null
+     * @param callback Callback to handle the result or error
+     */
+    public void getArticlesForSubcategory(String subcategory, DataRequest request,
+                                          DataHandler.DataLoadListener callback) {
+        DataHandler.getInstance().getArticlesBySubcategory(subcategory, request, new DataHandler.DataLoadListener() {
             @Override
             public void onDataLoaded(List<Article> articles) {
                 if (callback != null) {
@@ -3,6 +3,8 @@ package com.rafdi.vitechasia.blog.models;
 import androidx.annotation.Nullable;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -17,16 +19,42 @@ public class SearchFilters {
     }
 
     public enum DateRange {
-        ALL_TIME,
-        LAST_24_HOURS,
-        LAST_WEEK,
-        LAST_MONTH,
-        LAST_YEAR
+        ALL_TIME(Long.MAX_VALUE),
+        LAST_24_HOURS(24 * 60 * 60 * 1000L),
+        LAST_WEEK(7 * 24 * 60 * 60 * 1000L),
+        LAST_MONTH(30L * 24 * 60 * 60 * 1000L),
+        LAST_YEAR(365L * 24 * 60 * 60 * 1000L);
+
+        private final long durationMillis;
+
+        DateRange(long durationMillis) {
+            this.durationMillis = durationMillis;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
     }
 
     private SortBy sortBy = SortBy.RELEVANCE;
     private DateRange dateRange = DateRange.ALL_TIME;
     private final List<String> selectedCategories = new ArrayList<>();
+    private String selectedSubcategory;
+
+    public SearchFilters() {
+    }
+
+    /**
+     * Creates a copy of the given filters, e.g. to snapshot them for an asynchronous request.
+     */
+    public SearchFilters(SearchFilters other) {
+        if (other != null) {
+            sortBy = other.sortBy;
+            dateRange = other.dateRange;
+            selectedCategories.addAll(other.selectedCategories);
+            selectedSubcategory = other.selectedSubcategory;
+        }
+    }
 
     public SortBy getSortBy() {
         return sortBy;
@@ -65,27 +93,108 @@ public class SearchFilters {
         selectedCategories.remove(category);
     }
 
+    @Nullable
+    public String getSelectedSubcategory() {
+        return selectedSubcategory;
+    }
+
+    public void setSelectedSubcategory(@Nullable String subcategory) {
+        this.selectedSubcategory = subcategory;
+    }
+
+    /**
+     * Returns the earliest publish date allowed by the date range, or null for {@link DateRange#ALL_TIME}.
+     *
+     * @param now The reference time in milliseconds
+     */
+    @Nullable
+    public Date getPublishedAfter(long now) {
+        if (dateRange == DateRange.ALL_TIME) {
+            return null;
+        }
+        return new Date(now - dateRange.getDurationMillis());
+    }
+
+    /**
+     * Checks an article against the category, subcategory and date range filters.
+     * Used when filtering locally, e.g. while offline.
+     *
+     * @param article The article to check
+     * @param now     The reference time in milliseconds
+     */
+    public boolean matches(Article article, long now) {
+        if (article == null) return false;
+
+        if (!selectedCategories.isEmpty()) {
+            boolean matchesCategory = false;
+            for (String category : selectedCategories) {
+                if (category.equalsIgnoreCase(article.getCategoryId())) {
+                    matchesCategory = true;
+                    break;
+                }
+            }
+            if (!matchesCategory) return false;
+        }
+
+        if (selectedSubcategory != null && !selectedSubcategory.equalsIgnoreCase(article.getSubcategoryId())) {
+            return false;
+        }
+
+        Date publishedAfter = getPublishedAfter(now);
+        return publishedAfter == null ||
+                (article.getPublishDate() != null && !article.getPublishDate().before(publishedAfter));
+    }
+
+    /**
+     * Returns the comparator for the selected sort order, or null for {@link SortBy#RELEVANCE}
+     * where results keep the order of the search ranking.
+     */
+    @Nullable
+    public Comparator<Article> getComparator() {
+        switch (sortBy) {
+            case DATE_NEWEST:
+                return (a1, a2) -> {
+                    if (a1.getPublishDate() == null || a2.getPublishDate() == null) return 0;
+                    return a2.getPublishDate().compareTo(a1.getPublishDate());
+                };
+            case DATE_OLDEST:
+                return (a1, a2) -> {
+                    if (a1.getPublishDate() == null || a2.getPublishDate() == null) return 0;
+                    return a1.getPublishDate().compareTo(a2.getPublishDate());
+                };
+            case POPULARITY:
+                return (a1, a2) -> Integer.compare(a2.getViewCount(), a1.getViewCount());
+            case RELEVANCE:
+            default:
+                return null;
+        }
+    }
+
     public void clear() {
         sortBy = SortBy.RELEVANCE;
         dateRange = DateRange.ALL_TIME;
         selectedCategories.clear();
+        selectedSubcategory = null;
     }
 
     public boolean hasActiveFilters() {
         return sortBy != SortBy.RELEVANCE ||
                dateRange != DateRange.ALL_TIME ||
-               !selectedCategories.isEmpty();
+               !selectedCategories.isEmpty() ||
+               selectedSubcategory != null;
     }
 
     @Override
     public boolean equals(@Nullable Object obj) {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
-        
+
         SearchFilters that = (SearchFilters) obj;
         return sortBy == that.sortBy &&
                dateRange == that.dateRange &&
-               selectedCategories.equals(that.selectedCategories);
+               selectedCategories.equals(that.selectedCategories) &&
+               (selectedSubcategory == null ? that.selectedSubcategory == null :
+                       selectedSubcategory.equals(that.selectedSubcategory));
     }
 
     @Override
@@ -93,6 +202,7 @@ public class SearchFilters {
         int result = sortBy.hashCode();
         result = 31 * result + dateRange.hashCode();
         result = 31 * result + selectedCategories.hashCode();
+        result = 31 * result + (selectedSubcategory != null ? selectedSubcategory.hashCode() : 0);
         return result;
     }
 }
@@ -0,0 +1,307 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, versioned in-memory index over a snapshot of the article catalog.
+ *
+ * <p>All lookup maps and sorted views are computed once when the index is built, so
+ * lookups by id are O(1) and lookups by category, subcategory or author are O(k) in the
+ * size of the result. Returned lists are unmodifiable views shared between callers;
+ * copy them before sorting or editing.
+ *
+ * <p>A new index is produced with {@link #build(Collection, long)} or {@link #withArticles(Collection)}
+ * whenever the repository delivers new data, and published by swapping a single reference.
+ * {@code withArticles} reuses the groups that didn't change and merges the updated articles
+ * into the sorted views instead of sorting again. Indexed articles are never modified.
+ */
+public final class ArticleIndex {
+
+    private static final Comparator<Article> BY_VIEW_COUNT =
+            (a1, a2) -> Integer.compare(a2.getViewCount(), a1.getViewCount());
+    private static final Comparator<Article> BY_LIKE_COUNT =
+            (a1, a2) -> Integer.compare(a2.getLikeCount(), a1.getLikeCount());
+    private static final Comparator<Article> BY_PUBLISH_DATE = (a1, a2) -> {
+        // Newest first, articles without a date last
+        if (a1.getPublishDate() == null) return a2.getPublishDate() == null ? 0 : 1;
+        if (a2.getPublishDate() == null) return -1;
+        return a2.getPublishDate().compareTo(a1.getPublishDate());
+    };
+
+    private final long version;
+    private final List<Article> articles;
+    private final Map<String, Article> byId;
+    private final Map<String, List<Article>> byCategory;
+    private final Map<String, List<Article>> bySubcategory;
+    private final Map<String, List<Article>> byAuthor;
+    private final List<Article> byViewCount;
+    private final List<Article> byLikeCount;
+    private final List<Article> byPublishDate;
+
+    private ArticleIndex(long version, Map<String, Article> articlesById) {
+        this.version = version;
+        this.articles = Collections.unmodifiableList(new ArrayList<>(articlesById.values()));
+        this.byId = Collections.unmodifiableMap(articlesById);
+        this.byCategory = group(articles, Article::getCategoryId);
+        this.bySubcategory = group(articles, Article::getSubcategoryId);
+        this.byAuthor = group(articles, Article::getAuthorId);
+        this.byViewCount = sorted(articles, BY_VIEW_COUNT);
+        this.byLikeCount = sorted(articles, BY_LIKE_COUNT);
+        this.byPublishDate = sorted(articles, BY_PUBLISH_DATE);
+    }
+
+    /**
+     * Derives an index from the previous one after the given articles were upserted.
+     *
+     * @param replaced The previous entries of the upserted articles, by id
+     * @param added    The upserted articles, by id
+     */
+    private ArticleIndex(ArticleIndex previous, Map<String, Article> articlesById,
+                         Map<String, Article> replaced, Map<String, Article> added) {
+        this.version = previous.version + 1;
+        this.articles = Collections.unmodifiableList(new ArrayList<>(articlesById.values()));
+        this.byId = Collections.unmodifiableMap(articlesById);
+        this.byCategory = regroup(previous.byCategory, articles, Article::getCategoryId, replaced, added);
+        this.bySubcategory = regroup(previous.bySubcategory, articles, Article::getSubcategoryId, replaced, added);
+        this.byAuthor = regroup(previous.byAuthor, articles, Article::getAuthorId, replaced, added);
+        this.byViewCount = merged(previous.byViewCount, replaced, added, BY_VIEW_COUNT);
+        this.byLikeCount = merged(previous.byLikeCount, replaced, added, BY_LIKE_COUNT);
+        this.byPublishDate = merged(previous.byPublishDate, replaced, added, BY_PUBLISH_DATE);
+    }
+
+    /**
+     * Builds a new index from a full catalog snapshot.
+     * Articles without an id are skipped; for duplicate ids the last occurrence wins.
+     *
+     * @param articles The articles to index
+     * @param version  The version number of this snapshot
+     * @return The new index
+     */
+    public static ArticleIndex build(Collection<Article> articles, long version) {
+        Map<String, Article> articlesById = new LinkedHashMap<>();
+        if (articles != null) {
+            for (Article article : articles) {
+                if (article != null && article.getId() != null) {
+                    articlesById.put(article.getId(), article);
+                }
+            }
+        }
+        return new ArticleIndex(version, articlesById);
+    }
+
+    /**
+     * Returns a new index, one version higher, with the given articles inserted or replacing
+     * the existing entries with the same id. This index and the given articles are left
+     * untouched: a summary that replaces an article with content is indexed as a copy that
+     * keeps the content.
+     *
+     * @param updated The articles to upsert
+     * @return The new index, or this index if there is nothing to add
+     */
+    public ArticleIndex withArticles(Collection<Article> updated) {
+        if (updated == null || updated.isEmpty()) {
+            return this;
+        }
+        Map<String, Article> added = new LinkedHashMap<>();
+        Map<String, Article> replaced = new HashMap<>();
+        for (Article article : updated) {
+            if (article == null || article.getId() == null) continue;
+            Article previous = byId.get(article.getId());
+            if (article.getContent() == null && previous != null && previous.getContent() != null) {
+                // List responses carry summaries only; keep the content already loaded
+                article = article.copy();
+                article.setContent(previous.getContent());
+            }
+            added.put(article.getId(), article);
+            if (previous != null) {
+                replaced.put(article.getId(), previous);
+            }
+        }
+        if (added.isEmpty()) {
+            return this;
+        }
+        Map<String, Article> articlesById = new LinkedHashMap<>(byId);
+        articlesById.putAll(added);
+        return new ArticleIndex(this, articlesById, replaced, added);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return articles.size();
+    }
+
+    /**
+     * All indexed articles in insertion order.
+     */
+    public List<Article> getAll() {
+        return articles;
+    }
+
+    public Article getById(String id) {
+        return id != null ? byId.get(id) : null;
+    }
+
+    public List<Article> getByCategory(String categoryId) {
+        return lookup(byCategory, categoryId);
+    }
+
+    public List<Article> getBySubcategory(String subcategoryId) {
+        return lookup(bySubcategory, subcategoryId);
+    }
+
+    public List<Article> getByAuthor(String authorId) {
+        return lookup(byAuthor, authorId);
+    }
+
+    /**
+     * Articles ordered by view count, highest first.
+     *
+     * @param limit Maximum number of articles to return
+     */
+    public List<Article> getMostViewed(int limit) {
+        return head(byViewCount, limit);
+    }
+
+    /**
+     * Articles ordered by like count, highest first.
+     *
+     * @param limit Maximum number of articles to return
+     */
+    public List<Article> getMostLiked(int limit) {
+        return head(byLikeCount, limit);
+    }
+
+    /**
+     * Articles ordered by publish date, newest first.
+     *
+     * @param limit Maximum number of articles to return
+     */
+    public List<Article> getNewest(int limit) {
+        return head(byPublishDate, limit);
+    }
+
+    private static List<Article> lookup(Map<String, List<Article>> map, String key) {
+        if (key == null) {
+            return Collections.emptyList();
+        }
+        List<Article> result = map.get(key.toLowerCase(Locale.ROOT));
+        return result != null ? result : Collections.emptyList();
+    }
+
+    private static List<Article> head(List<Article> list, int limit) {
+        return list.subList(0, Math.max(0, Math.min(limit, list.size())));
+    }
+
+    private static List<Article> sorted(List<Article> articles, Comparator<Article> comparator) {
+        List<Article> copy = new ArrayList<>(articles);
+        copy.sort(comparator);
+        return Collections.unmodifiableList(copy);
+    }
+
+    private interface KeyExtractor {
+        String keyOf(Article article);
+    }
+
+    private static String normalizedKey(Article article, KeyExtractor extractor) {
+        String key = extractor.keyOf(article);
+        return key != null ? key.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Copies the groups and rebuilds only those the upserted articles leave or join, in a single
+     * pass over the catalog so members stay in catalog order.
+     */
+    private static Map<String, List<Article>> regroup(Map<String, List<Article>> groups, List<Article> articles,
+                                                      KeyExtractor extractor, Map<String, Article> replaced,
+                                                      Map<String, Article> added) {
+        Set<String> affected = new HashSet<>();
+        for (Article article : replaced.values()) {
+            String key = normalizedKey(article, extractor);
+            if (key != null) affected.add(key);
+        }
+        for (Article article : added.values()) {
+            String key = normalizedKey(article, extractor);
+            if (key != null) affected.add(key);
+        }
+        if (affected.isEmpty()) {
+            return groups;
+        }
+
+        Map<String, List<Article>> rebuilt = new HashMap<>();
+        for (Article article : articles) {
+            String key = normalizedKey(article, extractor);
+            if (key != null && affected.contains(key)) {
+                rebuilt.computeIfAbsent(key, k -> new ArrayList<>()).add(article);
+            }
+        }
+        Map<String, List<Article>> regrouped = new HashMap<>(groups);
+        for (String key : affected) {
+            List<Article> group = rebuilt.get(key);
+            if (group == null) {
+                regrouped.remove(key);
+            } else {
+                regrouped.put(key, Collections.unmodifiableList(group));
+            }
+        }
+        return Collections.unmodifiableMap(regrouped);
+    }
+
+    /**
+     * Removes the replaced articles from a sorted view and merges in the upserted ones, which
+     * are sorted on their own. Ties keep the existing articles first.
+     */
+    private static List<Article> merged(List<Article> sorted, Map<String, Article> replaced,
+                                        Map<String, Article> added, Comparator<Article> comparator) {
+        List<Article> additions = new ArrayList<>(added.values());
+        additions.sort(comparator);
+        List<Article> result = new ArrayList<>(sorted.size() + additions.size());
+        int next = 0;
+        for (Article article : sorted) {
+            if (replaced.get(article.getId()) == article) {
+                continue;
+            }
+            while (next < additions.size() && comparator.compare(additions.get(next), article) < 0) {
+                result.add(additions.get(next++));
+            }
+            result.add(article);
+        }
+        while (next < additions.size()) {
+            result.add(additions.get(next++));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Map<String, List<Article>> group(List<Article> articles, KeyExtractor extractor) {
+        Map<String, List<Article>> groups = new HashMap<>();
+        for (Article article : articles) {
+            String key = extractor.keyOf(article);
+            if (key == null) continue;
+            String normalized = key.toLowerCase(Locale.ROOT);
+            List<Article> group = groups.get(normalized);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(normalized, group);
+            }
+            group.add(article);
+        }
+        for (Map.Entry<String, List<Article>> entry : groups.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(groups);
+    }
+}
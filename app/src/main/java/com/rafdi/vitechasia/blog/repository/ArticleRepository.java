@@ -1,17 +1,40 @@
 package com.rafdi.vitechasia.blog.repository;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 
 import com.rafdi.vitechasia.blog.R;
 import com.rafdi.vitechasia.blog.api.ApiClient;
 import com.rafdi.vitechasia.blog.api.ArticleApiService;
+import com.rafdi.vitechasia.blog.api.HttpStatusException;
+import com.rafdi.vitechasia.blog.api.NetworkMetrics;
+import com.rafdi.vitechasia.blog.api.PocketBaseQuery;
+import com.rafdi.vitechasia.blog.database.AppDatabase;
+import com.rafdi.vitechasia.blog.database.ArticleDao;
+import com.rafdi.vitechasia.blog.database.ArticleEntity;
 import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.models.SearchFilters;
 import com.rafdi.vitechasia.blog.api.PocketBaseResponse;
+import com.rafdi.vitechasia.blog.utils.AppExecutors;
+import com.rafdi.vitechasia.blog.utils.Cancellable;
 import com.rafdi.vitechasia.blog.utils.RetryWithBackoff;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
+import retrofit2.Call;
 import retrofit2.Response;
 
 /**
@@ -19,30 +42,53 @@ import retrofit2.Response;
  * Serves as a single source of truth for all article-related data in the application.
  * 
  * <p>This class follows the repository pattern to abstract the data sources from the rest of the app.
- * It handles the communication between the API service and the ViewModel, and can be extended
- * to include local data caching in the future.
+ * Reads are served from the local Room cache first and revalidated against the API in the
+ * background (stale-while-revalidate), so lists can render from disk before the network answers.
+ * Concurrent identical network requests share a single HTTP call, and their results are
+ * memoized for a short time (see {@link RequestCoalescer}). Every request returns a
+ * {@link Cancellable}; cancelling it drops the callback and, once no other caller shares the
+ * request, cancels the HTTP call itself.
  * 
  * <p>Use {@link #getInstance(Context)} to get the singleton instance of this class.
  */
 
 public class ArticleRepository {
+    private static final String TAG = "ArticleRepository";
+    // Identical requests within this window are answered from memory
+    private static final long RESPONSE_MEMO_TTL_MS = 30_000;
+    private static final int RESPONSE_MEMO_MAX_ENTRIES = 64;
+    // Keeps each multi-get URL, including its other parameters, around 2 KB, which servers
+    // and proxies accept
+    static final int MAX_IDS_FILTER_LENGTH = 1700;
     private static volatile ArticleRepository instance;
     private final ArticleApiService apiService;
+    private final ArticleDao articleDao;
+    private final Executor diskExecutor;
+    private final Handler mainHandler;
     private final Context context;
-    private final RetryWithBackoff<List<Article>> retryWithBackoff;
     private final RetryWithBackoff<Article> singleArticleRetryWithBackoff;
+    private final RetryWithBackoff<PocketBaseResponse<Article>> pageRetryWithBackoff;
+    private final RequestCoalescer<PocketBaseResponse<Article>> pageRequests;
+    private final RequestCoalescer<Article> articleRequests;
+    private final ArticleSyncEngine syncEngine;
     
     /**
      * Private constructor to prevent direct instantiation.
-     * Initializes the API service using {@link ApiClient}.
+     * Initializes the API service using {@link ApiClient} and the local cache using {@link AppDatabase}.
      *
      * @param context The application context for checking network connectivity
      */
     private ArticleRepository(Context context) {
         this.context = context.getApplicationContext();
         this.apiService = ApiClient.getArticleApiService();
-        this.retryWithBackoff = new RetryWithBackoff<>(context);
-        this.singleArticleRetryWithBackoff = new RetryWithBackoff<>(context);
+        this.articleDao = AppDatabase.getInstance(this.context).articleDao();
+        this.diskExecutor = AppExecutors.disk();
+        this.mainHandler = new Handler(Looper.getMainLooper());
+        this.singleArticleRetryWithBackoff = new RetryWithBackoff<>(context, NetworkMetrics.ENDPOINT_ARTICLE);
+        this.pageRetryWithBackoff = new RetryWithBackoff<>(context, NetworkMetrics.ENDPOINT_ARTICLES);
+        this.pageRequests = new RequestCoalescer<>(RESPONSE_MEMO_TTL_MS, RESPONSE_MEMO_MAX_ENTRIES, mainHandler::post);
+        this.articleRequests = new RequestCoalescer<>(RESPONSE_MEMO_TTL_MS, RESPONSE_MEMO_MAX_ENTRIES, mainHandler::post);
+        this.syncEngine = new ArticleSyncEngine(this.context, apiService, articleDao, mainHandler::post);
     }
     
     /**
@@ -63,92 +109,431 @@ public class ArticleRepository {
     }
 
     /**
-     * Fetches a list of articles from the API with pagination and optional category filtering.
-     * Checks for network connectivity before making the API call.
+     * Forgets the memoized API responses and the last sync result, so the next request for any
+     * page, article or the catalog goes to the network. Call this on an explicit refresh;
+     * requests already in flight still complete.
+     */
+    public void invalidate() {
+        pageRequests.clear();
+        articleRequests.clear();
+        syncEngine.invalidate();
+    }
+
+    /**
+     * Fetches a list of articles with pagination and optional category filtering.
+     * If the same page of the same query was stored before, it is delivered first and then
+     * revalidated from the API; the callback is called a second time with the fresh page if it
+     * differs. On a cache miss the callback receives the network result only.
      * 
      * @param category The category to filter by, or null for all categories
      * @param page The page number for pagination (starting from 1)
      * @param limit The maximum number of articles to return per page
      * @param callback The callback to handle the response or error
+     * @return A handle to cancel the request
      */
-    public void getArticles(String category, int page, int limit, final ArticleCallback callback) {
-        retryWithBackoff.execute(
-                () -> {
-                    // Create a filter string if category is provided
-                    String filter = (category != null && !category.isEmpty()) ?
-                            String.format("category='%s'", category) : "";
-
-                    // Execute the API call synchronously for retry mechanism
-                    Response<PocketBaseResponse<Article>> response = apiService
-                            .getArticles(
-                                    page,
-                                    limit,
-                                    filter.isEmpty() ?
-                                            Collections.emptyMap() :
-                                            Collections.singletonMap("filter", filter)
-                            )
-                            .execute();
-
-                    if (response.isSuccessful() && response.body() != null) {
-                        List<Article> articles = response.body().getItems();
-                        if (articles != null && !articles.isEmpty()) {
-                            return articles;
-                        }
-                        throw new Exception("No articles found");
-                    } else {
-                        throw new Exception(response.message() +
-                                (response.errorBody() != null ? ": " + response.errorBody().string() : ""));
+    public Cancellable getArticles(String category, int page, int limit, final ArticleCallback callback) {
+        Map<String, String> params = new PocketBaseQuery().inCategoryOrSubcategory(category).summary().toQueryMap();
+        String queryKey = queryKey(limit, params);
+        DeferredCancellable handle = new DeferredCancellable();
+        diskExecutor.execute(() -> {
+            if (handle.isCancelled()) return;
+            List<Article> cached = readCachedPage(queryKey, page);
+            if (!cached.isEmpty()) {
+                mainHandler.post(() -> {
+                    if (callback != null && !handle.isCancelled()) {
+                        callback.onSuccess(cached);
                     }
-                },
+                });
+                handle.set(fetchArticles(page, limit, params, queryKey, cached, callback));
+            } else {
+                handle.set(fetchArticles(page, limit, params, queryKey, null, callback));
+            }
+        });
+        return handle;
+    }
 
-                new RetryWithBackoff.Callback<List<Article>>() {
+    /**
+     * Fetches the whole article catalog, newest first. Once a full sync has completed, the cached
+     * catalog is delivered at once and then brought up to date in the background by a delta sync
+     * that only transfers changed and deleted articles (see {@link ArticleSyncEngine}); if that
+     * changed anything, the updated catalog is delivered again. Before that, the cache only holds
+     * what list pages and single-article requests stored in it, so the catalog is fetched by a
+     * full sync instead: the callback receives the first page as soon as it has arrived, and the
+     * whole catalog once the sync is done.
+     *
+     * @param callback The callback to handle the response or error; may be called more than once
+     * @return A handle to cancel the request
+     */
+    public Cancellable getAllArticles(final ArticleCallback callback) {
+        DeferredCancellable handle = new DeferredCancellable();
+        diskExecutor.execute(() -> {
+            if (handle.isCancelled()) return;
+            if (syncEngine.hasCompleteCatalog()) {
+                List<Article> cached = readAllCachedArticles();
+                mainHandler.post(() -> {
+                    if (callback != null && !handle.isCancelled()) {
+                        callback.onSuccess(cached);
+                    }
+                });
+                // Not tied to the handle, the cache should be synced even if the caller left
+                syncEngine.sync(null, new RetryWithBackoff.Callback<ArticleSyncEngine.SyncResult>() {
                     @Override
-                    public void onSuccess(List<Article> articles) {
-                        if (callback != null) {
-                            callback.onSuccess(articles);
+                    public void onSuccess(ArticleSyncEngine.SyncResult result) {
+                        Log.d(TAG, "Synced " + result.changed + " changed and "
+                                + result.deleted + " deleted articles");
+                        if (result.changed > 0 || result.deleted > 0) {
+                            deliverCachedCatalog(handle, callback);
                         }
                     }
 
                     @Override
                     public void onError(String errorMessage, boolean isNetworkError) {
-                        if (callback != null) {
-                            if (isNetworkError) {
-                                callback.onError(context.getString(R.string.error_network_retry));
-                            } else {
-                                callback.onError(errorMessage);
-                            }
+                        Log.w(TAG, "Background sync failed: " + errorMessage);
+                    }
+                });
+            } else {
+                handle.set(syncEngine.sync(firstPage -> mainHandler.post(() -> {
+                    if (callback != null && !handle.isCancelled() && !firstPage.isEmpty()) {
+                        callback.onSuccess(firstPage);
+                    }
+                }), new RetryWithBackoff.Callback<ArticleSyncEngine.SyncResult>() {
+                    @Override
+                    public void onSuccess(ArticleSyncEngine.SyncResult result) {
+                        deliverCachedCatalog(handle, callback);
+                    }
+
+                    @Override
+                    public void onError(String errorMessage, boolean isNetworkError) {
+                        if (callback == null || handle.isCancelled()) return;
+                        if (isNetworkError) {
+                            callback.onError(context.getString(R.string.error_network_retry));
+                        } else {
+                            callback.onError(errorMessage);
                         }
                     }
+                }));
+            }
+        });
+        return handle;
+    }
+
+    /**
+     * Reads the whole cached catalog and delivers it on the main thread, unless the request
+     * was cancelled.
+     */
+    private void deliverCachedCatalog(DeferredCancellable handle, ArticleCallback callback) {
+        diskExecutor.execute(() -> {
+            List<Article> articles = readAllCachedArticles();
+            mainHandler.post(() -> {
+                if (callback == null || handle.isCancelled()) return;
+                if (articles.isEmpty()) {
+                    callback.onError("No articles found");
+                } else {
+                    callback.onSuccess(articles);
                 }
-        );
+            });
+        });
     }
-    
+
     /**
-     * Fetches a single article by its ID from the API.
-     * Checks for network connectivity before making the API call.
+     * Fetches a page of articles from the API, writes the result to the local cache and stores
+     * it as that page of the query.
+     *
+     * @param delivered The cached page the callback already received, or null. The fresh page
+     *                  is then only delivered if it differs, and errors are only logged.
+     * @param callback  The callback to handle the response or error
+     */
+    private Cancellable fetchArticles(int page, int limit, Map<String, String> params, String queryKey,
+                                      List<Article> delivered, final ArticleCallback callback) {
+        return requestPage(page, limit, params, new RetryWithBackoff.Callback<PocketBaseResponse<Article>>() {
+            @Override
+            public void onSuccess(PocketBaseResponse<Article> response) {
+                List<Article> articles = response.getItems();
+                cachePage(queryKey, page, articles);
+                if (callback == null || (delivered != null && sameArticles(delivered, articles))) {
+                    return;
+                }
+                if (articles.isEmpty()) {
+                    callback.onError("No articles found");
+                } else {
+                    callback.onSuccess(articles);
+                }
+            }
+
+            @Override
+            public void onError(String errorMessage, boolean isNetworkError) {
+                if (callback == null || delivered != null) {
+                    Log.w(TAG, "Background refresh failed: " + errorMessage);
+                    return;
+                }
+                if (isNetworkError) {
+                    callback.onError(context.getString(R.string.error_network_retry));
+                } else {
+                    callback.onError(errorMessage);
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs a list request through the request coalescer: concurrent callers asking for the
+     * same page, filter and sort share one HTTP call, and a result from the last few seconds
+     * is reused. The page is written to the local cache once per network response.
+     */
+    private Cancellable requestPage(int page, int limit, Map<String, String> params,
+                                    RetryWithBackoff.Callback<PocketBaseResponse<Article>> callback) {
+        return pageRequests.execute(pageKey(page, limit, params), done -> {
+            AtomicReference<Call<?>> currentCall = new AtomicReference<>();
+            RetryWithBackoff.Handle handle = pageRetryWithBackoff.execute(
+                    () -> fetchResponse(page, limit, params, currentCall),
+                    new RetryWithBackoff.Callback<PocketBaseResponse<Article>>() {
+                        @Override
+                        public void onSuccess(PocketBaseResponse<Article> response) {
+                            cacheArticles(response.getItems());
+                            done.onSuccess(response);
+                        }
+
+                        @Override
+                        public void onError(String errorMessage, boolean isNetworkError) {
+                            done.onError(errorMessage, isNetworkError);
+                        }
+                    });
+            handle.doOnCancel(() -> cancelCall(currentCall));
+            return handle;
+        }, callback);
+    }
+
+    /**
+     * Builds the coalescing key of a list request from its page, page size and query parameters.
+     */
+    private static String pageKey(int page, int limit, Map<String, String> params) {
+        return "page=" + page + "&" + queryKey(limit, params);
+    }
+
+    /**
+     * Builds the key under which the pages of a list query are stored, from its page size and
+     * query parameters.
+     */
+    private static String queryKey(int limit, Map<String, String> params) {
+        // Sorted so that equal parameter sets produce the same key regardless of insertion order
+        return "perPage=" + limit + "&" + new TreeMap<>(params);
+    }
+
+    /**
+     * Returns whether a fresh page shows the same articles, in the same order and unchanged,
+     * as the cached page delivered before. Only the summary fields an article card displays
+     * are compared, as those are the ones stored with a cached page.
+     */
+    private static boolean sameArticles(List<Article> cached, List<Article> fresh) {
+        if (cached.size() != fresh.size()) {
+            return false;
+        }
+        for (int i = 0; i < cached.size(); i++) {
+            Article a = cached.get(i);
+            Article b = fresh.get(i);
+            if (!Objects.equals(a.getId(), b.getId())
+                    || !Objects.equals(a.getTitle(), b.getTitle())
+                    || !Objects.equals(a.getImageUrl(), b.getImageUrl())
+                    || !Objects.equals(a.getCategoryId(), b.getCategoryId())
+                    || !Objects.equals(a.getSubcategoryId(), b.getSubcategoryId())
+                    || !Objects.equals(a.getAuthorName(), b.getAuthorName())
+                    || !Objects.equals(a.getAuthorImageUrl(), b.getAuthorImageUrl())
+                    || !Objects.equals(a.getPublishDate(), b.getPublishDate())
+                    || a.getViewCount() != b.getViewCount()
+                    || a.getLikeCount() != b.getLikeCount()
+                    || a.getShareCount() != b.getShareCount()
+                    || a.getCommentCount() != b.getCommentCount()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Searches articles on the server. The query text, category, subcategory and date range
+     * are translated into a PocketBase filter and the sort order into a sort expression, so
+     * only the requested page of matching articles is transferred, without their content.
+     *
+     * @param query The search text
+     * @param filters The filters and sort order to apply, may be null
+     * @param page The page number for pagination (starting from 1)
+     * @param limit The maximum number of articles to return per page
+     * @param callback The callback to handle the page or error
+     * @return A handle to cancel the request
+     */
+    public Cancellable searchArticles(String query, SearchFilters filters, int page, int limit,
+                                      final PageCallback callback) {
+        return getArticlesPage(PocketBaseQuery.forSearch(query, filters, System.currentTimeMillis()).summary(),
+                page, limit, callback);
+    }
+
+    /**
+     * Lists the ids of the articles matching a search, newest first, so they can be ranked
+     * locally across all pages. The rows carry nothing but their id and are not written
+     * to the cache.
+     *
+     * @param query The search text
+     * @param filters The filters to apply, may be null; the sort order is ignored
+     * @param limit The maximum number of ids to list; older matches beyond it are left out
+     * @param callback The callback to handle the id-only rows, with the server's total, or error
+     * @return A handle to cancel the request
+     */
+    public Cancellable searchArticleIds(String query, SearchFilters filters, int limit, final PageCallback callback) {
+        // The date range is measured from the start of the minute, so the listings for the
+        // pages of one search share a key and are coalesced
+        long now = System.currentTimeMillis() / 60_000 * 60_000;
+        Map<String, String> params = PocketBaseQuery.forSearch(query, filters, now)
+                .sortBy(PocketBaseQuery.sortFor(SearchFilters.SortBy.DATE_NEWEST))
+                .fields(PocketBaseQuery.FIELD_ID)
+                .toQueryMap();
+        return pageRequests.execute(pageKey(1, limit, params), done -> {
+            AtomicReference<Call<?>> currentCall = new AtomicReference<>();
+            RetryWithBackoff.Handle handle = pageRetryWithBackoff.execute(
+                    () -> fetchResponse(1, limit, params, currentCall), done);
+            handle.doOnCancel(() -> cancelCall(currentCall));
+            return handle;
+        }, new RetryWithBackoff.Callback<PocketBaseResponse<Article>>() {
+            @Override
+            public void onSuccess(PocketBaseResponse<Article> response) {
+                callback.onSuccess(response);
+            }
+
+            @Override
+            public void onError(String errorMessage, boolean isNetworkError) {
+                if (isNetworkError) {
+                    callback.onError(context.getString(R.string.error_network_retry));
+                } else {
+                    callback.onError(errorMessage);
+                }
+            }
+        });
+    }
+
+    /**
+     * Fetches one page of articles matching a query, together with the paging totals reported
+     * by the server. Results are written to the local cache; an empty page is a valid result.
+     *
+     * @param query The filter and sort order to apply
+     * @param page The page number for pagination (starting from 1)
+     * @param limit The maximum number of articles to return per page
+     * @param callback The callback to handle the page or error
+     * @return A handle to cancel the request
+     */
+    public Cancellable getArticlesPage(PocketBaseQuery query, int page, int limit, final PageCallback callback) {
+        return requestPage(page, limit, query.toQueryMap(), new RetryWithBackoff.Callback<PocketBaseResponse<Article>>() {
+            @Override
+            public void onSuccess(PocketBaseResponse<Article> response) {
+                callback.onSuccess(response);
+            }
+
+            @Override
+            public void onError(String errorMessage, boolean isNetworkError) {
+                if (isNetworkError) {
+                    callback.onError(context.getString(R.string.error_network_retry));
+                } else {
+                    callback.onError(errorMessage);
+                }
+            }
+        });
+    }
+
+    /**
+     * Executes a list call synchronously and returns the whole response including paging totals.
+     * Must be called from a background thread.
+     *
+     * @param currentCall Receives the call while it runs so it can be cancelled
+     * @throws HttpStatusException if the server answers with an error status
+     * @throws Exception if the request fails
+     */
+    private PocketBaseResponse<Article> fetchResponse(int page, int limit, Map<String, String> params,
+                                                      AtomicReference<Call<?>> currentCall) throws Exception {
+        Call<PocketBaseResponse<Article>> call = apiService.getArticles(page, limit, params);
+        currentCall.set(call);
+        Response<PocketBaseResponse<Article>> response = call.execute();
+
+        if (response.isSuccessful() && response.body() != null) {
+            return response.body();
+        } else {
+            throw HttpStatusException.fromResponse(response);
+        }
+    }
+
+    /**
+     * Cancels the HTTP call that is currently running for a request, if any.
+     */
+    private static void cancelCall(AtomicReference<Call<?>> currentCall) {
+        Call<?> call = currentCall.get();
+        if (call != null) {
+            call.cancel();
+        }
+    }
+
+    /**
+     * Fetches a single article by its ID, including its content.
+     * A cached copy is delivered first when available and refreshed from the API in the background.
+     * A cached summary without content counts as a miss.
      * 
      * @param id The ID of the article to fetch
      * @param callback The callback to handle the response or error
+     * @return A handle to cancel the request
      */
-    public void getArticleById(String id, final SingleArticleCallback callback) {
-        singleArticleRetryWithBackoff.execute(
-                () -> {
-                    // Perform the API call synchronously
-                    Response<PocketBaseResponse<Article>> response = apiService
-                            .getArticleById(id, "")  // Empty string for expand parameter
-                            .execute();
-
-                    if (response.isSuccessful() && response.body() != null) {
-                        List<Article> items = response.body().getItems();
-                        if (items != null && !items.isEmpty()) {
-                            return items.get(0);
-                        }
-                        throw new Exception("Article not found");
-                    } else {
-                        throw new Exception(response.message() +
-                                (response.errorBody() != null ? ": " + response.errorBody().string() : ""));
+    public Cancellable getArticleById(String id, final SingleArticleCallback callback) {
+        DeferredCancellable handle = new DeferredCancellable();
+        diskExecutor.execute(() -> {
+            if (handle.isCancelled()) return;
+            ArticleEntity cached = readCachedArticle(id);
+            if (cached != null && cached.content != null) {
+                Article article = cached.toArticle();
+                mainHandler.post(() -> {
+                    if (callback != null && !handle.isCancelled()) {
+                        callback.onSuccess(article);
                     }
-                },
+                });
+                fetchArticleById(id, null);
+            } else {
+                handle.set(fetchArticleById(id, callback));
+            }
+        });
+        return handle;
+    }
+
+    /**
+     * Fetches a single article from the API and writes it to the local cache.
+     * Concurrent requests for the same id share one HTTP call.
+     *
+     * @param callback The callback to handle the response or error, or null for a silent refresh
+     */
+    private Cancellable fetchArticleById(String id, final SingleArticleCallback callback) {
+        return articleRequests.execute("id=" + id, done -> {
+            AtomicReference<Call<?>> currentCall = new AtomicReference<>();
+            RetryWithBackoff.Handle handle = singleArticleRetryWithBackoff.execute(
+                    () -> {
+                        // Perform the API call synchronously
+                        Call<Article> call = apiService.getArticleById(id, null);
+                        currentCall.set(call);
+                        Response<Article> response = call.execute();
+
+                        if (response.isSuccessful() && response.body() != null) {
+                            return response.body();
+                        } else {
+                            throw HttpStatusException.fromResponse(response);
+                        }
+                    },
+                    new RetryWithBackoff.Callback<Article>() {
+                        @Override
+                        public void onSuccess(Article article) {
+                            cacheArticles(Collections.singletonList(article));
+                            done.onSuccess(article);
+                        }
+
+                        @Override
+                        public void onError(String errorMessage, boolean isNetworkError) {
+                            done.onError(errorMessage, isNetworkError);
+                        }
+                    });
+            handle.doOnCancel(() -> cancelCall(currentCall));
+            return handle;
+        },
                 new RetryWithBackoff.Callback<Article>() {
                     @Override
                     public void onSuccess(Article article) {
@@ -159,26 +544,364 @@ public class ArticleRepository {
 
                     @Override
                     public void onError(String errorMessage, boolean isNetworkError) {
-                        if (callback != null) {
-                            if (isNetworkError) {
-                                callback.onError(context.getString(R.string.error_network_retry));
-                            } else {
-                                callback.onError(errorMessage);
-                            }
+                        if (callback == null) {
+                            Log.w(TAG, "Background refresh failed for article " + id + ": " + errorMessage);
+                            return;
+                        }
+                        if (isNetworkError) {
+                            callback.onError(context.getString(R.string.error_network_retry));
+                        } else {
+                            callback.onError(errorMessage);
                         }
                     }
                 }
         );
     }
+
+    /**
+     * Fetches the articles with the given ids, without their content, in the order of the ids.
+     * Cached articles are used as they are and only the missing ids are requested from the API;
+     * the cached ones are refreshed in the background so the next read is up to date. Ids are
+     * requested in chunks of bounded URL length that run concurrently, so a few hundred ids
+     * take about one round trip. When the requests fail, whatever is cached is delivered
+     * instead of the error. Ids the server doesn't know (e.g. deleted articles) are simply
+     * missing from the result.
+     *
+     * @param ids The article ids
+     * @param callback The callback to handle the response or error
+     * @return A handle to cancel the request
+     */
+    public Cancellable getArticlesByIds(List<String> ids, final ArticleCallback callback) {
+        DeferredCancellable handle = new DeferredCancellable();
+        if (ids == null || ids.isEmpty()) {
+            mainHandler.post(() -> {
+                if (callback != null && !handle.isCancelled()) {
+                    callback.onSuccess(new ArrayList<>());
+                }
+            });
+            return handle;
+        }
+        List<String> requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        diskExecutor.execute(() -> {
+            if (handle.isCancelled()) return;
+            List<Article> cached = readCachedArticlesByIds(requested);
+            Set<String> cachedIds = new HashSet<>();
+            for (Article article : cached) {
+                cachedIds.add(article.getId());
+            }
+            // Both kept in the requested order so repeated reads build the same chunks, which
+            // can then be coalesced
+            List<String> present = new ArrayList<>();
+            List<String> missing = new ArrayList<>();
+            for (String id : requested) {
+                (cachedIds.contains(id) ? present : missing).add(id);
+            }
+
+            if (!present.isEmpty()) {
+                // Revalidate in the background; the fresh rows are picked up on the next read.
+                // Not tied to the handle, the cache should be refreshed even if the caller left.
+                fetchArticlesByIds(present, null);
+            }
+            if (missing.isEmpty()) {
+                List<Article> result = inRequestedOrder(requested, cached);
+                mainHandler.post(() -> {
+                    if (callback != null && !handle.isCancelled()) {
+                        callback.onSuccess(result);
+                    }
+                });
+                return;
+            }
+            handle.set(fetchArticlesByIds(missing, new ArticleCallback() {
+                @Override
+                public void onSuccess(List<Article> fetched) {
+                    if (callback == null) return;
+                    List<Article> merged = new ArrayList<>(cached);
+                    merged.addAll(fetched);
+                    callback.onSuccess(inRequestedOrder(requested, merged));
+                }
+
+                @Override
+                public void onError(String message) {
+                    if (callback == null) return;
+                    if (!cached.isEmpty()) {
+                        callback.onSuccess(inRequestedOrder(requested, cached));
+                    } else {
+                        callback.onError(message);
+                    }
+                }
+            }));
+        });
+        return handle;
+    }
+
+    /**
+     * Fetches articles by id from the API and writes them to the local cache. The ids are split
+     * into chunks whose filter fits in {@link #MAX_IDS_FILTER_LENGTH}, and the chunks are
+     * requested concurrently. Results are merged on the main thread, where every chunk's
+     * callback runs. If only some chunks fail, the articles of the others are delivered.
+     *
+     * @param callback The callback to handle the response or error, or null for a silent refresh
+     */
+    private Cancellable fetchArticlesByIds(List<String> ids, final ArticleCallback callback) {
+        List<List<String>> chunks = PocketBaseQuery.partitionIds(ids, MAX_IDS_FILTER_LENGTH);
+        CompositeCancellable handle = new CompositeCancellable();
+        List<Article> fetched = new ArrayList<>();
+        int[] remaining = {chunks.size()};
+        String[] lastError = {null};
+        for (List<String> chunk : chunks) {
+            Map<String, String> params = new PocketBaseQuery().withIds(chunk).summary().toQueryMap();
+            handle.add(requestPage(1, chunk.size(), params, new RetryWithBackoff.Callback<PocketBaseResponse<Article>>() {
+                @Override
+                public void onSuccess(PocketBaseResponse<Article> response) {
+                    fetched.addAll(response.getItems());
+                    onChunkDone();
+                }
+
+                @Override
+                public void onError(String errorMessage, boolean isNetworkError) {
+                    lastError[0] = isNetworkError ? context.getString(R.string.error_network_retry) : errorMessage;
+                    onChunkDone();
+                }
+
+                private void onChunkDone() {
+                    if (--remaining[0] > 0) return;
+                    if (callback == null) {
+                        if (lastError[0] != null) {
+                            Log.w(TAG, "Background refresh failed: " + lastError[0]);
+                        }
+                    } else if (lastError[0] != null && fetched.isEmpty()) {
+                        callback.onError(lastError[0]);
+                    } else {
+                        callback.onSuccess(fetched);
+                    }
+                }
+            }));
+        }
+        return handle;
+    }
+
+    /**
+     * Orders articles like the given ids, skipping ids without an article. When an id occurs
+     * more than once in the articles, the last one wins.
+     */
+    private static List<Article> inRequestedOrder(List<String> ids, List<Article> articles) {
+        Map<String, Article> byId = new HashMap<>();
+        for (Article article : articles) {
+            byId.put(article.getId(), article);
+        }
+        List<Article> ordered = new ArrayList<>(byId.size());
+        for (String id : ids) {
+            Article article = byId.get(id);
+            if (article != null) {
+                ordered.add(article);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Reads a stored page of a list query from the local cache. A page that was never stored,
+     * or that lost articles deleted since, is a miss and returns an empty list.
+     * Must be called on the disk executor.
+     */
+    private List<Article> readCachedPage(String queryKey, int page) {
+        List<Article> articles = new ArrayList<>();
+        try {
+            List<ArticleEntity> entities = articleDao.getPage(queryKey, page);
+            if (entities.isEmpty() || entities.size() != articleDao.getPageSize(queryKey, page)) {
+                return articles;
+            }
+            for (ArticleEntity entity : entities) {
+                articles.add(entity.toArticle());
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to read cached page", e);
+        }
+        return articles;
+    }
+
+    /**
+     * Reads every cached article, newest first. Must be called on the disk executor.
+     */
+    private List<Article> readAllCachedArticles() {
+        List<Article> articles = new ArrayList<>();
+        try {
+            for (ArticleEntity entity : articleDao.getAllArticles()) {
+                articles.add(entity.toArticle());
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to read cached articles", e);
+        }
+        return articles;
+    }
+
+    /**
+     * Reads the cached articles among the given ids. Must be called on the disk executor.
+     */
+    private List<Article> readCachedArticlesByIds(List<String> ids) {
+        List<Article> articles = new ArrayList<>();
+        try {
+            for (ArticleEntity entity : articleDao.getArticlesByIds(ids)) {
+                articles.add(entity.toArticle());
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to read cached articles", e);
+        }
+        return articles;
+    }
+
+    /**
+     * Reads a single article from the local cache. Must be called on the disk executor.
+     */
+    private ArticleEntity readCachedArticle(String id) {
+        if (id == null) {
+            return null;
+        }
+        try {
+            return articleDao.getArticleById(id);
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to read cached article " + id, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores which articles a page of a list query returned, on the disk executor. The articles
+     * themselves were queued for writing by {@link #requestPage} before, so they are in the
+     * cache by the time the page is.
+     */
+    private void cachePage(String queryKey, int page, List<Article> articles) {
+        List<String> ids = new ArrayList<>(articles.size());
+        for (Article article : articles) {
+            if (article.getId() != null) {
+                ids.add(article.getId());
+            }
+        }
+        diskExecutor.execute(() -> {
+            try {
+                articleDao.replacePage(queryKey, page, ids);
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to cache page", e);
+            }
+        });
+    }
+
+    /**
+     * Writes articles received from the API to the local cache on the disk executor.
+     */
+    private void cacheArticles(List<Article> articles) {
+        if (articles == null || articles.isEmpty()) {
+            return;
+        }
+        List<ArticleEntity> entities = new ArrayList<>(articles.size());
+        for (Article article : articles) {
+            ArticleEntity entity = ArticleEntity.fromArticle(article);
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+        diskExecutor.execute(() -> {
+            try {
+                articleDao.upsertAll(entities);
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to cache articles", e);
+            }
+        });
+    }
     
     /**
-     * Callback interface for handling article list responses.
+     * Handle for requests that first consult the cache on the disk executor: the network request
+     * is only known once the cache read has finished, and is cancelled as soon as it is set if
+     * the caller already gave up.
+     */
+    private static final class DeferredCancellable implements Cancellable {
+        private volatile boolean cancelled = false;
+        private Cancellable delegate;
+
+        void set(Cancellable cancellable) {
+            synchronized (this) {
+                if (!cancelled) {
+                    delegate = cancellable;
+                    return;
+                }
+            }
+            cancellable.cancel();
+        }
+
+        @Override
+        public void cancel() {
+            Cancellable toCancel;
+            synchronized (this) {
+                if (cancelled) return;
+                cancelled = true;
+                toCancel = delegate;
+                delegate = null;
+            }
+            if (toCancel != null) {
+                toCancel.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Handle for several requests that are cancelled together.
+     */
+    private static final class CompositeCancellable implements Cancellable {
+        private final List<Cancellable> parts = new ArrayList<>();
+        private boolean cancelled = false;
+
+        void add(Cancellable cancellable) {
+            synchronized (this) {
+                if (!cancelled) {
+                    parts.add(cancellable);
+                    return;
+                }
+            }
+            cancellable.cancel();
+        }
+
+        @Override
+        public void cancel() {
+            List<Cancellable> toCancel;
+            synchronized (this) {
+                if (cancelled) return;
+                cancelled = true;
+                toCancel = new ArrayList<>(parts);
+                parts.clear();
+            }
+            for (Cancellable cancellable : toCancel) {
+                cancellable.cancel();
+            }
+        }
+
+        @Override
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Callback interface for handling article list responses. {@link #onSuccess} may be called
+     * twice by stale-while-revalidate reads: with the cached list, then with the fresh one.
      */
     public interface ArticleCallback {
         void onSuccess(List<Article> articles);
         void onError(String message);
     }
     
+    /**
+     * Callback interface for handling a page of articles along with its paging totals.
+     */
+    public interface PageCallback {
+        void onSuccess(PocketBaseResponse<Article> page);
+        void onError(String message);
+    }
+    
     /**
      * Callback interface for handling single article responses.
      */
@@ -0,0 +1,384 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Inverted full-text index over article titles, author names and content.
+ *
+ * <p>Each term maps to a posting list of article ids carrying per-field term positions.
+ * Queries are tokenized the same way as documents, resolved by intersecting posting lists
+ * (every query term must match, the last one also as a prefix so partially typed words
+ * still match) and ranked with a field-weighted BM25 score plus a small bonus for exact
+ * phrase matches.
+ *
+ * <p>The index is built once per catalog snapshot with {@link #rebuild(Collection, long)} and
+ * kept current with {@link #update(Collection, long)} as partial results arrive.
+ * All methods are synchronized; build and query it off the main thread.
+ */
+public class ArticleSearchIndex {
+
+    private static final int FIELD_TITLE = 0;
+    private static final int FIELD_AUTHOR = 1;
+    private static final int FIELD_CONTENT = 2;
+    private static final int FIELD_COUNT = 3;
+
+    // Matches in the title count more than matches in the body
+    private static final double[] FIELD_WEIGHTS = {3.0, 2.0, 1.0};
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PHRASE_BONUS = 1.5;
+
+    /**
+     * Occurrences of one term in one article, split by field.
+     */
+    private static final class Posting {
+        final int[][] positions = new int[FIELD_COUNT][];
+        final int[] frequencies = new int[FIELD_COUNT];
+
+        void add(int field, int position) {
+            int[] fieldPositions = positions[field];
+            if (fieldPositions == null) {
+                fieldPositions = new int[2];
+                positions[field] = fieldPositions;
+            } else if (frequencies[field] == fieldPositions.length) {
+                fieldPositions = Arrays.copyOf(fieldPositions, fieldPositions.length * 2);
+                positions[field] = fieldPositions;
+            }
+            fieldPositions[frequencies[field]++] = position;
+        }
+
+        boolean hasPosition(int field, int position) {
+            int[] fieldPositions = positions[field];
+            if (fieldPositions == null) return false;
+            for (int i = 0; i < frequencies[field]; i++) {
+                if (fieldPositions[i] == position) return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Per-article bookkeeping needed for scoring and incremental removal.
+     */
+    private static final class Document {
+        final Article article;
+        final int[] fieldLengths = new int[FIELD_COUNT];
+        final Set<String> terms = new HashSet<>();
+
+        Document(Article article) {
+            this.article = article;
+        }
+    }
+
+    private final TreeMap<String, Map<String, Posting>> postings = new TreeMap<>();
+    private final Map<String, Document> documents = new HashMap<>();
+    private final long[] totalFieldLengths = new long[FIELD_COUNT];
+    private long version = -1;
+
+    /**
+     * Discards the current contents and indexes a full catalog snapshot.
+     *
+     * @param articles The articles to index
+     * @param version  The {@link ArticleIndex} version the snapshot belongs to
+     */
+    public synchronized void rebuild(Collection<Article> articles, long version) {
+        postings.clear();
+        documents.clear();
+        Arrays.fill(totalFieldLengths, 0);
+        if (articles != null) {
+            for (Article article : articles) {
+                addDocument(article);
+            }
+        }
+        this.version = version;
+    }
+
+    /**
+     * Inserts or re-indexes the given articles, leaving the rest of the index untouched.
+     *
+     * @param articles The new or changed articles
+     * @param version  The {@link ArticleIndex} version after the change
+     */
+    public synchronized void update(Collection<Article> articles, long version) {
+        if (articles != null) {
+            for (Article article : articles) {
+                if (article == null || article.getId() == null) continue;
+                removeDocument(article.getId());
+                addDocument(article);
+            }
+        }
+        this.version = version;
+    }
+
+    /**
+     * Removes a single article from the index.
+     */
+    public synchronized void remove(String articleId) {
+        removeDocument(articleId);
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized int size() {
+        return documents.size();
+    }
+
+    /**
+     * Finds the articles matching every term of the query, best match first.
+     *
+     * @param query The raw user query
+     * @param limit Maximum number of results, or a non-positive value for no limit
+     * @return Matching articles ordered by descending relevance
+     */
+    public synchronized List<Article> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || documents.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, Double> scores = score(queryTerms, null);
+        List<Map.Entry<String, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()));
+
+        int count = limit > 0 ? Math.min(limit, ranked.size()) : ranked.size();
+        List<Article> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(documents.get(ranked.get(i).getKey()).article);
+        }
+        return results;
+    }
+
+    /**
+     * Orders the given candidates by their relevance to the query. Candidates that are not
+     * in the index or do not match keep their relative order after the scored ones.
+     *
+     * @param query      The raw user query
+     * @param candidates Articles to rank, for example the matches listed by the server
+     * @return A new list with the same articles ordered by descending relevance
+     */
+    public synchronized List<Article> rank(String query, List<Article> candidates) {
+        List<Article> result = new ArrayList<>(candidates != null ? candidates : Collections.emptyList());
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || result.size() < 2) {
+            return result;
+        }
+
+        Set<String> candidateIds = new HashSet<>();
+        for (Article article : result) {
+            if (article != null && article.getId() != null) {
+                candidateIds.add(article.getId());
+            }
+        }
+        Map<String, Double> scores = score(queryTerms, candidateIds);
+        // List.sort is stable, so unscored candidates keep their server order
+        result.sort((a1, a2) -> Double.compare(scoreOf(scores, a2), scoreOf(scores, a1)));
+        return result;
+    }
+
+    /**
+     * Splits text into lowercase letter/digit tokens.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean isTokenChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (isTokenChar && start < 0) {
+                start = i;
+            } else if (!isTokenChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static double scoreOf(Map<String, Double> scores, Article article) {
+        if (article == null || article.getId() == null) return 0;
+        Double score = scores.get(article.getId());
+        return score != null ? score : 0;
+    }
+
+    /**
+     * Scores every document that matches all query terms.
+     *
+     * @param restrictTo Optional set of article ids to consider, or null for the whole index
+     */
+    private Map<String, Double> score(List<String> queryTerms, Set<String> restrictTo) {
+        // Resolve each query term to its matching postings; the last term also matches as a prefix
+        List<Map<String, List<Posting>>> termMatches = new ArrayList<>(queryTerms.size());
+        for (int i = 0; i < queryTerms.size(); i++) {
+            Map<String, List<Posting>> matches = lookup(queryTerms.get(i), i == queryTerms.size() - 1);
+            if (matches.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            termMatches.add(matches);
+        }
+
+        // Intersect starting from the shortest posting list
+        Map<String, List<Posting>> smallest = termMatches.get(0);
+        for (Map<String, List<Posting>> matches : termMatches) {
+            if (matches.size() < smallest.size()) {
+                smallest = matches;
+            }
+        }
+        List<String> candidates = new ArrayList<>();
+        for (String articleId : smallest.keySet()) {
+            if (restrictTo != null && !restrictTo.contains(articleId)) continue;
+            boolean inAll = true;
+            for (Map<String, List<Posting>> matches : termMatches) {
+                if (!matches.containsKey(articleId)) {
+                    inAll = false;
+                    break;
+                }
+            }
+            if (inAll) {
+                candidates.add(articleId);
+            }
+        }
+
+        double[] averageLengths = new double[FIELD_COUNT];
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            averageLengths[field] = documents.isEmpty() ? 1 :
+                    Math.max(1.0, (double) totalFieldLengths[field] / documents.size());
+        }
+
+        Map<String, Double> scores = new HashMap<>();
+        int documentCount = documents.size();
+        for (String articleId : candidates) {
+            Document document = documents.get(articleId);
+            double score = 0;
+            for (Map<String, List<Posting>> matches : termMatches) {
+                double idf = Math.log(1 + (documentCount - matches.size() + 0.5) / (matches.size() + 0.5));
+                double weightedFrequency = 0;
+                for (Posting posting : matches.get(articleId)) {
+                    for (int field = 0; field < FIELD_COUNT; field++) {
+                        if (posting.frequencies[field] == 0) continue;
+                        double norm = 1 - B + B * document.fieldLengths[field] / averageLengths[field];
+                        weightedFrequency += FIELD_WEIGHTS[field] * posting.frequencies[field] / norm;
+                    }
+                }
+                score += idf * weightedFrequency * (K1 + 1) / (weightedFrequency + K1);
+            }
+            if (queryTerms.size() > 1 && containsPhrase(queryTerms, articleId)) {
+                score *= PHRASE_BONUS;
+            }
+            scores.put(articleId, score);
+        }
+        return scores;
+    }
+
+    /**
+     * Returns postings for a term grouped by article id.
+     */
+    private Map<String, List<Posting>> lookup(String term, boolean allowPrefix) {
+        Map<String, List<Posting>> result = new HashMap<>();
+        SortedMap<String, Map<String, Posting>> terms = allowPrefix ?
+                postings.subMap(term, term + Character.MAX_VALUE) :
+                (postings.containsKey(term) ? postings.subMap(term, true, term, true) : Collections.emptySortedMap());
+        for (Map<String, Posting> termPostings : terms.values()) {
+            for (Map.Entry<String, Posting> entry : termPostings.entrySet()) {
+                List<Posting> list = result.get(entry.getKey());
+                if (list == null) {
+                    list = new ArrayList<>(1);
+                    result.put(entry.getKey(), list);
+                }
+                list.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the exact query terms appear consecutively in any field of the article.
+     */
+    private boolean containsPhrase(List<String> queryTerms, String articleId) {
+        Map<String, Posting> first = postings.get(queryTerms.get(0));
+        Posting start = first != null ? first.get(articleId) : null;
+        if (start == null) return false;
+
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            for (int i = 0; i < start.frequencies[field]; i++) {
+                int position = start.positions[field][i];
+                boolean matched = true;
+                for (int t = 1; t < queryTerms.size() && matched; t++) {
+                    Map<String, Posting> next = postings.get(queryTerms.get(t));
+                    Posting posting = next != null ? next.get(articleId) : null;
+                    matched = posting != null && posting.hasPosition(field, position + t);
+                }
+                if (matched) return true;
+            }
+        }
+        return false;
+    }
+
+    private void addDocument(Article article) {
+        if (article == null || article.getId() == null) return;
+
+        Document document = new Document(article);
+        indexField(document, FIELD_TITLE, article.getTitle());
+        indexField(document, FIELD_AUTHOR, article.getAuthorName());
+        indexField(document, FIELD_CONTENT, article.getContent());
+        documents.put(article.getId(), document);
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            totalFieldLengths[field] += document.fieldLengths[field];
+        }
+    }
+
+    private void indexField(Document document, int field, String text) {
+        List<String> tokens = tokenize(text);
+        document.fieldLengths[field] = tokens.size();
+        String articleId = document.article.getId();
+        for (int position = 0; position < tokens.size(); position++) {
+            String term = tokens.get(position);
+            Map<String, Posting> termPostings = postings.get(term);
+            if (termPostings == null) {
+                termPostings = new HashMap<>();
+                postings.put(term, termPostings);
+            }
+            Posting posting = termPostings.get(articleId);
+            if (posting == null) {
+                posting = new Posting();
+                termPostings.put(articleId, posting);
+            }
+            posting.add(field, position);
+            document.terms.add(term);
+        }
+    }
+
+    private void removeDocument(String articleId) {
+        Document document = articleId != null ? documents.remove(articleId) : null;
+        if (document == null) return;
+
+        for (String term : document.terms) {
+            Map<String, Posting> termPostings = postings.get(term);
+            if (termPostings == null) continue;
+            termPostings.remove(articleId);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            totalFieldLengths[field] -= document.fieldLengths[field];
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.rafdi.vitechasia.blog.api.ArticleApiService;
+import com.rafdi.vitechasia.blog.api.HttpStatusException;
+import com.rafdi.vitechasia.blog.api.NetworkMetrics;
+import com.rafdi.vitechasia.blog.api.PocketBaseQuery;
+import com.rafdi.vitechasia.blog.api.PocketBaseResponse;
+import com.rafdi.vitechasia.blog.database.ArticleDao;
+import com.rafdi.vitechasia.blog.database.ArticleEntity;
+import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.utils.AppExecutors;
+import com.rafdi.vitechasia.blog.utils.Cancellable;
+import com.rafdi.vitechasia.blog.utils.RetryWithBackoff;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Keeps the local article cache in step with the server while transferring only what changed.
+ *
+ * <p>The engine remembers a high-water mark: the {@code updated} time and id of the last record
+ * it merged. A sync asks for the records updated after the mark, oldest change first, and pages
+ * through them with the mark as a keyset cursor instead of page numbers, so records edited while
+ * the sync runs can't shift others past a page boundary. The mark is saved after every page, and
+ * an interrupted sync resumes where it stopped. Changed rows update the cached ones but keep any
+ * cached body, which the detail screen revalidates when the article is opened.
+ *
+ * <p>Without a mark, e.g. on the first sync, the whole collection is fetched with page numbers
+ * instead: the first page reports how many pages there are, and the rest are fetched
+ * concurrently on the shared I/O pool, a few pages at a time, and written in page order.
+ * Sorting that fetch by newest change first means records edited meanwhile move to the front
+ * and are seen again by the next sync rather than being skipped.
+ *
+ * <p>PocketBase keeps no tombstones for deleted records. Instead, the collection is listed by id
+ * after a full sync, whenever the number of records on the server differs from the number of
+ * cached rows, and otherwise at most once per {@link #RECONCILE_INTERVAL_MS}. Cached rows
+ * missing from the list are deleted, and records missing from the cache, e.g. created while the
+ * sync ran, skipped by a full sync whose pages shifted under a deletion, or lost when the cache
+ * was cleared, are fetched by id. A deletion balanced by a creation leaves the counts equal, so
+ * the deleted row may be shown until the next scheduled listing.
+ *
+ * <p>Concurrent syncs share one run, and a sync requested shortly after another one reuses its
+ * result (see {@link RequestCoalescer}).
+ */
+final class ArticleSyncEngine {
+    private static final String TAG = "ArticleSyncEngine";
+    private static final String PREF_NAME = "article_sync";
+    private static final String KEY_LAST_UPDATED = "last_updated";
+    private static final String KEY_LAST_ID = "last_id";
+    private static final String KEY_LAST_RECONCILED = "last_reconciled";
+    private static final String SYNC_KEY = "catalog";
+    // A sync requested again within this window reuses the last result
+    private static final long SYNC_REUSE_MS = 30_000;
+    private static final int CHANGES_PAGE_SIZE = 200;
+    // Pages a full sync requests ahead of the one it writes next. Below the size of the I/O
+    // pool, which also runs the sync itself while it waits for them.
+    private static final int FULL_SYNC_CONCURRENCY = 3;
+    private static final int ID_PAGE_SIZE = 500;
+    // Longest time between id listings while the counts match
+    private static final long RECONCILE_INTERVAL_MS = TimeUnit.HOURS.toMillis(24);
+    // Keeps each delete below SQLite's limit on statement parameters
+    private static final int DELETE_BATCH_SIZE = 500;
+    private static final String SYNC_FIELDS =
+            PocketBaseQuery.SUMMARY_FIELDS + "," + PocketBaseQuery.FIELD_UPDATED;
+    private static final String CHANGE_ORDER =
+            PocketBaseQuery.FIELD_UPDATED + "," + PocketBaseQuery.FIELD_ID;
+    private static final String NEWEST_CHANGE_ORDER =
+            "-" + PocketBaseQuery.FIELD_UPDATED + ",-" + PocketBaseQuery.FIELD_ID;
+
+    /**
+     * What a sync changed in the local cache.
+     */
+    static final class SyncResult {
+        final int changed;
+        final int deleted;
+
+        SyncResult(int changed, int deleted) {
+            this.changed = changed;
+            this.deleted = deleted;
+        }
+    }
+
+    private final ArticleApiService apiService;
+    private final ArticleDao articleDao;
+    private final SharedPreferences preferences;
+    private final RetryWithBackoff<SyncResult> retryWithBackoff;
+    private final RequestCoalescer<SyncResult> syncs;
+    private final ExecutorService pageExecutor;
+    private final LongSupplier clock;
+
+    /**
+     * @param context          Any context (the application context is used internally)
+     * @param callbackExecutor Executor used to deliver reused results, normally the main thread
+     */
+    ArticleSyncEngine(Context context, ArticleApiService apiService, ArticleDao articleDao,
+                      Executor callbackExecutor) {
+        this(apiService, articleDao,
+                context.getApplicationContext().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE),
+                new RetryWithBackoff<>(context, NetworkMetrics.ENDPOINT_ARTICLES), callbackExecutor,
+                AppExecutors.io(), System::currentTimeMillis);
+    }
+
+    /**
+     * @param pageExecutor Runs the concurrent page fetches of a full sync
+     * @param clock        Wall-clock time in milliseconds, used to schedule id listings
+     */
+    ArticleSyncEngine(ArticleApiService apiService, ArticleDao articleDao, SharedPreferences preferences,
+                      RetryWithBackoff<SyncResult> retryWithBackoff, Executor callbackExecutor,
+                      ExecutorService pageExecutor, LongSupplier clock) {
+        this.apiService = apiService;
+        this.articleDao = articleDao;
+        this.preferences = preferences;
+        this.retryWithBackoff = retryWithBackoff;
+        this.syncs = new RequestCoalescer<>(SYNC_REUSE_MS, 1, callbackExecutor);
+        this.pageExecutor = pageExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns whether a full sync has completed, i.e. whether the cache holds the whole catalog
+     * rather than only the pages, previews and single articles other requests stored in it.
+     */
+    boolean hasCompleteCatalog() {
+        return preferences.contains(KEY_LAST_UPDATED);
+    }
+
+    /**
+     * Makes the next {@link #sync} start a new run instead of reusing the last result.
+     */
+    void invalidate() {
+        syncs.clear();
+    }
+
+    /**
+     * Brings the local cache up to date with the server. Failed requests are retried with
+     * backoff; the result is delivered on the main thread.
+     *
+     * @param onFirstPage Receives the first page of a full sync on a background thread once it
+     *                    has been written to the cache, may be null. Only used if this call
+     *                    starts the sync.
+     * @param callback    Receives what the sync changed, or the error
+     * @return A handle to cancel the sync; pages merged before cancelling are kept
+     */
+    Cancellable sync(Consumer<List<Article>> onFirstPage, RetryWithBackoff.Callback<SyncResult> callback) {
+        return syncs.execute(SYNC_KEY, done -> {
+            CallGroup calls = new CallGroup();
+            RetryWithBackoff.Handle handle = retryWithBackoff.execute(() -> runSync(calls, onFirstPage), done);
+            handle.doOnCancel(calls::cancel);
+            return handle;
+        }, callback);
+    }
+
+    /**
+     * Runs one sync on the calling thread, without retries and without sharing it with
+     * concurrent callers.
+     */
+    SyncResult syncNow(Consumer<List<Article>> onFirstPage) throws Exception {
+        return runSync(new CallGroup(), onFirstPage);
+    }
+
+    /**
+     * Merges the changes since the mark and reconciles the cached ids with the server's after
+     * a full sync, when the counts differ or when the last reconciliation is due. Runs on an
+     * I/O thread.
+     */
+    private SyncResult runSync(CallGroup calls, Consumer<List<Article>> onFirstPage) throws Exception {
+        boolean fullSync = !hasCompleteCatalog();
+        int changed = mergeChanges(calls, onFirstPage);
+        long lastReconciled = preferences.getLong(KEY_LAST_RECONCILED, 0);
+        boolean due = clock.getAsLong() - lastReconciled >= RECONCILE_INTERVAL_MS;
+        if (!fullSync && !due && articleDao.getArticleCount() == fetchServerTotal(calls)) {
+            return new SyncResult(changed, 0);
+        }
+        SyncResult reconciled = reconcileIds(calls);
+        preferences.edit().putLong(KEY_LAST_RECONCILED, clock.getAsLong()).apply();
+        return new SyncResult(changed + reconciled.changed, reconciled.deleted);
+    }
+
+    /**
+     * Pages through the records changed since the mark and writes them to the cache, advancing
+     * the mark after each page. Without a mark the whole collection is fetched instead.
+     *
+     * @return The number of changed records
+     */
+    private int mergeChanges(CallGroup calls, Consumer<List<Article>> onFirstPage) throws Exception {
+        long storedTime = preferences.getLong(KEY_LAST_UPDATED, Long.MIN_VALUE);
+        if (storedTime == Long.MIN_VALUE) {
+            return fetchAll(calls, onFirstPage);
+        }
+        Date lastUpdated = new Date(storedTime);
+        String lastId = preferences.getString(KEY_LAST_ID, null);
+        int merged = 0;
+        while (true) {
+            Map<String, String> params = new PocketBaseQuery()
+                    .updatedAfter(lastUpdated, lastId)
+                    .sortBy(CHANGE_ORDER)
+                    .fields(SYNC_FIELDS)
+                    .skipTotal()
+                    .toQueryMap();
+            List<Article> changes = fetchPage(1, CHANGES_PAGE_SIZE, params, calls).getItems();
+            if (changes.isEmpty()) {
+                return merged;
+            }
+            writeChanges(changes);
+            merged += changes.size();
+
+            Article last = changes.get(changes.size() - 1);
+            saveMark(last);
+            lastUpdated = last.getUpdated();
+            lastId = last.getId();
+
+            if (changes.size() < CHANGES_PAGE_SIZE) {
+                return merged;
+            }
+        }
+    }
+
+    /**
+     * Fetches the whole collection, newest change first. The first page reports the number of
+     * pages; the others are fetched on the page executor, at most {@link #FULL_SYNC_CONCURRENCY}
+     * ahead of the page being written, and written in page order. Only one sync runs at a time,
+     * so waiting here holds a single I/O thread and leaves the others for the page fetches.
+     * The mark is set to the newest change once every page has been written.
+     *
+     * @return The number of fetched records
+     */
+    private int fetchAll(CallGroup calls, Consumer<List<Article>> onFirstPage) throws Exception {
+        Map<String, String> params = new PocketBaseQuery()
+                .sortBy(NEWEST_CHANGE_ORDER)
+                .fields(SYNC_FIELDS)
+                .toQueryMap();
+        PocketBaseResponse<Article> first = fetchPage(1, CHANGES_PAGE_SIZE, params, calls);
+        List<Article> newest = first.getItems();
+        if (newest.isEmpty()) {
+            return 0;
+        }
+        writeChanges(newest);
+        if (onFirstPage != null) {
+            onFirstPage.accept(newest);
+        }
+
+        int fetched = newest.size();
+        int totalPages = first.getTotalPages();
+        Map<Integer, Future<PocketBaseResponse<Article>>> pending = new HashMap<>();
+        int nextToRequest = 2;
+        try {
+            for (int page = 2; page <= totalPages; page++) {
+                while (nextToRequest <= totalPages && nextToRequest < page + FULL_SYNC_CONCURRENCY) {
+                    int requested = nextToRequest++;
+                    pending.put(requested, pageExecutor.submit(() ->
+                            fetchPage(requested, CHANGES_PAGE_SIZE, params, calls)));
+                }
+                List<Article> items = await(pending.remove(page)).getItems();
+                writeChanges(items);
+                fetched += items.size();
+            }
+        } finally {
+            // Only left over when a page failed; the retry starts the fetch again
+            for (Future<?> future : pending.values()) {
+                future.cancel(false);
+            }
+        }
+
+        saveMark(newest.get(0));
+        return fetched;
+    }
+
+    /**
+     * Waits for a page fetched on another thread and rethrows its failure as is, so that
+     * RetryWithBackoff can tell whether it is worth retrying.
+     */
+    private static PocketBaseResponse<Article> await(Future<PocketBaseResponse<Article>> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    /**
+     * Writes changed records to the cache. They are summaries, so cached bodies are kept
+     * (see {@link ArticleDao#upsertAll(List)}).
+     */
+    private void writeChanges(List<Article> changes) {
+        List<ArticleEntity> entities = new ArrayList<>(changes.size());
+        for (Article article : changes) {
+            ArticleEntity entity = ArticleEntity.fromArticle(article);
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+        articleDao.upsertAll(entities);
+    }
+
+    /**
+     * Moves the mark to the given record.
+     */
+    private void saveMark(Article article) {
+        if (article.getUpdated() == null) {
+            // Without it the mark can't advance; not retryable
+            throw new IllegalStateException("Server did not return the updated time of articles");
+        }
+        preferences.edit()
+                .putLong(KEY_LAST_UPDATED, article.getUpdated().getTime())
+                .putString(KEY_LAST_ID, article.getId())
+                .apply();
+    }
+
+    /**
+     * Returns the number of records on the server with a one-item request.
+     */
+    private int fetchServerTotal(CallGroup calls) throws Exception {
+        Map<String, String> params = new PocketBaseQuery().fields(PocketBaseQuery.FIELD_ID).toQueryMap();
+        return fetchPage(1, 1, params, calls).getTotalItems();
+    }
+
+    /**
+     * Lists the ids on the server, deletes the cached rows that are not among them and fetches
+     * the records that are not cached.
+     *
+     * @return The number of fetched records and of deleted rows
+     */
+    private SyncResult reconcileIds(CallGroup calls) throws Exception {
+        Set<String> serverIds = new LinkedHashSet<>();
+        String afterId = null;
+        while (true) {
+            Map<String, String> params = new PocketBaseQuery()
+                    .idAfter(afterId)
+                    .sortBy(PocketBaseQuery.FIELD_ID)
+                    .fields(PocketBaseQuery.FIELD_ID)
+                    .skipTotal()
+                    .toQueryMap();
+            List<Article> page = fetchPage(1, ID_PAGE_SIZE, params, calls).getItems();
+            for (Article article : page) {
+                serverIds.add(article.getId());
+            }
+            if (page.size() < ID_PAGE_SIZE) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+
+        Set<String> cachedIds = new HashSet<>(articleDao.getAllIds());
+        List<String> deleted = new ArrayList<>();
+        for (String id : cachedIds) {
+            if (!serverIds.contains(id)) {
+                deleted.add(id);
+            }
+        }
+        for (int start = 0; start < deleted.size(); start += DELETE_BATCH_SIZE) {
+            articleDao.deleteByIds(deleted.subList(start, Math.min(start + DELETE_BATCH_SIZE, deleted.size())));
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (String id : serverIds) {
+            if (!cachedIds.contains(id)) {
+                missing.add(id);
+            }
+        }
+        int fetched = 0;
+        for (List<String> ids : PocketBaseQuery.partitionIds(missing, ArticleRepository.MAX_IDS_FILTER_LENGTH)) {
+            Map<String, String> params = new PocketBaseQuery()
+                    .withIds(ids)
+                    .fields(SYNC_FIELDS)
+                    .skipTotal()
+                    .toQueryMap();
+            List<Article> records = fetchPage(1, ids.size(), params, calls).getItems();
+            writeChanges(records);
+            fetched += records.size();
+        }
+        if (!deleted.isEmpty() || !missing.isEmpty()) {
+            Log.w(TAG, "Reconciled cache: " + missing.size() + " missing, " + deleted.size() + " deleted");
+        }
+        return new SyncResult(fetched, deleted.size());
+    }
+
+    /**
+     * Executes one page of a list query synchronously.
+     *
+     * @throws HttpStatusException if the server answers with an error status
+     */
+    private PocketBaseResponse<Article> fetchPage(int page, int limit, Map<String, String> params,
+                                                  CallGroup calls) throws Exception {
+        Call<PocketBaseResponse<Article>> call = apiService.getArticles(page, limit, params);
+        calls.add(call);
+        try {
+            Response<PocketBaseResponse<Article>> response = call.execute();
+            if (response.isSuccessful() && response.body() != null) {
+                return response.body();
+            }
+            throw HttpStatusException.fromResponse(response);
+        } finally {
+            calls.remove(call);
+        }
+    }
+
+    /**
+     * The HTTP calls a sync is running, which may be several during a full sync, so that
+     * cancelling the sync stops all of them.
+     */
+    private static final class CallGroup {
+        private final Set<Call<?>> calls = new HashSet<>();
+        private boolean cancelled = false;
+
+        synchronized void add(Call<?> call) {
+            if (cancelled) {
+                call.cancel();
+            } else {
+                calls.add(call);
+            }
+        }
+
+        synchronized void remove(Call<?> call) {
+            calls.remove(call);
+        }
+
+        void cancel() {
+            List<Call<?>> toCancel;
+            synchronized (this) {
+                cancelled = true;
+                toCancel = new ArrayList<>(calls);
+                calls.clear();
+            }
+            for (Call<?> call : toCancel) {
+                call.cancel();
+            }
+        }
+    }
+}
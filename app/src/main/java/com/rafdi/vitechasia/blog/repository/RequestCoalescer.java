@@ -0,0 +1,225 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import android.os.SystemClock;
+
+import com.rafdi.vitechasia.blog.utils.Cancellable;
+import com.rafdi.vitechasia.blog.utils.RetryWithBackoff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+
+/**
+ * Deduplicates concurrent identical requests and briefly memoizes their results.
+ *
+ * <p>Requests are identified by a string key, e.g. built from the filter, page, page size and
+ * sort order. While a request is in flight, further callers with the same key are added as
+ * waiters and receive the same result instead of starting another HTTP call. Successful
+ * results are remembered for a short time so screens that are rebuilt right away don't hit
+ * the network again. Errors are never memoized.
+ *
+ * <p>Each caller gets its own {@link Cancellable}. Cancelling it removes only that caller;
+ * the underlying request is cancelled once its last waiter has gone.
+ *
+ * @param <V> The result type
+ */
+class RequestCoalescer<V> {
+
+    /**
+     * Starts the underlying request exactly once per coalesced group.
+     */
+    interface Request<V> {
+        Cancellable start(RetryWithBackoff.Callback<V> callback);
+    }
+
+    /**
+     * The waiters of one in-flight request and the handle to cancel it.
+     */
+    private final class Group {
+        final List<Waiter> waiters = new ArrayList<>();
+        // The clear() count when the request started
+        final int epoch;
+        Cancellable underlying;
+
+        Group(int epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    private final class Waiter implements Cancellable {
+        final String key;
+        final RetryWithBackoff.Callback<V> callback;
+        volatile boolean cancelled = false;
+        // The request this waiter joined, null for memoized results; guarded by the coalescer
+        Group group;
+
+        Waiter(String key, RetryWithBackoff.Callback<V> callback) {
+            this.key = key;
+            this.callback = callback;
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            Cancellable toCancel = null;
+            synchronized (RequestCoalescer.this) {
+                if (group != null && group.waiters.remove(this) && group.waiters.isEmpty()) {
+                    // Nobody is interested anymore; stop the HTTP call
+                    if (inFlight.get(key) == group) {
+                        inFlight.remove(key);
+                    }
+                    toCancel = group.underlying;
+                }
+            }
+            if (toCancel != null) {
+                toCancel.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private static final class Memo<V> {
+        final V value;
+        final long storedAt;
+
+        Memo(V value, long storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private final Map<String, Group> inFlight = new HashMap<>();
+    private final Map<String, Memo<V>> memo;
+    // Incremented by clear(); guarded by this
+    private int epoch = 0;
+    private final long ttlMs;
+    private final Executor callbackExecutor;
+    private final LongSupplier clock;
+
+    /**
+     * @param ttlMs            How long a successful result is served from memory
+     * @param maxEntries       Maximum number of memoized results
+     * @param callbackExecutor Executor used to deliver memoized results, normally the main thread
+     */
+    RequestCoalescer(long ttlMs, int maxEntries, Executor callbackExecutor) {
+        this(ttlMs, maxEntries, callbackExecutor, SystemClock::elapsedRealtime);
+    }
+
+    /**
+     * @param clock Milliseconds of a monotonic clock, used to expire memoized results
+     */
+    RequestCoalescer(long ttlMs, int maxEntries, Executor callbackExecutor, LongSupplier clock) {
+        this.ttlMs = ttlMs;
+        this.callbackExecutor = callbackExecutor;
+        this.clock = clock;
+        this.memo = new LinkedHashMap<String, Memo<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Memo<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Delivers a fresh memoized result, joins a matching in-flight request, or starts a new one.
+     *
+     * @param key      Identifies requests that produce the same result
+     * @param request  Starts the underlying request if nothing can be reused
+     * @param callback Receives the result; called on the thread the request completes on
+     * @return A handle that withdraws this caller
+     */
+    Cancellable execute(String key, Request<V> request, RetryWithBackoff.Callback<V> callback) {
+        Waiter waiter = new Waiter(key, callback);
+        Group group;
+        synchronized (this) {
+            Memo<V> cached = memo.get(key);
+            if (cached != null && clock.getAsLong() - cached.storedAt < ttlMs) {
+                callbackExecutor.execute(() -> {
+                    if (!waiter.isCancelled()) {
+                        callback.onSuccess(cached.value);
+                    }
+                });
+                return waiter;
+            }
+
+            group = inFlight.get(key);
+            // A request started before the last clear() may return what was just invalidated
+            if (group != null && group.epoch == epoch) {
+                group.waiters.add(waiter);
+                waiter.group = group;
+                return waiter;
+            }
+            group = new Group(epoch);
+            group.waiters.add(waiter);
+            waiter.group = group;
+            inFlight.put(key, group);
+        }
+
+        final Group started = group;
+        Cancellable underlying = request.start(new RetryWithBackoff.Callback<V>() {
+            @Override
+            public void onSuccess(V result) {
+                List<Waiter> waiters = complete(key, started);
+                synchronized (RequestCoalescer.this) {
+                    if (started.epoch == epoch) {
+                        memo.put(key, new Memo<>(result, clock.getAsLong()));
+                    }
+                }
+                for (Waiter w : waiters) {
+                    if (!w.isCancelled()) {
+                        w.callback.onSuccess(result);
+                    }
+                }
+            }
+
+            @Override
+            public void onError(String errorMessage, boolean isNetworkError) {
+                for (Waiter w : complete(key, started)) {
+                    if (!w.isCancelled()) {
+                        w.callback.onError(errorMessage, isNetworkError);
+                    }
+                }
+            }
+        });
+
+        boolean abandoned;
+        synchronized (this) {
+            started.underlying = underlying;
+            // Every waiter may have cancelled while the request was being started
+            abandoned = inFlight.get(key) != started && started.waiters.isEmpty();
+        }
+        if (abandoned) {
+            underlying.cancel();
+        }
+        return waiter;
+    }
+
+    /**
+     * Removes a finished group from the in-flight map and returns its waiters.
+     */
+    private synchronized List<Waiter> complete(String key, Group group) {
+        if (inFlight.get(key) == group) {
+            inFlight.remove(key);
+        }
+        return new ArrayList<>(group.waiters);
+    }
+
+    /**
+     * Forgets all memoized results so the next request for any key goes to the network.
+     * Requests already in flight still complete for their waiters, but later callers don't
+     * join them and their results are not memoized.
+     */
+    synchronized void clear() {
+        memo.clear();
+        epoch++;
+    }
+}
@@ -0,0 +1,108 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * App-wide executors shared by all background work.
+ *
+ * <ul>
+ *     <li>{@link #io()} runs blocking network calls on a small, bounded pool of named threads.</li>
+ *     <li>{@link #disk()} runs database reads and upkeep of in-memory indexes one task at a
+ *     time, so each task sees the effects of the ones queued before it.</li>
+ *     <li>{@link #computation()} runs CPU-bound work such as list diffs off the main thread,
+ *     one task at a time so it never competes with itself for cores.</li>
+ *     <li>{@link #scheduler()} schedules delayed work such as retry backoff without
+ *     occupying an I/O thread or the main looper while waiting.</li>
+ *     <li>{@link #mainThread()} delivers results to the UI.</li>
+ * </ul>
+ */
+public final class AppExecutors {
+    private static final int IO_THREADS = 4;
+    private static final long IO_KEEP_ALIVE_SECONDS = 30;
+
+    private static final ExecutorService IO;
+    private static final ExecutorService DISK;
+    private static final ExecutorService COMPUTATION;
+    private static final ScheduledExecutorService SCHEDULER;
+    private static final Executor MAIN_THREAD = new Executor() {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(Runnable command) {
+            handler.post(command);
+        }
+    };
+
+    static {
+        ThreadPoolExecutor io = new ThreadPoolExecutor(IO_THREADS, IO_THREADS,
+                IO_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), namedThreads("sintesis-io"));
+        // Let idle threads exit so the pool costs nothing while the app is in the background
+        io.allowCoreThreadTimeOut(true);
+        IO = io;
+
+        ThreadPoolExecutor disk = new ThreadPoolExecutor(1, 1,
+                IO_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), namedThreads("sintesis-disk"));
+        disk.allowCoreThreadTimeOut(true);
+        DISK = disk;
+
+        ThreadPoolExecutor computation = new ThreadPoolExecutor(1, 1,
+                IO_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), namedThreads("sintesis-compute"));
+        computation.allowCoreThreadTimeOut(true);
+        COMPUTATION = computation;
+
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, namedThreads("sintesis-scheduler"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        SCHEDULER = scheduler;
+    }
+
+    private AppExecutors() {
+        // Static holder
+    }
+
+    public static ExecutorService io() {
+        return IO;
+    }
+
+    public static ExecutorService disk() {
+        return DISK;
+    }
+
+    public static ExecutorService computation() {
+        return COMPUTATION;
+    }
+
+    public static ScheduledExecutorService scheduler() {
+        return SCHEDULER;
+    }
+
+    public static Executor mainThread() {
+        return MAIN_THREAD;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, prefix + "-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
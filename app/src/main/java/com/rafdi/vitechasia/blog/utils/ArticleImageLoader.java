@@ -0,0 +1,166 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.load.resource.drawable.DrawableTransitionOptions;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+import com.rafdi.vitechasia.blog.R;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Loads article images with Glide, sized for where they are shown.
+ *
+ * <p>Card images are decoded at the size of their ImageView with an explicit center crop, after
+ * a quarter-size RGB_565 thumbnail when the source is already cached. Only the downloaded source is kept on disk, and
+ * every size is decoded from it. Because the card request has no view-dependent options, list
+ * preloading ({@link #cardRequest}) produces the same memory cache entries as binding. The size
+ * each image was last shown at as a card is remembered, so the detail hero can show the cached
+ * card bitmap right away while the full-size image loads.
+ */
+public final class ArticleImageLoader {
+    private static final int PLACEHOLDER = R.drawable.ic_placeholder_image;
+    private static final int ERROR = R.drawable.error_image;
+    private static final float THUMBNAIL_SIZE_MULTIPLIER = 0.25f;
+    private static final int MAX_REMEMBERED_CARD_SIZES = 200;
+
+    // Image url -> {width, height} of the card it was last shown in
+    private static final LruCache<String, int[]> cardSizes = new LruCache<>(MAX_REMEMBERED_CARD_SIZES);
+
+    private ArticleImageLoader() {
+        // Static utility
+    }
+
+    /**
+     * Loads an image into an article card, or the placeholder if there is none.
+     */
+    public static void loadCard(@NonNull ImageView imageView, @Nullable String imageUrl) {
+        RequestManager glide = Glide.with(imageView);
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            glide.load(PLACEHOLDER).into(imageView);
+            return;
+        }
+        cardRequest(glide, imageUrl)
+                .thumbnail(cardRequest(glide, imageUrl)
+                        .sizeMultiplier(THUMBNAIL_SIZE_MULTIPLIER)
+                        // Half the memory of ARGB_8888 where hardware bitmaps can't be used
+                        .format(DecodeFormat.PREFER_RGB_565)
+                        // Only a quick decode of an image already on disk; otherwise it would
+                        // start a second download of the same URL
+                        .onlyRetrieveFromCache(true))
+                .transition(DrawableTransitionOptions.withCrossFade())
+                .listener(new RememberCardSize(imageUrl))
+                .into(imageView);
+    }
+
+    /**
+     * Loads the full-size hero image of the article detail screen. If the image was shown as a
+     * card, the card bitmap is used as the placeholder.
+     */
+    public static void loadHero(@NonNull ImageView imageView, @Nullable String imageUrl) {
+        RequestManager glide = Glide.with(imageView);
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            glide.load(PLACEHOLDER).into(imageView);
+            return;
+        }
+        RequestBuilder<Drawable> request = glide.load(imageUrl)
+                .placeholder(PLACEHOLDER)
+                .error(PLACEHOLDER)
+                .diskCacheStrategy(DiskCacheStrategy.DATA);
+        int[] cardSize = cardSizes.get(imageUrl);
+        if (cardSize != null) {
+            // Same model, size and transformation as the card, so this hits the memory cache
+            request = request.thumbnail(cardRequest(glide, imageUrl)
+                    .override(cardSize[0], cardSize[1])
+                    .onlyRetrieveFromCache(true));
+        }
+        request.into(imageView);
+    }
+
+    /**
+     * The request for a card image, without the target size. Shared by binding and preloading
+     * so both produce the same cache keys.
+     */
+    public static RequestBuilder<Drawable> cardRequest(@NonNull RequestManager glide, @NonNull String imageUrl) {
+        return glide.load(imageUrl)
+                .placeholder(PLACEHOLDER)
+                .error(ERROR)
+                // Set explicitly so the key doesn't depend on the ImageView's scale type
+                .centerCrop()
+                .diskCacheStrategy(DiskCacheStrategy.DATA);
+    }
+
+    /**
+     * Creates the model provider for preloading the card images of a list.
+     *
+     * @param glide    The request manager of the list's screen
+     * @param articles Returns the article shown at a position, or null
+     */
+    public static ListPreloader.PreloadModelProvider<String> cardPreloadProvider(
+            @NonNull RequestManager glide, @NonNull ArticleAtPosition articles) {
+        return new ListPreloader.PreloadModelProvider<String>() {
+            @NonNull
+            @Override
+            public List<String> getPreloadItems(int position) {
+                String imageUrl = articles.getImageUrl(position);
+                return imageUrl == null || imageUrl.isEmpty()
+                        ? Collections.emptyList()
+                        : Collections.singletonList(imageUrl);
+            }
+
+            @Nullable
+            @Override
+            public RequestBuilder<?> getPreloadRequestBuilder(@NonNull String imageUrl) {
+                return cardRequest(glide, imageUrl);
+            }
+        };
+    }
+
+    /**
+     * Looks up the image of the article shown at a list position.
+     */
+    public interface ArticleAtPosition {
+        @Nullable
+        String getImageUrl(int position);
+    }
+
+    /**
+     * Records the size a card image was decoded at once it is shown.
+     */
+    private static final class RememberCardSize implements RequestListener<Drawable> {
+        private final String imageUrl;
+
+        RememberCardSize(String imageUrl) {
+            this.imageUrl = imageUrl;
+        }
+
+        @Override
+        public boolean onLoadFailed(@Nullable GlideException e, @Nullable Object model,
+                                    @NonNull Target<Drawable> target, boolean isFirstResource) {
+            return false;
+        }
+
+        @Override
+        public boolean onResourceReady(@NonNull Drawable resource, @NonNull Object model,
+                                       Target<Drawable> target, @NonNull DataSource dataSource,
+                                       boolean isFirstResource) {
+            target.getSize((width, height) -> cardSizes.put(imageUrl, new int[]{width, height}));
+            return false;
+        }
+    }
+}
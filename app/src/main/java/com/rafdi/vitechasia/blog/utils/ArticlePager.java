@@ -0,0 +1,259 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.rafdi.vitechasia.blog.api.PocketBaseResponse;
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Paging data source for vertical article lists.
+ *
+ * <p>Pages are requested from a {@link PageSource} one at a time as the attached RecyclerView
+ * scrolls: the next page is fetched once the last visible item is within the prefetch distance
+ * of the end, and a dropped earlier page is fetched again when scrolling back up. Only a
+ * bounded window of pages is kept in memory; pages furthest from the scroll direction are
+ * dropped first.
+ *
+ * <p>Must be used from the main thread.
+ */
+public class ArticlePager {
+
+    /**
+     * Loads one page of articles, e.g. through one of the DataHandler page loaders. The request
+     * is cancelled when the pager no longer needs the page.
+     */
+    public interface PageSource {
+        void loadPage(int page, int perPage, DataRequest request, DataHandler.PageListener listener);
+    }
+
+    /**
+     * Receives the articles currently held by the pager.
+     */
+    public interface Listener {
+        void onArticlesChanged(List<Article> articles);
+
+        void onLoadingChanged(boolean loading);
+
+        void onError(String message);
+    }
+
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int DEFAULT_PREFETCH_DISTANCE = 5;
+    public static final int DEFAULT_MAX_PAGES = 5;
+
+    private final PageSource source;
+    private final Listener listener;
+    private final int pageSize;
+    private final int prefetchDistance;
+    private final int maxPages;
+
+    private final TreeMap<Integer, List<Article>> pages = new TreeMap<>();
+    private int totalPages = -1;
+    private boolean endReached = false;
+    private boolean loading = false;
+    // Incremented on refresh so responses for an earlier list are dropped
+    private int generation = 0;
+    private DataRequest pageRequest;
+
+    private RecyclerView recyclerView;
+    private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+            checkPrefetch();
+        }
+    };
+
+    public ArticlePager(PageSource source, Listener listener) {
+        this(source, listener, DEFAULT_PAGE_SIZE, DEFAULT_PREFETCH_DISTANCE, DEFAULT_MAX_PAGES);
+    }
+
+    /**
+     * @param source           Loads individual pages
+     * @param listener         Receives the articles in the current window
+     * @param pageSize         Number of articles per page
+     * @param prefetchDistance Number of items from either end of the window at which the
+     *                         adjacent page is requested
+     * @param maxPages         Maximum number of pages held in memory, at least 2
+     */
+    public ArticlePager(PageSource source, Listener listener, int pageSize, int prefetchDistance, int maxPages) {
+        this.source = source;
+        this.listener = listener;
+        this.pageSize = Math.max(1, pageSize);
+        this.prefetchDistance = Math.max(0, prefetchDistance);
+        this.maxPages = Math.max(2, maxPages);
+    }
+
+    /**
+     * Starts loading pages as the given RecyclerView scrolls.
+     * The RecyclerView must use a {@link LinearLayoutManager}.
+     */
+    public void attach(RecyclerView recyclerView) {
+        detach();
+        this.recyclerView = recyclerView;
+        recyclerView.addOnScrollListener(scrollListener);
+    }
+
+    /**
+     * Stops observing the RecyclerView and cancels the page request that is still in flight.
+     */
+    public void detach() {
+        if (recyclerView != null) {
+            recyclerView.removeOnScrollListener(scrollListener);
+            recyclerView = null;
+        }
+        cancelPageRequest();
+        loading = false;
+    }
+
+    /**
+     * Discards all pages and loads the list again from the first page.
+     */
+    public void refresh() {
+        cancelPageRequest();
+        pages.clear();
+        totalPages = -1;
+        endReached = false;
+        loading = false;
+        loadPage(1, true);
+    }
+
+    /**
+     * Returns a copy of the articles in the current window. An article that moved to an
+     * adjacent page between two requests, e.g. because its view count changed, is only kept
+     * where it appears first.
+     */
+    public List<Article> getArticles() {
+        List<Article> articles = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (List<Article> page : pages.values()) {
+            for (Article article : page) {
+                if (article.getId() == null || seen.add(article.getId())) {
+                    articles.add(article);
+                }
+            }
+        }
+        return articles;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    private boolean hasNextPage() {
+        if (pages.isEmpty()) return true;
+        if (totalPages > 0) return pages.lastKey() < totalPages;
+        return !endReached;
+    }
+
+    private void checkPrefetch() {
+        if (recyclerView == null) return;
+        if (!(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) return;
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        onVisibleRangeChanged(layoutManager.findFirstVisibleItemPosition(),
+                layoutManager.findLastVisibleItemPosition(), layoutManager.getItemCount());
+    }
+
+    /**
+     * Requests the adjacent page when the visible range is within the prefetch distance of
+     * either end of the window.
+     *
+     * <p>A page is only requested towards one end while the other end is out of reach, except
+     * that the window keeps growing downwards until its first page has been dropped. A list
+     * that shows every item at once therefore stops after one trim instead of dropping and
+     * reloading its ends in turn.
+     */
+    void onVisibleRangeChanged(int firstVisible, int lastVisible, int itemCount) {
+        if (loading || pages.isEmpty() || firstVisible == RecyclerView.NO_POSITION) return;
+
+        boolean nearEnd = lastVisible >= itemCount - 1 - prefetchDistance;
+        boolean nearStart = firstVisible <= prefetchDistance;
+        boolean headDropped = pages.firstKey() > 1;
+
+        if (nearEnd && hasNextPage() && (!nearStart || !headDropped)) {
+            loadPage(pages.lastKey() + 1, true);
+        } else if (nearStart && headDropped && !nearEnd) {
+            loadPage(pages.firstKey() - 1, false);
+        }
+    }
+
+    /**
+     * Cancels the page request in flight, along with its retries, and drops its response in
+     * case the source delivers it anyway.
+     */
+    private void cancelPageRequest() {
+        generation++;
+        if (pageRequest != null) {
+            pageRequest.cancel();
+            pageRequest = null;
+        }
+    }
+
+    private void loadPage(int page, boolean forward) {
+        loading = true;
+        listener.onLoadingChanged(true);
+        final int requestGeneration = generation;
+        pageRequest = DataRequest.create();
+        source.loadPage(page, pageSize, pageRequest, new DataHandler.PageListener() {
+            @Override
+            public void onPageLoaded(PocketBaseResponse<Article> response) {
+                if (requestGeneration != generation) return;
+                pageRequest = null;
+                loading = false;
+                listener.onLoadingChanged(false);
+
+                List<Article> items = response.getItems();
+                if (response.getTotalPages() > 0) {
+                    totalPages = response.getTotalPages();
+                }
+                if (forward && items.size() < pageSize) {
+                    endReached = true;
+                }
+                if (!items.isEmpty() || pages.isEmpty()) {
+                    pages.put(page, items);
+                }
+                trimWindow(forward);
+                listener.onArticlesChanged(getArticles());
+
+                // The new page may not fill the screen yet; check again once it is laid out
+                if (recyclerView != null) {
+                    recyclerView.post(ArticlePager.this::checkPrefetch);
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                if (requestGeneration != generation) return;
+                pageRequest = null;
+                loading = false;
+                listener.onLoadingChanged(false);
+                listener.onError(message);
+            }
+        });
+    }
+
+    /**
+     * Drops pages at the far end of the window until it fits within {@code maxPages}.
+     * Items removed above the visible area are dispatched as range removals by the adapter's
+     * DiffUtil, so the RecyclerView keeps its scroll anchor.
+     */
+    private void trimWindow(boolean forward) {
+        while (pages.size() > maxPages) {
+            if (forward) {
+                pages.pollFirstEntry();
+            } else {
+                pages.pollLastEntry();
+                // The tail was dropped, so it has to be fetched again when scrolling down
+                endReached = false;
+            }
+        }
+    }
+}
@@ -2,25 +2,74 @@ package com.rafdi.vitechasia.blog.utils;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 
+import androidx.annotation.MainThread;
+
+import com.rafdi.vitechasia.blog.database.AppDatabase;
+import com.rafdi.vitechasia.blog.database.BookmarkDao;
+import com.rafdi.vitechasia.blog.database.BookmarkEntity;
 import com.rafdi.vitechasia.blog.models.Article;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Singleton utility class for managing article bookmarks.
- * Handles bookmark persistence using SharedPreferences.
+ *
+ * <p>Bookmarks are held in memory as an ordered map from article id to the time it was
+ * bookmarked, loaded once from the {@code bookmarks} Room table on a background thread.
+ * Lookups never touch storage; changes update the map right away, are written to Room in
+ * the background and are reported to registered {@link BookmarkListener}s, so screens can
+ * update the affected item instead of re-syncing every article. Bookmarks stored in
+ * SharedPreferences by earlier versions are imported once.
  */
 public class BookmarkManager {
+    private static final String TAG = "BookmarkManager";
     private static final String PREF_NAME = "BookmarkPreferences";
     private static final String KEY_BOOKMARKS = "bookmarked_article_ids";
     private static BookmarkManager instance;
-    private SharedPreferences preferences;
+
+    /**
+     * Receives bookmark changes on the main thread.
+     */
+    public interface BookmarkListener {
+        void onBookmarkChanged(String articleId, boolean bookmarked);
+
+        /**
+         * Called once the stored bookmarks have been loaded. Lookups made before may have
+         * missed bookmarks.
+         */
+        default void onBookmarksLoaded() {
+        }
+    }
+
+    private final Context context;
+    private final BookmarkDao dao;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<BookmarkListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Article id -> bookmarked at, in bookmark order; guarded by this
+    private final LinkedHashMap<String, Long> bookmarks = new LinkedHashMap<>();
+    // Ids toggled before loading finished, whose in-memory state wins over storage; guarded by this
+    private final Set<String> toggledBeforeLoad = new HashSet<>();
+    private volatile boolean loaded = false;
+
+    // Serializes writes; each write stores the latest in-memory state of its article
+    private final Object writeLock = new Object();
 
     private BookmarkManager(Context context) {
-        preferences = context.getApplicationContext().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        this.context = context.getApplicationContext();
+        this.dao = AppDatabase.getInstance(this.context).bookmarkDao();
+        AppExecutors.io().execute(this::load);
     }
 
     public static synchronized BookmarkManager getInstance(Context context) {
@@ -30,34 +79,61 @@ public class BookmarkManager {
         return instance;
     }
 
-    public boolean isBookmarked(String articleId) {
-        Set<String> bookmarks = preferences.getStringSet(KEY_BOOKMARKS, new HashSet<>());
-        return bookmarks.contains(articleId);
+    public synchronized boolean isBookmarked(String articleId) {
+        return articleId != null && bookmarks.containsKey(articleId);
     }
 
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Returns the ids of all bookmarked articles, most recently bookmarked first.
+     */
+    public synchronized List<String> getBookmarkedIds() {
+        List<String> ids = new ArrayList<>(bookmarks.keySet());
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    public synchronized int getBookmarkCount() {
+        return bookmarks.size();
+    }
+
+    @MainThread
     public void toggleBookmark(Article article) {
         if (article == null || article.getId() == null) return;
-        
-        Set<String> bookmarks = new HashSet<>(preferences.getStringSet(KEY_BOOKMARKS, new HashSet<>()));
-        
-        if (bookmarks.contains(article.getId())) {
-            bookmarks.remove(article.getId());
-            article.setBookmarked(false);
-        } else {
-            bookmarks.add(article.getId());
-            article.setBookmarked(true);
+
+        String articleId = article.getId();
+        Long bookmarkedAt;
+        synchronized (this) {
+            if (bookmarks.remove(articleId) != null) {
+                bookmarkedAt = null;
+            } else {
+                bookmarkedAt = System.currentTimeMillis();
+                bookmarks.put(articleId, bookmarkedAt);
+            }
+            if (!loaded) {
+                toggledBeforeLoad.add(articleId);
+            }
+        }
+        boolean bookmarked = bookmarkedAt != null;
+        article.setBookmarked(bookmarked);
+
+        AppExecutors.io().execute(() -> write(articleId));
+        for (BookmarkListener listener : listeners) {
+            listener.onBookmarkChanged(articleId, bookmarked);
         }
-        
-        preferences.edit().putStringSet(KEY_BOOKMARKS, bookmarks).apply();
     }
 
     public void syncArticleBookmarkStatus(List<Article> articles) {
         if (articles == null) return;
-        
-        Set<String> bookmarks = preferences.getStringSet(KEY_BOOKMARKS, new HashSet<>());
-        for (Article article : articles) {
-            if (article.getId() != null) {
-                article.setBookmarked(bookmarks.contains(article.getId()));
+
+        synchronized (this) {
+            for (Article article : articles) {
+                if (article.getId() != null) {
+                    article.setBookmarked(bookmarks.containsKey(article.getId()));
+                }
             }
         }
     }
@@ -66,4 +142,99 @@ public class BookmarkManager {
         if (article == null || article.getId() == null) return;
         article.setBookmarked(isBookmarked(article.getId()));
     }
+
+    @MainThread
+    public void addListener(BookmarkListener listener) {
+        listeners.add(listener);
+    }
+
+    @MainThread
+    public void removeListener(BookmarkListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Writes the current state of one bookmark. Runs on the I/O pool.
+     */
+    private void write(String articleId) {
+        synchronized (writeLock) {
+            Long bookmarkedAt;
+            synchronized (this) {
+                bookmarkedAt = bookmarks.get(articleId);
+            }
+            try {
+                if (bookmarkedAt != null) {
+                    dao.insert(new BookmarkEntity(articleId, bookmarkedAt));
+                } else {
+                    dao.delete(articleId);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to write bookmark " + articleId, e);
+            }
+        }
+    }
+
+    /**
+     * Loads the stored bookmarks into memory, importing the legacy preferences on first run.
+     * Bookmarks toggled before loading finished keep their new state, whether or not their
+     * writes have run yet. Holds the write lock, so no write lands between reading and merging.
+     */
+    private void load() {
+        synchronized (writeLock) {
+            List<BookmarkEntity> stored;
+            try {
+                stored = importLegacyPreferences(dao.getAll());
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to load bookmarks", e);
+                stored = new ArrayList<>();
+            }
+
+            synchronized (this) {
+                // Until now the map only held the early toggles that added a bookmark
+                Map<String, Long> addedEarly = new LinkedHashMap<>(bookmarks);
+                bookmarks.clear();
+                for (BookmarkEntity bookmark : stored) {
+                    if (!toggledBeforeLoad.contains(bookmark.articleId)) {
+                        bookmarks.put(bookmark.articleId, bookmark.bookmarkedAt);
+                    }
+                }
+                bookmarks.putAll(addedEarly);
+                toggledBeforeLoad.clear();
+                loaded = true;
+            }
+        }
+        mainHandler.post(() -> {
+            for (BookmarkListener listener : listeners) {
+                listener.onBookmarksLoaded();
+            }
+        });
+    }
+
+    /**
+     * Moves bookmarks from the old SharedPreferences string set into Room and clears it.
+     * The set has no order or timestamps, so imported bookmarks sort before newer ones.
+     *
+     * @return The stored rows including the imported ones, oldest first
+     */
+    private List<BookmarkEntity> importLegacyPreferences(List<BookmarkEntity> stored) {
+        SharedPreferences preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        Set<String> legacy = preferences.getStringSet(KEY_BOOKMARKS, null);
+        if (legacy == null || legacy.isEmpty()) {
+            return stored;
+        }
+
+        Map<String, BookmarkEntity> merged = new LinkedHashMap<>();
+        for (String articleId : legacy) {
+            merged.put(articleId, new BookmarkEntity(articleId, 0L));
+        }
+        for (BookmarkEntity bookmark : stored) {
+            // Rows already in Room keep their timestamp
+            merged.remove(bookmark.articleId);
+            merged.put(bookmark.articleId, bookmark);
+        }
+        dao.insertAll(new ArrayList<>(merged.values()));
+        // Only cleared once the rows are safely in Room
+        preferences.edit().remove(KEY_BOOKMARKS).commit();
+        return new ArrayList<>(merged.values());
+    }
 }
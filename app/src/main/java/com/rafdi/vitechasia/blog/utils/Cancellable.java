@@ -0,0 +1,11 @@
+package com.rafdi.vitechasia.blog.utils;
+
+/**
+ * Handle to an asynchronous operation that can be cancelled.
+ * Cancelling is idempotent and safe to call from any thread.
+ */
+public interface Cancellable {
+    void cancel();
+
+    boolean isCancelled();
+}
@@ -1,29 +1,47 @@
 package com.rafdi.vitechasia.blog.utils;
 
-import android.app.Application;
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 
-import androidx.lifecycle.LiveData;
-import androidx.lifecycle.Observer;
 
+import com.rafdi.vitechasia.blog.api.PocketBaseQuery;
+import com.rafdi.vitechasia.blog.api.PocketBaseResponse;
+import com.rafdi.vitechasia.blog.database.AppDatabase;
+import com.rafdi.vitechasia.blog.database.ArticleDao;
+import com.rafdi.vitechasia.blog.database.ArticleEntity;
+import com.rafdi.vitechasia.blog.database.ReadingProgressEntity;
 import com.rafdi.vitechasia.blog.models.Article;
 import com.rafdi.vitechasia.blog.models.Category;
-import com.rafdi.vitechasia.blog.viewmodel.ArticleViewModel;
+import com.rafdi.vitechasia.blog.models.SearchFilters;
+import com.rafdi.vitechasia.blog.repository.ArticleIndex;
+import com.rafdi.vitechasia.blog.repository.ArticleRepository;
+import com.rafdi.vitechasia.blog.repository.ArticleSearchIndex;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Utility class for managing article data.
  * Tries to fetch data from the API first, falls back to dummy data if needed.
  */
 public class DataHandler {
+    private static final String TAG = "DataHandler";
     private static volatile DataHandler instance;
-    private ArticleViewModel articleViewModel;
-    private boolean isViewModelInitialized = false;
+    private ArticleRepository repository;
 
     /**
      * Interface for receiving data load callbacks
@@ -34,6 +52,25 @@ public class DataHandler {
         void onError(String message);
     }
 
+    /**
+     * Interface for receiving one page of a paged list
+     */
+    public interface PageListener {
+        void onPageLoaded(PocketBaseResponse<Article> page);
+
+        void onError(String message);
+    }
+
+    /**
+     * Interface for receiving the preview articles of each subcategory of a category
+     */
+    public interface SubcategoryPreviewListener {
+        /**
+         * @param previews Subcategory -> its preview articles, in the category's subcategory order
+         */
+        void onPreviewsLoaded(Map<String, List<Article>> previews);
+    }
+
     /**
      * Interface for receiving single article callbacks
      */
@@ -58,9 +95,8 @@ public class DataHandler {
             synchronized (DataHandler.class) {
                 if (instance == null) {
                     instance = new DataHandler();
-                    if (context != null && context.getApplicationContext() instanceof Application) {
-                        instance.articleViewModel = new ArticleViewModel((Application) context.getApplicationContext());
-                        instance.isViewModelInitialized = true;
+                    if (context != null) {
+                        instance.repository = ArticleRepository.getInstance(context);
                     }
                 }
             }
@@ -81,6 +117,16 @@ public class DataHandler {
         return instance;
     }
 
+    /**
+     * Makes the next loads fetch fresh data instead of reusing recent API responses.
+     * Call this before reloading a screen on pull-to-refresh.
+     */
+    public void invalidate() {
+        if (repository != null) {
+            repository.invalidate();
+        }
+    }
+
     private static final String LOREM_IPSUM = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. " +
             "Sed do eiusmod tempor incididunt ut labore et dolore magna aliqua. " +
             "Ut enim ad minim veniam, quis nostrud exercitation ullamco laboris.";
@@ -113,35 +159,113 @@ public class DataHandler {
     public static final String SUBCATEGORY_POLITICS = "politics";
     public static final String SUBCATEGORY_ECONOMY = "economy";
 
-    private static List<Article> allArticles = null;
+    // Articles received from the server; replaced atomically whenever new data arrives
+    private static final AtomicReference<ArticleIndex> articleIndex =
+            new AtomicReference<>(ArticleIndex.build(Collections.emptyList(), 1));
+    // The dummy catalog, built on first use. Versioned below every server snapshot so the
+    // search index never mistakes one for the other.
+    private static volatile ArticleIndex dummyIndex;
+    // Full-text index over the same snapshot; only touched from searchExecutor
+    private static final ArticleSearchIndex searchIndex = new ArticleSearchIndex();
+    // Serial, so a task queued after a merge sees the merged articles
+    private static final ExecutorService searchExecutor = AppExecutors.disk();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Articles requested for a category page; enough to fill the preview of each subcategory
+    private static final int SUBCATEGORY_PREVIEW_SOURCE_LIMIT = 100;
+    // Server matches ranked by relevance; one id-only request
+    private static final int RELEVANCE_CANDIDATE_LIMIT = 500;
     private boolean isLoading = false;
     private DataLoadListener dataLoadListener;
 
     /**
-     * Get all bookmarked articles, synced with BookmarkManager
+     * Get all bookmarked articles known to the article index, most recently bookmarked first.
+     * Looks up each bookmark by id instead of checking the whole catalog.
      */
     public static List<Article> getBookmarkedArticles(android.content.Context context) {
-        List<Article> allArticles = getDummyArticles();
-        BookmarkManager bookmarkManager = BookmarkManager.getInstance(context);
-        bookmarkManager.syncArticleBookmarkStatus(allArticles);
-
+        ArticleIndex index = getArticleIndex();
         List<Article> bookmarked = new ArrayList<>();
-        for (Article article : allArticles) {
-            if (article.isBookmarked()) {
-                bookmarked.add(article);
+        for (String id : BookmarkManager.getInstance(context).getBookmarkedIds()) {
+            Article article = index.getById(id);
+            if (article != null) {
+                // Index articles are shared, so the flag is set on a copy
+                Article copy = article.copy();
+                copy.setBookmarked(true);
+                bookmarked.add(copy);
             }
         }
         return bookmarked;
     }
 
     /**
-     * Get all dummy articles. The list is cached after first creation.
+     * Get all articles of the current index: the server's, or the dummy catalog while none have
+     * been received. The list is an unmodifiable view of the index snapshot.
      */
     public static List<Article> getDummyArticles() {
-        if (allArticles == null) {
-            allArticles = generateDummyArticles();
+        return getArticleIndex().getAll();
+    }
+
+    /**
+     * Returns the index of the articles received from the server, or the dummy catalog while
+     * none have been received. The two are never mixed, so dummy articles only show offline.
+     */
+    public static ArticleIndex getArticleIndex() {
+        ArticleIndex index = articleIndex.get();
+        return index.size() > 0 ? index : getDummyIndex();
+    }
+
+    private static ArticleIndex getDummyIndex() {
+        ArticleIndex index = dummyIndex;
+        if (index == null) {
+            synchronized (DataHandler.class) {
+                index = dummyIndex;
+                if (index == null) {
+                    index = ArticleIndex.build(generateDummyArticles(), 0);
+                    dummyIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Replaces the index with a full catalog snapshot delivered by the repository.
+     */
+    private static void replaceArticleIndex(List<Article> articles) {
+        articleIndex.updateAndGet(current -> ArticleIndex.build(articles, current.getVersion() + 1));
+        searchExecutor.execute(DataHandler::syncSearchIndex);
+    }
+
+    /**
+     * Merges a partial result delivered by the repository into the index.
+     */
+    private static void mergeIntoArticleIndex(List<Article> articles) {
+        ArticleIndex index = articleIndex.updateAndGet(current -> current.withArticles(articles));
+        searchExecutor.execute(() -> {
+            if (searchIndex.getVersion() == index.getVersion() - 1) {
+                // The indexed instances, which keep content the summaries don't carry
+                List<Article> indexed = new ArrayList<>(articles.size());
+                for (Article article : articles) {
+                    Article entry = index.getById(article.getId());
+                    if (entry != null) {
+                        indexed.add(entry);
+                    }
+                }
+                searchIndex.update(indexed, index.getVersion());
+            } else {
+                syncSearchIndex();
+            }
+        });
+    }
+
+    /**
+     * Brings the search index up to date with the current article index.
+     * Must run on searchExecutor.
+     */
+    private static void syncSearchIndex() {
+        ArticleIndex index = getArticleIndex();
+        if (searchIndex.getVersion() != index.getVersion()) {
+            searchIndex.rebuild(index.getAll(), index.getVersion());
         }
-        return new ArrayList<>(allArticles); // Return a copy to prevent modification of cached list
     }
 
     /**
@@ -151,52 +275,258 @@ public class DataHandler {
      * @param callback     Callback to receive the results asynchronously
      */
     public void getArticlesBySubcategory(String subcategoryId, DataLoadListener callback) {
-        if (!isViewModelInitialized) {
-            // Fall back to dummy data if ViewModel isn't initialized
-            List<Article> dummyArticles = getDummyArticlesBySubcategory(subcategoryId);
+        getArticlesBySubcategory(subcategoryId, null, callback);
+    }
+
+    /**
+     * Get articles filtered by subcategory ID, trying the API first and falling back to dummy data
+     *
+     * @param subcategoryId The subcategory ID to filter by
+     * @param request      Cancels delivery when the caller goes away, may be null
+     * @param callback     Callback to receive the results asynchronously
+     */
+    public void getArticlesBySubcategory(String subcategoryId, DataRequest request, DataLoadListener callback) {
+        // The repository's category filter matches both categories and subcategories
+        loadArticles(subcategoryId, 20, request, callback, false,
+                () -> getDummyArticlesBySubcategory(subcategoryId));
+    }
+
+    /**
+     * Loads the first page of a list from the repository and delivers it to the callback of
+     * this request only. Falls back to local data when the API fails or returns nothing.
+     *
+     * @param category     The category filter, or null for all articles
+     * @param limit        The maximum number of articles
+     * @param request      Cancels delivery when the caller goes away, may be null
+     * @param callback     Callback to receive the results
+     * @param replaceIndex Whether the result is a full catalog snapshot rather than a partial result
+     * @param fallback     Supplies local articles when the API can't be used
+     */
+    private void loadArticles(String category, int limit, DataRequest request, DataLoadListener callback,
+                              boolean replaceIndex, LocalArticles fallback) {
+        if (repository == null) {
+            // Fall back to dummy data if DataHandler was initialized without a context
             if (callback != null) {
-                callback.onDataLoaded(dummyArticles);
+                callback.onDataLoaded(fallback.get());
             }
             return;
         }
 
-        // Try to get data from the API first using the subcategory as a category filter
-        articleViewModel.loadArticles(subcategoryId, 1, 20); // Default page 1, 20 items per page
-        articleViewModel.getArticlesLiveData().observeForever(new Observer<List<Article>>() {
+        DataRequest.Attachment attachment = DataRequest.attach(request);
+        attachment.set(repository.getArticles(category, 1, limit,
+                deliverTo(request, attachment, callback, replaceIndex, fallback)));
+    }
+
+    /**
+     * Adapts a repository callback to a listener: publishes the articles to the index and
+     * delivers them unless the request was cancelled, and falls back to local data when the
+     * API fails or returns nothing. The attachment is removed from the request on the first
+     * delivery; pass null for work that may deliver more than once.
+     */
+    private ArticleRepository.ArticleCallback deliverTo(DataRequest request, DataRequest.Attachment attachment,
+                                                        DataLoadListener callback, boolean replaceIndex,
+                                                        LocalArticles fallback) {
+        return new ArticleRepository.ArticleCallback() {
             @Override
-            public void onChanged(List<Article> articles) {
-                if (articles != null && !articles.isEmpty()) {
-                    if (callback != null) {
-                        callback.onDataLoaded(articles);
-                    }
-                    articleViewModel.getArticlesLiveData().removeObserver(this);
-                } else {
+            public void onSuccess(List<Article> articles) {
+                if (attachment != null) attachment.done();
+                if (DataRequest.isCancelled(request)) return;
+                if (articles == null || articles.isEmpty()) {
                     // Fall back to dummy data if API returns empty
-                    List<Article> dummyArticles = getDummyArticlesBySubcategory(subcategoryId);
                     if (callback != null) {
-                        callback.onDataLoaded(dummyArticles);
+                        callback.onDataLoaded(fallback.get());
                     }
-                    articleViewModel.getArticlesLiveData().removeObserver(this);
+                    return;
+                }
+                if (replaceIndex) {
+                    replaceArticleIndex(articles);
+                } else {
+                    mergeIntoArticleIndex(articles);
+                }
+                if (callback != null) {
+                    callback.onDataLoaded(articles);
                 }
             }
-        });
 
-        // Set up error handling
-        articleViewModel.getErrorLiveData().observeForever(new Observer<String>() {
             @Override
-            public void onChanged(String error) {
-                if (error != null) {
-                    // On error, fall back to dummy data
-                    List<Article> dummyArticles = getDummyArticlesBySubcategory(subcategoryId);
-                    if (callback != null) {
-                        callback.onDataLoaded(dummyArticles);
+            public void onError(String message) {
+                if (attachment != null) attachment.done();
+                if (DataRequest.isCancelled(request)) return;
+                // On error, fall back to dummy data
+                if (callback != null) {
+                    callback.onDataLoaded(fallback.get());
+                }
+            }
+        };
+    }
+
+    /**
+     * Loads the newest articles of each subcategory of a category with a single request for the
+     * whole category, grouped on a background thread. Subcategories that have too few articles
+     * among the newest of the category are filled with one follow-up request for just those
+     * subcategories. Falls back to the local index when the API fails or returns nothing.
+     *
+     * @param category       The category whose subcategories to preview
+     * @param perSubcategory The maximum number of articles per subcategory
+     * @param request        Cancels delivery when the caller goes away, may be null
+     * @param listener       Listener to receive the previews on the main thread
+     */
+    public void getSubcategoryPreviews(Category category, int perSubcategory, DataRequest request,
+                                       SubcategoryPreviewListener listener) {
+        List<String> subcategories = new ArrayList<>(category.getSubcategories());
+        String categoryId = category.getId();
+        if (repository == null) {
+            deliverSubcategoryPreviews(subcategories, getDummyArticlesByCategory(categoryId),
+                    perSubcategory, request, listener);
+            return;
+        }
+
+        PocketBaseQuery query = new PocketBaseQuery()
+                .inCategory(categoryId)
+                .sortBy(PocketBaseQuery.sortFor(SearchFilters.SortBy.DATE_NEWEST))
+                .summary();
+        DataRequest.Attachment attachment = DataRequest.attach(request);
+        attachment.set(repository.getArticlesPage(query, 1, SUBCATEGORY_PREVIEW_SOURCE_LIMIT,
+                new ArticleRepository.PageCallback() {
+                    @Override
+                    public void onSuccess(PocketBaseResponse<Article> page) {
+                        attachment.done();
+                        if (DataRequest.isCancelled(request)) return;
+                        List<Article> articles = page.getItems();
+                        if (articles.isEmpty()) {
+                            deliverSubcategoryPreviews(subcategories, getDummyArticlesByCategory(categoryId),
+                                    perSubcategory, request, listener);
+                            return;
+                        }
+                        mergeIntoArticleIndex(articles);
+                        if (articles.size() < SUBCATEGORY_PREVIEW_SOURCE_LIMIT) {
+                            // The page holds the whole category, so short subcategories have no more
+                            deliverSubcategoryPreviews(subcategories, articles, perSubcategory, request, listener);
+                        } else {
+                            fillShortSubcategories(categoryId, subcategories, articles, perSubcategory,
+                                    request, listener);
+                        }
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        attachment.done();
+                        if (DataRequest.isCancelled(request)) return;
+                        Log.w(TAG, "Failed to load subcategory previews, using local data: " + message);
+                        deliverSubcategoryPreviews(subcategories, getDummyArticlesByCategory(categoryId),
+                                perSubcategory, request, listener);
                     }
-                    articleViewModel.getErrorLiveData().removeObserver(this);
+                }));
+    }
+
+    /**
+     * Groups the articles by subcategory on a background thread and requests more articles for
+     * the subcategories that got fewer than {@code perSubcategory}. Delivers the previews from
+     * the first articles alone when nothing is missing or the follow-up request fails.
+     */
+    private void fillShortSubcategories(String categoryId, List<String> subcategories, List<Article> articles,
+                                        int perSubcategory, DataRequest request,
+                                        SubcategoryPreviewListener listener) {
+        AppExecutors.computation().execute(() -> {
+            Map<String, List<Article>> previews = groupBySubcategory(subcategories, articles, perSubcategory);
+            List<String> shortSubcategories = new ArrayList<>();
+            for (Map.Entry<String, List<Article>> entry : previews.entrySet()) {
+                if (entry.getValue().size() < perSubcategory) {
+                    shortSubcategories.add(entry.getKey());
                 }
             }
+            mainHandler.post(() -> {
+                if (DataRequest.isCancelled(request)) return;
+                if (shortSubcategories.isEmpty()) {
+                    listener.onPreviewsLoaded(previews);
+                    return;
+                }
+
+                PocketBaseQuery query = new PocketBaseQuery()
+                        .inCategory(categoryId)
+                        .inSubcategories(shortSubcategories)
+                        .sortBy(PocketBaseQuery.sortFor(SearchFilters.SortBy.DATE_NEWEST))
+                        .summary();
+                int limit = Math.min(shortSubcategories.size() * perSubcategory, SUBCATEGORY_PREVIEW_SOURCE_LIMIT);
+                DataRequest.Attachment attachment = DataRequest.attach(request);
+                attachment.set(repository.getArticlesPage(query, 1, limit,
+                        new ArticleRepository.PageCallback() {
+                            @Override
+                            public void onSuccess(PocketBaseResponse<Article> page) {
+                                attachment.done();
+                                if (DataRequest.isCancelled(request)) return;
+                                List<Article> extra = page.getItems();
+                                if (!extra.isEmpty()) {
+                                    mergeIntoArticleIndex(extra);
+                                }
+                                // The extra articles are the newest of their subcategories, so
+                                // they go first and the copies from the first page are skipped
+                                List<Article> combined = new ArrayList<>(extra.size() + articles.size());
+                                Set<String> ids = new HashSet<>();
+                                for (Article article : extra) {
+                                    if (ids.add(article.getId())) combined.add(article);
+                                }
+                                for (Article article : articles) {
+                                    if (ids.add(article.getId())) combined.add(article);
+                                }
+                                deliverSubcategoryPreviews(subcategories, combined, perSubcategory,
+                                        request, listener);
+                            }
+
+                            @Override
+                            public void onError(String message) {
+                                attachment.done();
+                                if (DataRequest.isCancelled(request)) return;
+                                Log.w(TAG, "Failed to fill short subcategory previews: " + message);
+                                listener.onPreviewsLoaded(previews);
+                            }
+                        }));
+            });
+        });
+    }
+
+    /**
+     * Groups the articles by subcategory on a background thread and delivers the result on the
+     * main thread.
+     */
+    private static void deliverSubcategoryPreviews(List<String> subcategories, List<Article> articles,
+                                                   int perSubcategory, DataRequest request,
+                                                   SubcategoryPreviewListener listener) {
+        AppExecutors.computation().execute(() -> {
+            Map<String, List<Article>> previews = groupBySubcategory(subcategories, articles, perSubcategory);
+            mainHandler.post(() -> {
+                if (!DataRequest.isCancelled(request)) {
+                    listener.onPreviewsLoaded(previews);
+                }
+            });
         });
     }
 
+    /**
+     * Keeps the first articles of each subcategory in one pass over the articles.
+     * Subcategories are matched case-insensitively; every subcategory gets an entry.
+     */
+    static Map<String, List<Article>> groupBySubcategory(List<String> subcategories, List<Article> articles,
+                                                         int perSubcategory) {
+        Map<String, List<Article>> byKey = new LinkedHashMap<>();
+        for (String subcategory : subcategories) {
+            byKey.put(subcategory.toLowerCase(Locale.ROOT), new ArrayList<>());
+        }
+        for (Article article : articles) {
+            if (article.getSubcategoryId() == null) continue;
+            List<Article> group = byKey.get(article.getSubcategoryId().toLowerCase(Locale.ROOT));
+            if (group != null && group.size() < perSubcategory) {
+                group.add(article);
+            }
+        }
+
+        Map<String, List<Article>> previews = new LinkedHashMap<>();
+        for (String subcategory : subcategories) {
+            previews.put(subcategory, Collections.unmodifiableList(byKey.get(subcategory.toLowerCase(Locale.ROOT))));
+        }
+        return Collections.unmodifiableMap(previews);
+    }
+
     /**
      * Get dummy articles filtered by subcategory ID
      *
@@ -204,20 +534,7 @@ public class DataHandler {
      * @return List of articles in the specified subcategory, or empty list if none found
      */
     public static List<Article> getDummyArticlesBySubcategory(String subcategoryId) {
-        if (subcategoryId == null) {
-            return new ArrayList<>();
-        }
-        
-        List<Article> allArticles = getDummyArticles();
-        List<Article> filteredArticles = new ArrayList<>();
-        
-        for (Article article : allArticles) {
-            if (subcategoryId.equalsIgnoreCase(article.getSubcategoryId())) {
-                filteredArticles.add(article);
-            }
-        }
-        
-        return filteredArticles;
+        return getArticleIndex().getBySubcategory(subcategoryId);
     }
     
     /**
@@ -262,68 +579,25 @@ public class DataHandler {
      * @param callback   Callback to receive the results asynchronously
      */
     public void getArticlesByCategory(String categoryId, DataLoadListener callback) {
-        if (!isViewModelInitialized) {
-            // Fall back to dummy data if ViewModel isn't initialized
-            List<Article> dummyArticles = getDummyArticlesByCategory(categoryId);
-            if (callback != null) {
-                callback.onDataLoaded(dummyArticles);
-            }
-            return;
-        }
-
-        // Try to get data from the API first
-        articleViewModel.loadArticles(categoryId, 1, 20); // Default page 1, 20 items per page
-        articleViewModel.getArticlesLiveData().observeForever(new Observer<List<Article>>() {
-            @Override
-            public void onChanged(List<Article> articles) {
-                if (articles != null && !articles.isEmpty()) {
-                    if (callback != null) {
-                        callback.onDataLoaded(articles);
-                    }
-                    articleViewModel.getArticlesLiveData().removeObserver(this);
-                } else {
-                    // Fall back to dummy data if API returns empty
-                    List<Article> dummyArticles = getDummyArticlesByCategory(categoryId);
-                    if (callback != null) {
-                        callback.onDataLoaded(dummyArticles);
-                    }
-                    articleViewModel.getArticlesLiveData().removeObserver(this);
-                }
-            }
-        });
+        getArticlesByCategory(categoryId, null, callback);
+    }
 
-        // Set up error handling
-        articleViewModel.getErrorLiveData().observeForever(new Observer<String>() {
-            @Override
-            public void onChanged(String error) {
-                if (error != null) {
-                    // On error, fall back to dummy data
-                    List<Article> dummyArticles = getDummyArticlesByCategory(categoryId);
-                    if (callback != null) {
-                        callback.onDataLoaded(dummyArticles);
-                    }
-                    articleViewModel.getErrorLiveData().removeObserver(this);
-                }
-            }
-        });
+    /**
+     * Get articles filtered by category ID, trying the API first and falling back to dummy data
+     *
+     * @param categoryId The category ID to filter by
+     * @param request    Cancels delivery when the caller goes away, may be null
+     * @param callback   Callback to receive the results asynchronously
+     */
+    public void getArticlesByCategory(String categoryId, DataRequest request, DataLoadListener callback) {
+        loadArticles(categoryId, 20, request, callback, false, () -> getDummyArticlesByCategory(categoryId));
     }
 
     /**
      * Get articles filtered by category ID (dummy data fallback)
      */
     public static List<Article> getDummyArticlesByCategory(String categoryId) {
-        List<Article> filtered = new ArrayList<>();
-        if (categoryId == null) {
-            return filtered; // Return empty list if categoryId is null
-        }
-        
-        for (Article article : getDummyArticles()) {
-            String articleCategoryId = article.getCategoryId();
-            if (articleCategoryId != null && categoryId.equalsIgnoreCase(articleCategoryId)) {
-                filtered.add(article);
-            }
-        }
-        return filtered;
+        return getArticleIndex().getByCategory(categoryId);
     }
 
     /**
@@ -333,62 +607,59 @@ public class DataHandler {
      * @param callback Callback to receive the result asynchronously
      */
     public void getArticleById(String id, SingleArticleCallback callback) {
-        if (!isViewModelInitialized) {
-            // Fall back to dummy data if ViewModel isn't initialized
-            Article dummyArticle = getDummyArticleById(id);
+        getArticleById(id, null, callback);
+    }
+
+    /**
+     * Get a single article by ID, trying the API first and falling back to dummy data
+     *
+     * @param id       The article ID to fetch
+     * @param request  Cancels delivery when the caller goes away, may be null
+     * @param callback Callback to receive the result asynchronously
+     */
+    public void getArticleById(String id, DataRequest request, SingleArticleCallback callback) {
+        if (repository == null) {
+            // Fall back to dummy data if DataHandler was initialized without a context
             if (callback != null) {
-                callback.onArticleLoaded(dummyArticle);
+                callback.onArticleLoaded(getDummyArticleById(id));
             }
             return;
         }
 
-        // Try to get data from the API first
-        articleViewModel.loadArticleById(id);
-        articleViewModel.getArticleLiveData().observeForever(new Observer<Article>() {
+        DataRequest.Attachment attachment = DataRequest.attach(request);
+        attachment.set(repository.getArticleById(id, new ArticleRepository.SingleArticleCallback() {
             @Override
-            public void onChanged(Article article) {
+            public void onSuccess(Article article) {
+                attachment.done();
+                if (DataRequest.isCancelled(request)) return;
                 if (article != null) {
+                    mergeIntoArticleIndex(Collections.singletonList(article));
                     if (callback != null) {
                         callback.onArticleLoaded(article);
                     }
-                    articleViewModel.getArticleLiveData().removeObserver(this);
-                } else {
+                } else if (callback != null) {
                     // Fall back to dummy data if API returns null
-                    Article dummyArticle = getDummyArticleById(id);
-                    if (callback != null) {
-                        callback.onArticleLoaded(dummyArticle);
-                    }
-                    articleViewModel.getArticleLiveData().removeObserver(this);
+                    callback.onArticleLoaded(getDummyArticleById(id));
                 }
             }
-        });
 
-        // Set up error handling
-        articleViewModel.getErrorLiveData().observeForever(new Observer<String>() {
             @Override
-            public void onChanged(String error) {
-                if (error != null) {
-                    // On error, fall back to dummy data
-                    Article dummyArticle = getDummyArticleById(id);
-                    if (callback != null) {
-                        callback.onArticleLoaded(dummyArticle);
-                    }
-                    articleViewModel.getErrorLiveData().removeObserver(this);
+            public void onError(String message) {
+                attachment.done();
+                if (DataRequest.isCancelled(request)) return;
+                // On error, fall back to dummy data
+                if (callback != null) {
+                    callback.onArticleLoaded(getDummyArticleById(id));
                 }
             }
-        });
+        }));
     }
 
     /**
      * Get a single article by ID from dummy data (fallback method)
      */
     private Article getDummyArticleById(String id) {
-        for (Article article : getDummyArticles()) {
-            if (id.equals(article.getId())) {
-                return article;
-            }
-        }
-        return null;
+        return getArticleIndex().getById(id);
     }
 
 
@@ -396,13 +667,7 @@ public class DataHandler {
      * Get articles by author ID
      */
     public static List<Article> getDummyArticlesByAuthor(String authorId) {
-        List<Article> filtered = new ArrayList<>();
-        for (Article article : getDummyArticles()) {
-            if (authorId.equals(article.getAuthorId())) {
-                filtered.add(article);
-            }
-        }
-        return filtered;
+        return getArticleIndex().getByAuthor(authorId);
     }
 
     /**
@@ -411,9 +676,7 @@ public class DataHandler {
      * @param limit Maximum number of articles to return
      */
     public static List<Article> getMostViewedArticles(int limit) {
-        List<Article> articles = new ArrayList<>(getDummyArticles());
-        articles.sort((a1, a2) -> Integer.compare(a2.getViewCount(), a1.getViewCount()));
-        return articles.subList(0, Math.min(limit, articles.size()));
+        return getArticleIndex().getMostViewed(limit);
     }
 
     /**
@@ -422,9 +685,7 @@ public class DataHandler {
      * @param limit Maximum number of articles to return
      */
     public static List<Article> getMostLikedArticles(int limit) {
-        List<Article> articles = new ArrayList<>(getDummyArticles());
-        articles.sort((a1, a2) -> Integer.compare(a2.getLikeCount(), a1.getLikeCount()));
-        return articles.subList(0, Math.min(limit, articles.size()));
+        return getArticleIndex().getMostLiked(limit);
     }
 
     /**
@@ -433,61 +694,323 @@ public class DataHandler {
      * @param limit Maximum number of articles to return
      */
     public static List<Article> getNewestArticles(int limit) {
-        List<Article> articles = new ArrayList<>(getDummyArticles());
-        articles.sort((a1, a2) -> a2.getPublishDate().compareTo(a1.getPublishDate()));
-        return articles.subList(0, Math.min(limit, articles.size()));
+        return getArticleIndex().getNewest(limit);
     }
 
     /**
-     * Get articles that user has started reading but not completed (continue reading)
+     * Get articles that user has started reading but not completed (continue reading).
+     * Reads the most recent entries from the reading progress table and resolves them
+     * against the article index, falling back to the local article cache.
      *
      * @param context  The context needed for ReadingProgressManager
      * @param limit    Maximum number of articles to return
-     * @return List of articles in progress, sorted by last read time
+     * @param listener Listener to receive the articles on the main thread, sorted by last read time
      */
-    public static List<Article> getContinueReadingArticles(Context context, int limit) {
-        List<Article> allArticles = getDummyArticles();
+    public static void getContinueReadingArticles(Context context, int limit, DataLoadListener listener) {
+        Context appContext = context.getApplicationContext();
+        ReadingProgressManager.initialize(appContext);
+        ReadingProgressManager readingProgressManager = ReadingProgressManager.getInstance();
+
+        AppExecutors.io().execute(() -> {
+            List<Article> continueReading = new ArrayList<>();
+            try {
+                ArticleIndex index = getArticleIndex();
+                ArticleDao articleDao = AppDatabase.getInstance(appContext).articleDao();
+                for (ReadingProgressEntity progress : readingProgressManager.getRecentInProgress(limit)) {
+                    // Index articles are shared, so the progress is applied to a copy
+                    Article indexed = index.getById(progress.articleId);
+                    Article article = indexed != null ? indexed.copy() : null;
+                    if (article == null) {
+                        ArticleEntity cached = articleDao.getArticleById(progress.articleId);
+                        article = cached != null ? cached.toArticle() : null;
+                    }
+                    if (article != null) {
+                        article.setReadingProgress(progress.progress);
+                        article.setLastReadTime(progress.lastReadAt);
+                        continueReading.add(article);
+                    }
+                }
+            } catch (Exception e) {
+                // If reading progress can't be read, show no continue reading section
+                Log.e(TAG, "Failed to load continue reading articles", e);
+                continueReading.clear();
+            }
+            mainHandler.post(() -> listener.onDataLoaded(continueReading));
+        });
+    }
 
-        // Initialize ReadingProgressManager if not already done
+    /**
+     * Search for articles that match the given query in title, content, or author name.
+     * Blocks while the search index is brought up to date; prefer
+     * {@link #searchArticles(String, DataLoadListener)} from the main thread.
+     *
+     * @param query The search query
+     * @return List of matching articles, most relevant first
+     */
+    public static List<Article> searchArticles(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
         try {
-            com.rafdi.vitechasia.blog.utils.ReadingProgressManager.initialize(context.getApplicationContext());
-            com.rafdi.vitechasia.blog.utils.ReadingProgressManager readingProgressManager =
-                com.rafdi.vitechasia.blog.utils.ReadingProgressManager.getInstance();
-
-            return readingProgressManager.getContinueReadingArticles(allArticles)
-                .stream()
-                .limit(limit)
-                .collect(ArrayList::new, (list, item) -> list.add(item), (list1, list2) -> list1.addAll(list2));
+            return searchExecutor.submit(() -> {
+                syncSearchIndex();
+                return searchIndex.search(query, 0);
+            }).get();
         } catch (Exception e) {
-            // If ReadingProgressManager fails, return empty list
             return new ArrayList<>();
         }
     }
 
     /**
-     * Search for articles that match the given query in title, content, or author name
+     * Search the full-text index in the background and deliver ranked results on the main thread.
      *
-     * @param query The search query
-     * @return List of matching articles
+     * @param query    The search query
+     * @param listener Receives the matching articles, most relevant first
      */
-    public static List<Article> searchArticles(String query) {
+    public static void searchArticles(String query, DataLoadListener listener) {
         if (query == null || query.trim().isEmpty()) {
-            return new ArrayList<>();
+            listener.onDataLoaded(new ArrayList<>());
+            return;
+        }
+        searchExecutor.execute(() -> {
+            try {
+                syncSearchIndex();
+                List<Article> results = searchIndex.search(query, 0);
+                mainHandler.post(() -> listener.onDataLoaded(results));
+            } catch (Exception e) {
+                mainHandler.post(() -> listener.onError(e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Searches articles with the given filters, one page at a time. Filtering and sorting are
+     * done by the server. {@link SearchFilters.SortBy#RELEVANCE} has no server-side order, so
+     * the ids of all matches are listed and ranked by the local search index, and only the
+     * articles of the requested page are then fetched by id; the order therefore holds across
+     * pages. Falls back to searching the local index when the server can't be reached.
+     *
+     * @param query    The search query
+     * @param filters  The filters and sort order to apply
+     * @param page     The page number (starting from 1)
+     * @param perPage  The number of articles per page
+     * @param request  Cancels the search and its retries when the caller goes away, may be null
+     * @param listener Listener to receive the page of results on the main thread
+     */
+    public void searchArticles(String query, SearchFilters filters, int page, int perPage,
+                               DataRequest request, PageListener listener) {
+        SearchFilters snapshot = new SearchFilters(filters);
+        if (repository == null) {
+            searchArticlesLocally(query, snapshot, page, perPage, request, listener);
+            return;
+        }
+        if (snapshot.getSortBy() == SearchFilters.SortBy.RELEVANCE) {
+            searchArticlesByRelevance(query, snapshot, page, perPage, request, listener);
+            return;
         }
 
-        String searchQuery = query.toLowerCase().trim();
-        List<Article> allArticles = getDummyArticles();
-        List<Article> results = new ArrayList<>();
+        DataRequest.Attachment attachment = DataRequest.attach(request);
+        attachment.set(repository.searchArticles(query, snapshot, page, perPage, new ArticleRepository.PageCallback() {
+            @Override
+            public void onSuccess(PocketBaseResponse<Article> response) {
+                attachment.done();
+                if (DataRequest.isCancelled(request)) return;
+                mergeIntoArticleIndex(response.getItems());
+                listener.onPageLoaded(response);
+            }
 
-        for (Article article : allArticles) {
-            if ((article.getTitle() != null && article.getTitle().toLowerCase().contains(searchQuery)) ||
-                    (article.getContent() != null && article.getContent().toLowerCase().contains(searchQuery)) ||
-                    (article.getAuthorName() != null && article.getAuthorName().toLowerCase().contains(searchQuery))) {
-                results.add(article);
+            @Override
+            public void onError(String message) {
+                attachment.done();
+                if (DataRequest.isCancelled(request)) return;
+                Log.w(TAG, "Server search failed, searching local index: " + message);
+                searchArticlesLocally(query, snapshot, page, perPage, request, listener);
+            }
+        }));
+    }
+
+    /**
+     * Ranks the ids of up to {@link #RELEVANCE_CANDIDATE_LIMIT} server matches with the local
+     * search index and fetches the articles of the requested page by id. Matches the index
+     * can't score, e.g. ones that only match in a body that isn't held locally, follow the
+     * scored ones, newest first.
+     */
+    private void searchArticlesByRelevance(String query, SearchFilters filters, int page, int perPage,
+                                           DataRequest request, PageListener listener) {
+        DataRequest.Attachment listing = DataRequest.attach(request);
+        listing.set(repository.searchArticleIds(query, filters, RELEVANCE_CANDIDATE_LIMIT, new ArticleRepository.PageCallback() {
+            @Override
+            public void onSuccess(PocketBaseResponse<Article> candidates) {
+                listing.done();
+                if (DataRequest.isCancelled(request)) return;
+                searchExecutor.execute(() -> {
+                    if (DataRequest.isCancelled(request)) return;
+                    syncSearchIndex();
+                    List<Article> ranked = searchIndex.rank(query, candidates.getItems());
+                    PocketBaseResponse<Article> window = PocketBaseResponse.ofList(ranked, page, perPage);
+                    List<String> ids = new ArrayList<>(window.getItems().size());
+                    for (Article candidate : window.getItems()) {
+                        ids.add(candidate.getId());
+                    }
+                    DataRequest.Attachment fetch = DataRequest.attach(request);
+                    fetch.set(repository.getArticlesByIds(ids, new ArticleRepository.ArticleCallback() {
+                        @Override
+                        public void onSuccess(List<Article> articles) {
+                            fetch.done();
+                            if (DataRequest.isCancelled(request)) return;
+                            mergeIntoArticleIndex(articles);
+                            listener.onPageLoaded(new PocketBaseResponse<>(articles, window.getPage(),
+                                    window.getPerPage(), window.getTotalItems(), window.getTotalPages()));
+                        }
+
+                        @Override
+                        public void onError(String message) {
+                            fetch.done();
+                            if (DataRequest.isCancelled(request)) return;
+                            listener.onError(message);
+                        }
+                    }));
+                });
             }
+
+            @Override
+            public void onError(String message) {
+                listing.done();
+                if (DataRequest.isCancelled(request)) return;
+                Log.w(TAG, "Server search failed, searching local index: " + message);
+                searchArticlesLocally(query, filters, page, perPage, request, listener);
+            }
+        }));
+    }
+
+    /**
+     * Searches the local index and applies the filters and sort order in memory.
+     */
+    private static void searchArticlesLocally(String query, SearchFilters filters, int page, int perPage,
+                                              DataRequest request, PageListener listener) {
+        searchExecutor.execute(() -> {
+            if (DataRequest.isCancelled(request)) return;
+            syncSearchIndex();
+            long now = System.currentTimeMillis();
+            List<Article> matches = new ArrayList<>();
+            for (Article article : searchIndex.search(query, 0)) {
+                if (filters.matches(article, now)) {
+                    matches.add(article);
+                }
+            }
+            Comparator<Article> comparator = filters.getComparator();
+            if (comparator != null) {
+                matches.sort(comparator);
+            }
+            PocketBaseResponse<Article> result = PocketBaseResponse.ofList(matches, page, perPage);
+            mainHandler.post(() -> {
+                if (!DataRequest.isCancelled(request)) {
+                    listener.onPageLoaded(result);
+                }
+            });
+        });
+    }
+
+    /**
+     * Loads one page of the most viewed articles, falling back to the local index when offline.
+     *
+     * @param page     The page number (starting from 1)
+     * @param perPage  The number of articles per page
+     * @param request  Cancels the request and its retries when the caller goes away, may be null
+     * @param listener Listener to receive the page on the main thread
+     */
+    public void getPopularArticlesPage(int page, int perPage, DataRequest request, PageListener listener) {
+        loadSortedPage(PocketBaseQuery.sortFor(SearchFilters.SortBy.POPULARITY), page, perPage, request, listener,
+                () -> getArticleIndex().getMostViewed(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Loads one page of the newest articles, falling back to the local index when offline.
+     *
+     * @param page     The page number (starting from 1)
+     * @param perPage  The number of articles per page
+     * @param request  Cancels the request and its retries when the caller goes away, may be null
+     * @param listener Listener to receive the page on the main thread
+     */
+    public void getLatestArticlesPage(int page, int perPage, DataRequest request, PageListener listener) {
+        loadSortedPage(PocketBaseQuery.sortFor(SearchFilters.SortBy.DATE_NEWEST), page, perPage, request, listener,
+                () -> getArticleIndex().getNewest(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Loads the user's bookmarked articles by id, most recently bookmarked first.
+     * Bookmarks already in the article index are delivered right away; the full list is then
+     * fetched by id from the repository, which serves it from the local cache when possible and
+     * falls back to it when offline. The listener may therefore be called twice.
+     *
+     * @param context  Context used to read bookmarks
+     * @param request  Cancels delivery when the caller goes away, may be null
+     * @param listener Listener to receive the articles on the main thread
+     */
+    public void getBookmarkedArticles(Context context, DataRequest request, DataLoadListener listener) {
+        List<String> ids = BookmarkManager.getInstance(context).getBookmarkedIds();
+        List<Article> indexed = getBookmarkedArticles(context);
+        if (repository == null || ids.isEmpty()) {
+            listener.onDataLoaded(indexed);
+            return;
+        }
+        if (!indexed.isEmpty()) {
+            listener.onDataLoaded(indexed);
         }
 
-        return results;
+        DataRequest.Attachment attachment = DataRequest.attach(request);
+        attachment.set(repository.getArticlesByIds(ids, new ArticleRepository.ArticleCallback() {
+            @Override
+            public void onSuccess(List<Article> articles) {
+                attachment.done();
+                if (DataRequest.isCancelled(request)) return;
+                mergeIntoArticleIndex(articles);
+                // Re-read from the index so the result follows bookmark order and keeps
+                // bookmarks the server no longer returned
+                listener.onDataLoaded(getBookmarkedArticles(context));
+            }
+
+            @Override
+            public void onError(String message) {
+                attachment.done();
+                if (DataRequest.isCancelled(request)) return;
+                Log.w(TAG, "Failed to load bookmarked articles: " + message);
+                if (indexed.isEmpty()) {
+                    listener.onError(message);
+                }
+            }
+        }));
+    }
+
+    private interface LocalArticles {
+        List<Article> get();
+    }
+
+    private void loadSortedPage(String sort, int page, int perPage, DataRequest request, PageListener listener,
+                                LocalArticles fallback) {
+        if (repository == null) {
+            listener.onPageLoaded(PocketBaseResponse.ofList(fallback.get(), page, perPage));
+            return;
+        }
+        DataRequest.Attachment attachment = DataRequest.attach(request);
+        attachment.set(repository.getArticlesPage(new PocketBaseQuery().sortBy(sort).summary(), page, perPage,
+                new ArticleRepository.PageCallback() {
+                    @Override
+                    public void onSuccess(PocketBaseResponse<Article> response) {
+                        attachment.done();
+                        if (DataRequest.isCancelled(request)) return;
+                        mergeIntoArticleIndex(response.getItems());
+                        listener.onPageLoaded(response);
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        attachment.done();
+                        if (DataRequest.isCancelled(request)) return;
+                        Log.w(TAG, "Failed to load page " + page + ", using local data: " + message);
+                        listener.onPageLoaded(PocketBaseResponse.ofList(fallback.get(), page, perPage));
+                    }
+                }));
     }
 
     /**
@@ -825,9 +1348,8 @@ public class DataHandler {
             @Override
             public void onDataLoaded(List<Article> articles) {
                 if (articles != null) {
-                    // Sort by view count (descending) and limit to count
-                    articles.sort((a1, a2) -> Integer.compare(a2.getViewCount(), a1.getViewCount()));
-                    List<Article> result = articles.subList(0, Math.min(count, articles.size()));
+                    // getAllArticles() has already published the catalog, so use the pre-sorted view
+                    List<Article> result = getMostViewedArticles(count);
                     if (callback != null) {
                         callback.onDataLoaded(result);
                     }
@@ -858,9 +1380,8 @@ public class DataHandler {
             @Override
             public void onDataLoaded(List<Article> articles) {
                 if (articles != null) {
-                    // Sort by publish date (newest first) and limit to count
-                    articles.sort((a1, a2) -> a2.getPublishDate().compareTo(a1.getPublishDate()));
-                    List<Article> result = articles.subList(0, Math.min(count, articles.size()));
+                    // getAllArticles() has already published the catalog, so use the pre-sorted view
+                    List<Article> result = getNewestArticles(count);
                     if (callback != null) {
                         callback.onDataLoaded(result);
                     }
@@ -883,46 +1404,31 @@ public class DataHandler {
      * @param callback Callback to receive the results asynchronously
      */
     public void getAllArticles(DataLoadListener callback) {
-        if (!isViewModelInitialized) {
-            // Fall back to dummy data if ViewModel isn't initialized
-            List<Article> dummyArticles = getDummyAllArticles();
+        getAllArticles(null, callback);
+    }
+
+    /**
+     * Gets all articles, trying the API first and falling back to dummy data.
+     * The whole catalog is served from the local cache, which the repository keeps up to date
+     * with a delta sync, so no article is left out and a refresh only transfers what changed.
+     * The callback may be called twice: with the cached catalog and again if the sync changed
+     * it, or, before the first full sync has completed, with the first page as soon as it
+     * arrives and then with the whole catalog.
+     *
+     * @param request  Cancels delivery when the caller goes away, may be null
+     * @param callback Callback to receive the results asynchronously
+     */
+    public void getAllArticles(DataRequest request, DataLoadListener callback) {
+        if (repository == null) {
+            // Fall back to dummy data if DataHandler was initialized without a context
             if (callback != null) {
-                callback.onDataLoaded(dummyArticles);
+                callback.onDataLoaded(getDummyAllArticles());
             }
             return;
         }
-
-        // Try to get data from the API first
-        articleViewModel.loadArticles(null, 1, 100); // Assuming 100 is a reasonable max
-        articleViewModel.getArticlesLiveData().observeForever(new Observer<List<Article>>() {
-            @Override
-            public void onChanged(List<Article> articles) {
-                if (articles != null && !articles.isEmpty()) {
-                    if (callback != null) {
-                        callback.onDataLoaded(articles);
-                    }
-                    articleViewModel.getArticlesLiveData().removeObserver(this);
-                } else {
-                    List<Article> dummyArticles = getDummyAllArticles();
-                    if (callback != null) {
-                        callback.onDataLoaded(dummyArticles);
-                    }
-                    articleViewModel.getArticlesLiveData().removeObserver(this);
-                }
-            }
-        });
-
-        // Set up error handling
-        articleViewModel.getErrorLiveData().observeForever(new Observer<String>() {
-            @Override
-            public void onChanged(String error) {
-                if (error != null && callback != null) {
-                    List<Article> dummyArticles = getDummyAllArticles();
-                    callback.onDataLoaded(dummyArticles);
-                    articleViewModel.getErrorLiveData().removeObserver(this);
-                }
-            }
-        });
+        Cancellable handle = repository.getAllArticles(
+                deliverTo(request, null, callback, true, this::getDummyAllArticles));
+        DataRequest.attach(request, handle);
     }
 
     /**
@@ -0,0 +1,195 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cancellation token for a single DataHandler request.
+ *
+ * <p>A request bound to a {@link LifecycleOwner} is cancelled automatically when the owner is
+ * destroyed, e.g. when a fragment's view goes away. Results for a cancelled request are
+ * dropped instead of being delivered to its callback, and the repository work attached to it
+ * is cancelled so no HTTP call keeps running for a screen that is gone.
+ */
+public final class DataRequest implements Cancellable {
+
+    private volatile boolean cancelled = false;
+    private List<Cancellable> attached = new ArrayList<>();
+
+    private DataRequest() {
+    }
+
+    /**
+     * Creates a request that is only cancelled by an explicit {@link #cancel()}.
+     */
+    public static DataRequest create() {
+        return new DataRequest();
+    }
+
+    /**
+     * Creates a request that is cancelled when the owner reaches {@link Lifecycle.State#DESTROYED}.
+     * Pass {@code getViewLifecycleOwner()} from fragments that update views.
+     *
+     * @param owner The lifecycle the request is scoped to
+     */
+    @MainThread
+    public static DataRequest bindTo(@NonNull LifecycleOwner owner) {
+        DataRequest request = new DataRequest();
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            request.cancel();
+            return request;
+        }
+        lifecycle.addObserver(new LifecycleEventObserver() {
+            @Override
+            public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+                if (event == Lifecycle.Event.ON_DESTROY) {
+                    request.cancel();
+                    source.getLifecycle().removeObserver(this);
+                }
+            }
+        });
+        return request;
+    }
+
+    @Override
+    public void cancel() {
+        List<Cancellable> toCancel;
+        synchronized (this) {
+            if (cancelled) return;
+            cancelled = true;
+            toCancel = attached;
+            attached = null;
+        }
+        for (Cancellable cancellable : toCancel) {
+            cancellable.cancel();
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancels the given work together with this request, or right away if this request has
+     * already been cancelled.
+     */
+    void attach(Cancellable cancellable) {
+        synchronized (this) {
+            if (!cancelled) {
+                attached.add(cancellable);
+                return;
+            }
+        }
+        cancellable.cancel();
+    }
+
+    /**
+     * Stops cancelling the given work with this request.
+     */
+    synchronized void detach(Cancellable cancellable) {
+        if (attached != null) {
+            attached.remove(cancellable);
+        }
+    }
+
+    /**
+     * Null-safe variant of {@link #attach(Cancellable)} used by DataHandler for work that may
+     * deliver more than once and so stays attached until the request is cancelled.
+     */
+    static void attach(DataRequest request, Cancellable cancellable) {
+        if (request != null && cancellable != null) {
+            request.attach(cancellable);
+        }
+    }
+
+    /**
+     * Attaches work that is about to be started to the request, which may be null. Set the
+     * handle of the work with {@link Attachment#set} and call {@link Attachment#done()} when it
+     * completes, so a request that lives as long as a screen only holds the work in flight.
+     */
+    static Attachment attach(DataRequest request) {
+        Attachment attachment = new Attachment(request);
+        if (request != null) {
+            request.attach(attachment);
+        }
+        return attachment;
+    }
+
+    /**
+     * Null-safe check used by DataHandler; a null request is never cancelled.
+     */
+    static boolean isCancelled(DataRequest request) {
+        return request != null && request.isCancelled();
+    }
+
+    /**
+     * Work attached to a request whose handle is only known once it has been started.
+     */
+    static final class Attachment implements Cancellable {
+        private final DataRequest request;
+        private volatile boolean cancelled = false;
+        private boolean completed = false;
+        private Cancellable handle;
+
+        private Attachment(DataRequest request) {
+            this.request = request;
+        }
+
+        /**
+         * Sets the handle of the started work, cancelling it right away if the request has
+         * already been cancelled.
+         */
+        void set(Cancellable handle) {
+            if (handle == null) return;
+            synchronized (this) {
+                // Work that completed before its handle was set needs no cancelling
+                if (completed) return;
+                if (!cancelled) {
+                    this.handle = handle;
+                    return;
+                }
+            }
+            handle.cancel();
+        }
+
+        /**
+         * Removes the completed work from the request.
+         */
+        void done() {
+            synchronized (this) {
+                completed = true;
+                handle = null;
+            }
+            if (request != null) {
+                request.detach(this);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            Cancellable toCancel;
+            synchronized (this) {
+                if (cancelled) return;
+                cancelled = true;
+                toCancel = handle;
+                handle = null;
+            }
+            if (toCancel != null) {
+                toCancel.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -2,28 +2,52 @@ package com.rafdi.vitechasia.blog.utils;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.Log;
 
+import androidx.annotation.WorkerThread;
+
+import com.rafdi.vitechasia.blog.database.AppDatabase;
+import com.rafdi.vitechasia.blog.database.ReadingProgressDao;
+import com.rafdi.vitechasia.blog.database.ReadingProgressEntity;
 import com.rafdi.vitechasia.blog.models.Article;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Utility class for managing reading progress and continue reading functionality.
+ *
+ * <p>Progress is stored in the {@code reading_progress} Room table. The progress of every
+ * article and the reading statistics are kept in memory and updated on each save, so lookups
+ * don't touch the database; "continue reading" is a top-k query on the table's
+ * {@code (in_progress, last_read_at)} index. Progress stored in SharedPreferences by earlier
+ * versions is imported once.
  */
 public class ReadingProgressManager {
+    private static final String TAG = "ReadingProgressManager";
     private static final String PREF_NAME = "reading_progress";
     private static final String KEY_ARTICLE_PREFIX = "article_";
     private static final String KEY_PROGRESS = "_progress";
     private static final String KEY_LAST_READ = "_last_read";
-    private static final String KEY_IN_PROGRESS = "_in_progress";
 
     private static ReadingProgressManager instance;
-    private SharedPreferences preferences;
+    private final Context context;
+    private final ReadingProgressDao dao;
+
+    // Guarded by this
+    private final Map<String, Integer> progressById = new HashMap<>();
+    private int articlesStarted = 0;
+    private int articlesCompleted = 0;
+
+    // Serializes writes; each write stores the latest in-memory state of its article
+    private final Object writeLock = new Object();
 
     private ReadingProgressManager(Context context) {
-        preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        this.context = context;
+        this.dao = AppDatabase.getInstance(context).readingProgressDao();
+        AppExecutors.io().execute(this::load);
     }
 
     public static void initialize(Context context) {
@@ -46,53 +70,41 @@ public class ReadingProgressManager {
         if (article == null || article.getId() == null) return;
 
         String articleId = article.getId();
-        SharedPreferences.Editor editor = preferences.edit();
-
-        editor.putInt(KEY_ARTICLE_PREFIX + articleId + KEY_PROGRESS, Math.max(0, Math.min(100, progress)));
-        editor.putLong(KEY_ARTICLE_PREFIX + articleId + KEY_LAST_READ, System.currentTimeMillis());
-        editor.putBoolean(KEY_ARTICLE_PREFIX + articleId + KEY_IN_PROGRESS, progress > 0 && progress < 100);
+        int clamped = Math.max(0, Math.min(100, progress));
+        synchronized (this) {
+            putProgress(articleId, clamped);
+        }
 
-        editor.apply();
+        ReadingProgressEntity row = new ReadingProgressEntity(articleId, clamped, System.currentTimeMillis());
+        AppExecutors.io().execute(() -> write(articleId, row));
 
         // Update the article object
-        article.setReadingProgress(progress);
+        article.setReadingProgress(clamped);
     }
 
     /**
      * Get reading progress for an article
      */
-    public int getReadingProgress(String articleId) {
+    public synchronized int getReadingProgress(String articleId) {
         if (articleId == null) return 0;
-        return preferences.getInt(KEY_ARTICLE_PREFIX + articleId + KEY_PROGRESS, 0);
+        Integer progress = progressById.get(articleId);
+        return progress != null ? progress : 0;
     }
 
     /**
-     * Get articles that are in progress (partially read)
+     * Returns the progress of the most recently read unfinished articles, newest first.
+     * Blocks on the database.
+     *
+     * @param limit Maximum number of entries
      */
-    public List<Article> getContinueReadingArticles(List<Article> allArticles) {
-        List<Article> continueReading = new ArrayList<>();
-
-        for (Article article : allArticles) {
-            if (article != null && article.getId() != null) {
-                boolean isInProgress = preferences.getBoolean(
-                    KEY_ARTICLE_PREFIX + article.getId() + KEY_IN_PROGRESS, false);
-
-                if (isInProgress) {
-                    // Update article with saved progress
-                    int progress = getReadingProgress(article.getId());
-                    article.setReadingProgress(progress);
-                    continueReading.add(article);
-                }
-            }
+    @WorkerThread
+    public List<ReadingProgressEntity> getRecentInProgress(int limit) {
+        try {
+            return dao.getRecentInProgress(limit);
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to read reading progress", e);
+            return new ArrayList<>();
         }
-
-        // Sort by last read time (most recent first)
-        continueReading.sort((a1, a2) -> {
-            if (a1 == null || a2 == null) return 0;
-            return Long.compare(a2.getLastReadTime(), a1.getLastReadTime());
-        });
-
-        return continueReading;
     }
 
     /**
@@ -109,11 +121,10 @@ public class ReadingProgressManager {
     public void clearReadingProgress(String articleId) {
         if (articleId == null) return;
 
-        SharedPreferences.Editor editor = preferences.edit();
-        editor.remove(KEY_ARTICLE_PREFIX + articleId + KEY_PROGRESS);
-        editor.remove(KEY_ARTICLE_PREFIX + articleId + KEY_LAST_READ);
-        editor.remove(KEY_ARTICLE_PREFIX + articleId + KEY_IN_PROGRESS);
-        editor.apply();
+        synchronized (this) {
+            removeProgress(articleId);
+        }
+        AppExecutors.io().execute(() -> write(articleId, null));
     }
 
     /**
@@ -134,22 +145,122 @@ public class ReadingProgressManager {
     /**
      * Get reading statistics
      */
-    public ReadingStats getReadingStats() {
-        Map<String, ?> allPrefs = preferences.getAll();
-        int totalArticlesStarted = 0;
-        int totalArticlesCompleted = 0;
-
-        for (String key : allPrefs.keySet()) {
-            if (key.endsWith(KEY_PROGRESS)) {
-                totalArticlesStarted++;
-                int progress = preferences.getInt(key, 0);
-                if (progress >= 100) {
-                    totalArticlesCompleted++;
+    public synchronized ReadingStats getReadingStats() {
+        return new ReadingStats(articlesStarted, articlesCompleted);
+    }
+
+    /**
+     * Updates the in-memory progress and the statistics. Must hold the lock.
+     */
+    private void putProgress(String articleId, int progress) {
+        Integer previous = progressById.put(articleId, progress);
+        if (previous == null) {
+            articlesStarted++;
+        } else if (previous >= 100) {
+            articlesCompleted--;
+        }
+        if (progress >= 100) {
+            articlesCompleted++;
+        }
+    }
+
+    /**
+     * Removes an article's progress and updates the statistics. Must hold the lock.
+     */
+    private void removeProgress(String articleId) {
+        Integer previous = progressById.remove(articleId);
+        if (previous != null) {
+            articlesStarted--;
+            if (previous >= 100) {
+                articlesCompleted--;
+            }
+        }
+    }
+
+    /**
+     * Writes or deletes one row unless a newer change for the article has superseded it.
+     * Runs on the I/O pool.
+     */
+    private void write(String articleId, ReadingProgressEntity row) {
+        synchronized (writeLock) {
+            synchronized (this) {
+                Integer current = progressById.get(articleId);
+                boolean superseded = row == null ? current != null : current == null || current != row.progress;
+                if (superseded) {
+                    // A later save or clear queued its own write
+                    return;
                 }
             }
+            try {
+                if (row != null) {
+                    dao.upsert(row);
+                } else {
+                    dao.delete(articleId);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to write reading progress for " + articleId, e);
+            }
         }
+    }
 
-        return new ReadingStats(totalArticlesStarted, totalArticlesCompleted);
+    /**
+     * Loads the stored progress into memory, importing the legacy preferences on first run.
+     * Saves made before loading finished take precedence over the stored rows.
+     */
+    private void load() {
+        List<ReadingProgressEntity> stored;
+        try {
+            stored = importLegacyPreferences(dao.getAll());
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to load reading progress", e);
+            return;
+        }
+        synchronized (this) {
+            for (ReadingProgressEntity row : stored) {
+                if (!progressById.containsKey(row.articleId)) {
+                    putProgress(row.articleId, row.progress);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves progress from the old per-key SharedPreferences file into Room and clears the file.
+     * Rows already in Room win over the preferences.
+     *
+     * @return The stored rows including the imported ones
+     */
+    private List<ReadingProgressEntity> importLegacyPreferences(List<ReadingProgressEntity> stored) {
+        SharedPreferences preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        Map<String, ?> legacy = preferences.getAll();
+        if (legacy.isEmpty()) {
+            return stored;
+        }
+
+        Map<String, ReadingProgressEntity> imported = new HashMap<>();
+        for (Map.Entry<String, ?> entry : legacy.entrySet()) {
+            String key = entry.getKey();
+            if (key.startsWith(KEY_ARTICLE_PREFIX) && key.endsWith(KEY_PROGRESS)
+                    && entry.getValue() instanceof Integer) {
+                String articleId = key.substring(KEY_ARTICLE_PREFIX.length(), key.length() - KEY_PROGRESS.length());
+                Object lastRead = legacy.get(KEY_ARTICLE_PREFIX + articleId + KEY_LAST_READ);
+                imported.put(articleId, new ReadingProgressEntity(articleId, (Integer) entry.getValue(),
+                        lastRead instanceof Long ? (Long) lastRead : 0L));
+            }
+        }
+        for (ReadingProgressEntity row : stored) {
+            imported.remove(row.articleId);
+        }
+
+        List<ReadingProgressEntity> merged = new ArrayList<>(stored);
+        if (!imported.isEmpty()) {
+            List<ReadingProgressEntity> rows = new ArrayList<>(imported.values());
+            dao.upsertAll(rows);
+            merged.addAll(rows);
+        }
+        // Only cleared once the rows are safely in Room
+        preferences.edit().clear().commit();
+        return merged;
     }
 
     /**
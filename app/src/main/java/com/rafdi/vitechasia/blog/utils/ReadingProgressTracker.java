@@ -0,0 +1,125 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.widget.ScrollView;
+
+import androidx.annotation.MainThread;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+/**
+ * Tracks how far an article has been scrolled and persists it through the
+ * {@link ReadingProgressManager}.
+ *
+ * <p>Scroll events only schedule a sample: at most one sample is taken per
+ * {@link #SAMPLE_INTERVAL_MS}, aligned to the next frame via {@link Choreographer}. The
+ * latest progress is kept in memory and saved once it has moved by at least
+ * {@link #MIN_PROGRESS_CHANGE} points and scrolling has settled for {@link #PERSIST_DELAY_MS},
+ * or right away on {@link #flush()}, e.g. when the fragment is paused.
+ *
+ * <p>Must be used from the main thread.
+ */
+@MainThread
+public class ReadingProgressTracker {
+    static final long SAMPLE_INTERVAL_MS = 200;
+    static final int MIN_PROGRESS_CHANGE = 5;
+    static final long PERSIST_DELAY_MS = 1_000;
+
+    private final ScrollView scrollView;
+    private final Article article;
+    private final ReadingProgressManager readingProgressManager;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private int currentProgress = -1;
+    private int savedProgress;
+    private boolean sampleScheduled = false;
+    private boolean released = false;
+
+    private final ViewTreeObserver.OnScrollChangedListener scrollListener = this::scheduleSample;
+    private final Choreographer.FrameCallback sampleCallback = frameTimeNanos -> {
+        sampleScheduled = false;
+        sample();
+    };
+    private final Runnable persistRunnable = this::persist;
+
+    /**
+     * @param scrollView             The scroll view showing the article
+     * @param article                The article being read
+     * @param readingProgressManager Stores the progress
+     */
+    public ReadingProgressTracker(ScrollView scrollView, Article article,
+                                  ReadingProgressManager readingProgressManager) {
+        this.scrollView = scrollView;
+        this.article = article;
+        this.readingProgressManager = readingProgressManager;
+        this.savedProgress = readingProgressManager.getReadingProgress(article.getId());
+    }
+
+    /**
+     * Starts listening to scroll changes.
+     */
+    public void start() {
+        scrollView.getViewTreeObserver().addOnScrollChangedListener(scrollListener);
+    }
+
+    /**
+     * Saves the latest progress now if it differs from what was saved last.
+     */
+    public void flush() {
+        mainHandler.removeCallbacks(persistRunnable);
+        sample();
+        persist();
+    }
+
+    /**
+     * Saves the latest progress and stops tracking. The tracker can't be restarted.
+     */
+    public void release() {
+        if (released) return;
+        flush();
+        released = true;
+        if (scrollView.getViewTreeObserver().isAlive()) {
+            scrollView.getViewTreeObserver().removeOnScrollChangedListener(scrollListener);
+        }
+        if (sampleScheduled) {
+            Choreographer.getInstance().removeFrameCallback(sampleCallback);
+            sampleScheduled = false;
+        }
+        mainHandler.removeCallbacks(persistRunnable);
+    }
+
+    private void scheduleSample() {
+        if (sampleScheduled || released) return;
+        sampleScheduled = true;
+        Choreographer.getInstance().postFrameCallbackDelayed(sampleCallback, SAMPLE_INTERVAL_MS);
+    }
+
+    private void sample() {
+        if (released || scrollView.getChildCount() == 0) return;
+
+        View child = scrollView.getChildAt(0);
+        int height = child.getHeight() - scrollView.getHeight();
+        if (height <= 0) return;
+
+        int progress = (int) ((float) scrollView.getScrollY() / height * 100);
+        currentProgress = Math.max(0, Math.min(100, progress));
+
+        boolean finished = currentProgress == 100 && savedProgress != 100;
+        if (finished || Math.abs(currentProgress - savedProgress) >= MIN_PROGRESS_CHANGE) {
+            // Wait for scrolling to settle instead of saving every intermediate value
+            mainHandler.removeCallbacks(persistRunnable);
+            mainHandler.postDelayed(persistRunnable, PERSIST_DELAY_MS);
+        }
+    }
+
+    private void persist() {
+        if (released || currentProgress < 0 || currentProgress == savedProgress) return;
+        savedProgress = currentProgress;
+        // Stored on a background thread by the manager
+        readingProgressManager.saveReadingProgress(article, currentProgress);
+    }
+}
@@ -1,28 +1,38 @@
 package com.rafdi.vitechasia.blog.utils;
 
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
 
-import androidx.annotation.NonNull;
+import com.rafdi.vitechasia.blog.api.HttpStatusException;
+import com.rafdi.vitechasia.blog.api.NetworkMetrics;
 
 import java.io.IOException;
 import java.net.SocketTimeoutException;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utility class that provides retry mechanism with exponential backoff for network operations.
+ *
+ * <p>Attempts run on the shared {@link AppExecutors#io()} pool and backoff delays are timed by
+ * {@link AppExecutors#scheduler()}, so waiting for a retry occupies neither an I/O thread nor
+ * the main looper. Delays are jittered, and a {@code Retry-After} sent with a 429 or 503
+ * response takes precedence over the computed delay. Only the final result is posted to the
+ * main thread.
+ *
+ * <p>When created with an endpoint, the number of attempts each operation needed is recorded
+ * in {@link NetworkMetrics}.
  */
 public class RetryWithBackoff<T> {
     private static final int MAX_RETRIES = 3;
     private static final long INITIAL_RETRY_DELAY_MS = 1000; // 1 second
     private static final double BACKOFF_MULTIPLIER = 2.0;
-    
-    private final Executor executor;
-    private final Handler mainHandler;
+    // Upper bound for server-requested delays so a bad header can't stall a screen
+    private static final long MAX_RETRY_AFTER_MS = 60_000;
+
     private final Context context;
-    
+    private final String endpoint;
+
     public interface Operation<T> {
         /**
          * Perform the operation that might need to be retried.
@@ -31,14 +41,14 @@ public class RetryWithBackoff<T> {
          */
         T perform() throws Exception;
     }
-    
+
     public interface Callback<T> {
         /**
          * Called when the operation succeeds.
          * @param result The result of the operation
          */
         void onSuccess(T result);
-        
+
         /**
          * Called when all retry attempts have failed.
          * @param errorMessage The error message from the last attempt
@@ -46,87 +56,201 @@ public class RetryWithBackoff<T> {
          */
         void onError(String errorMessage, boolean isNetworkError);
     }
-    
+
+    /**
+     * Handle for a running operation. Cancelling stops further attempts, cancels the pending
+     * attempt or backoff delay, runs the registered cancel actions (e.g. cancelling the HTTP
+     * call) and suppresses the callback.
+     */
+    public static final class Handle implements Cancellable {
+        private volatile boolean cancelled = false;
+        private Future<?> pending;
+        private Runnable onCancel;
+
+        @Override
+        public void cancel() {
+            Future<?> future;
+            Runnable action;
+            synchronized (this) {
+                if (cancelled) return;
+                cancelled = true;
+                future = pending;
+                action = onCancel;
+                pending = null;
+                onCancel = null;
+            }
+            if (future != null) {
+                future.cancel(false);
+            }
+            if (action != null) {
+                action.run();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Registers an action to run on cancellation, or runs it immediately if the handle
+         * has already been cancelled. Replaces any previously registered action.
+         */
+        public void doOnCancel(Runnable action) {
+            synchronized (this) {
+                if (!cancelled) {
+                    onCancel = action;
+                    return;
+                }
+            }
+            action.run();
+        }
+
+        private synchronized void setPending(Future<?> future) {
+            if (cancelled) {
+                future.cancel(false);
+            } else {
+                pending = future;
+            }
+        }
+    }
+
     public RetryWithBackoff(Context context) {
+        this(context, null);
+    }
+
+    /**
+     * @param context Any context (the application context is used internally)
+     * @param endpoint The {@link NetworkMetrics} endpoint the operations call, or null to not
+     *                 record attempts
+     */
+    public RetryWithBackoff(Context context, String endpoint) {
         this.context = context.getApplicationContext();
-        this.executor = Executors.newSingleThreadExecutor();
-        this.mainHandler = new Handler(Looper.getMainLooper());
+        this.endpoint = endpoint;
     }
-    
+
     /**
      * Execute an operation with retry logic and exponential backoff.
      * @param operation The operation to execute
      * @param callback The callback to receive the result or error
+     * @return A handle to cancel the operation
      */
-    public void execute(Operation<T> operation, Callback<T> callback) {
-        executeWithRetry(operation, callback, 0, INITIAL_RETRY_DELAY_MS);
+    public Handle execute(Operation<T> operation, Callback<T> callback) {
+        Handle handle = new Handle();
+        submitAttempt(operation, callback, handle, 0, INITIAL_RETRY_DELAY_MS);
+        return handle;
     }
-    
-    private void executeWithRetry(Operation<T> operation, Callback<T> callback, int attempt, long delayMs) {
-        executor.execute(() -> {
-            try {
-                // Check network connectivity before each attempt
-                if (!NetworkUtils.isNetworkAvailable(context)) {
-                    postError("No internet connection. Please check your connection and try again.", 
-                             true, callback);
-                    return;
-                }
-                
-                T result = operation.perform();
-                postSuccess(result, callback);
-            } catch (Exception e) {
-                boolean isNetworkError = isNetworkError(e);
-                String errorMessage = getErrorMessage(e, isNetworkError);
-                
-                if (attempt < MAX_RETRIES - 1 && isRetryableError(e)) {
-                    // Calculate next delay with exponential backoff
-                    long nextDelay = (long) (delayMs * BACKOFF_MULTIPLIER);
-                    
-                    // Schedule the next retry
-                    mainHandler.postDelayed(() -> 
-                        executeWithRetry(operation, callback, attempt + 1, nextDelay), 
-                        delayMs);
-                } else {
-                    postError(errorMessage, isNetworkError, callback);
-                }
+
+    private void submitAttempt(Operation<T> operation, Callback<T> callback, Handle handle,
+                               int attempt, long delayMs) {
+        if (handle.isCancelled()) return;
+        handle.setPending(AppExecutors.io().submit(() ->
+                runAttempt(operation, callback, handle, attempt, delayMs)));
+    }
+
+    private void runAttempt(Operation<T> operation, Callback<T> callback, Handle handle,
+                            int attempt, long delayMs) {
+        if (handle.isCancelled()) return;
+        try {
+            // Check network connectivity before each attempt
+            if (!NetworkUtils.isNetworkAvailable(context)) {
+                recordAttempts(attempt, false);
+                postError("No internet connection. Please check your connection and try again.",
+                         true, callback, handle);
+                return;
             }
-        });
+
+            T result = operation.perform();
+            recordAttempts(attempt + 1, true);
+            postSuccess(result, callback, handle);
+        } catch (Exception e) {
+            if (handle.isCancelled()) return;
+            boolean isNetworkError = isNetworkError(e);
+            String errorMessage = getErrorMessage(e, isNetworkError);
+
+            if (attempt < MAX_RETRIES - 1 && isRetryableError(e)) {
+                long nextDelay = (long) (delayMs * BACKOFF_MULTIPLIER);
+                long wait = retryDelay(e, delayMs);
+
+                // Schedule the next attempt without holding an I/O thread or the main looper
+                handle.setPending(AppExecutors.scheduler().schedule(() ->
+                        submitAttempt(operation, callback, handle, attempt + 1, nextDelay),
+                        wait, TimeUnit.MILLISECONDS));
+            } else {
+                recordAttempts(attempt + 1, false);
+                postError(errorMessage, isNetworkError, callback, handle);
+            }
+        }
+    }
+
+    private void recordAttempts(int attempts, boolean succeeded) {
+        // An operation that never reached the network has nothing to report
+        if (endpoint != null && attempts > 0) {
+            NetworkMetrics.getInstance().recordAttempts(endpoint, attempts, succeeded);
+        }
+    }
+
+    /**
+     * Returns how long to wait before the next attempt: the server's Retry-After when present,
+     * otherwise the backoff delay with "equal jitter" (between half and all of the delay) so
+     * clients that failed together don't retry in lockstep.
+     */
+    static long retryDelay(Throwable throwable, long delayMs) {
+        if (throwable instanceof HttpStatusException) {
+            long retryAfter = ((HttpStatusException) throwable).getRetryAfterMs();
+            if (retryAfter >= 0) {
+                return Math.min(retryAfter, MAX_RETRY_AFTER_MS);
+            }
+        }
+        long half = delayMs / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
     }
-    
+
     private boolean isRetryableError(Throwable throwable) {
-        // Retry on network-related errors and server errors (5xx)
-        return isNetworkError(throwable) || 
+        if (throwable instanceof HttpStatusException) {
+            // Retry on rate limiting and server errors (5xx), never on other client errors
+            return ((HttpStatusException) throwable).isRetryable();
+        }
+        return isNetworkError(throwable) ||
                (throwable instanceof IOException) ||
                (throwable.getCause() != null && isNetworkError(throwable.getCause()));
     }
-    
+
     private boolean isNetworkError(Throwable throwable) {
         return throwable instanceof SocketTimeoutException ||
-               (throwable.getMessage() != null && 
-                (throwable.getMessage().contains("timeout") || 
+               (throwable.getMessage() != null &&
+                (throwable.getMessage().contains("timeout") ||
                  throwable.getMessage().contains("network")));
     }
-    
+
     private String getErrorMessage(Throwable throwable, boolean isNetworkError) {
         if (isNetworkError) {
             return "Network error. Please check your connection and try again.";
         }
-        
+
         // Add more specific error messages as needed
         if (throwable instanceof SocketTimeoutException) {
             return "Request timed out. The server is taking too long to respond.";
         }
-        
+
         String message = throwable.getMessage();
         return message != null ? message : "An unknown error occurred";
     }
-    
-    private <T> void postSuccess(final T result, final Callback<T> callback) {
-        mainHandler.post(() -> callback.onSuccess(result));
+
+    private void postSuccess(final T result, final Callback<T> callback, final Handle handle) {
+        AppExecutors.mainThread().execute(() -> {
+            if (!handle.isCancelled()) {
+                callback.onSuccess(result);
+            }
+        });
     }
-    
-    private <T> void postError(final String errorMessage, final boolean isNetworkError, 
-                              final Callback<T> callback) {
-        mainHandler.post(() -> callback.onError(errorMessage, isNetworkError));
+
+    private void postError(final String errorMessage, final boolean isNetworkError,
+                           final Callback<T> callback, final Handle handle) {
+        AppExecutors.mainThread().execute(() -> {
+            if (!handle.isCancelled()) {
+                callback.onError(errorMessage, isNetworkError);
+            }
+        });
     }
 }
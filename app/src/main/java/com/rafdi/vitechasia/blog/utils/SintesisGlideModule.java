@@ -0,0 +1,75 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.integration.okhttp3.OkHttpUrlLoader;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.module.AppGlideModule;
+import com.rafdi.vitechasia.blog.api.ApiClient;
+
+import java.io.InputStream;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * App-wide Glide configuration.
+ *
+ * <p>The memory cache and bitmap pool are sized by {@link MemorySizeCalculator} from the device's
+ * memory class and screen size, with a smaller share of the heap and fewer cached screens on
+ * low-RAM devices; the disk cache is bounded the same way. Images are downloaded through a
+ * client derived from {@link ApiClient#getHttpClient()}, so they reuse the API's connection pool.
+ * Glide registers itself for {@code onTrimMemory} and shrinks or clears these caches when the
+ * system asks.
+ */
+@GlideModule
+public final class SintesisGlideModule extends AppGlideModule {
+    private static final float MAX_HEAP_SHARE = 0.33f;
+    private static final float LOW_RAM_MAX_HEAP_SHARE = 0.2f;
+    // Screens worth of decoded images kept in memory
+    private static final float MEMORY_CACHE_SCREENS = 2;
+    private static final float LOW_RAM_MEMORY_CACHE_SCREENS = 1;
+    private static final long DISK_CACHE_BYTES = 100L * 1024 * 1024;
+    private static final long LOW_RAM_DISK_CACHE_BYTES = 40L * 1024 * 1024;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        boolean lowRam = isLowRamDevice(context);
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMaxSizeMultiplier(lowRam ? LOW_RAM_MAX_HEAP_SHARE : MAX_HEAP_SHARE)
+                .setMemoryCacheScreens(lowRam ? LOW_RAM_MEMORY_CACHE_SCREENS : MEMORY_CACHE_SCREENS)
+                .build();
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setBitmapPool(new LruBitmapPool(calculator.getBitmapPoolSize()));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context,
+                lowRam ? LOW_RAM_DISK_CACHE_BYTES : DISK_CACHE_BYTES));
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        OkHttpClient.Builder imageClient = ApiClient.getHttpClient().newBuilder();
+        // The API's interceptors would log and buffer whole image bodies
+        imageClient.interceptors().clear();
+        registry.replace(GlideUrl.class, InputStream.class, new OkHttpUrlLoader.Factory(imageClient.build()));
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+
+    private static boolean isLowRamDevice(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        return activityManager == null || activityManager.isLowRamDevice();
+    }
+}
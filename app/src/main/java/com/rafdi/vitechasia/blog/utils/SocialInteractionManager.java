@@ -2,26 +2,82 @@ package com.rafdi.vitechasia.blog.utils;
 
 import android.content.Context;
 import android.content.SharedPreferences;
-import android.preference.PreferenceManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 
+import com.rafdi.vitechasia.blog.database.AppDatabase;
+import com.rafdi.vitechasia.blog.database.SocialInteractionDao;
+import com.rafdi.vitechasia.blog.database.SocialInteractionEntity;
 import com.rafdi.vitechasia.blog.models.Article;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 /**
  * Utility class for managing social interactions (likes, shares, bookmarks)
+ *
+ * <p>All reads are served from an in-memory map that is loaded from the
+ * {@code social_interactions} Room table when the manager is initialized. Changes update the
+ * map immediately and are written behind: changed articles are collected and flushed to Room
+ * in one transaction shortly after the last change, or right away via {@link #flush()}.
+ * Until the initial load has finished, articles that haven't been touched yet read as not
+ * liked and not shared; registered {@link InteractionsListener}s are told when the stored
+ * state is available. Changes made before then are replayed onto the stored rows.
+ *
+ * <p>Interactions stored in SharedPreferences by earlier versions are imported once.
  */
 public class SocialInteractionManager {
+    private static final String TAG = "SocialInteractionManager";
     private static final String PREFS_NAME = "social_interactions";
     private static final String KEY_LIKED_PREFIX = "liked_";
     private static final String KEY_SHARED_PREFIX = "shared_";
     private static final String KEY_LIKES_COUNT_PREFIX = "likes_count_";
     private static final String KEY_SHARES_COUNT_PREFIX = "shares_count_";
     private static final String KEY_COMMENTS_COUNT_PREFIX = "comments_count_";
+    // Changes within this window are written in one batch
+    private static final long FLUSH_DELAY_MS = 2_000;
+
+    /**
+     * Receives load notifications on the main thread.
+     */
+    public interface InteractionsListener {
+        /**
+         * Called once the stored interactions have been loaded. Lookups made before may have
+         * missed likes and shares.
+         */
+        void onInteractionsLoaded();
+    }
 
     private static SocialInteractionManager instance;
-    private SharedPreferences preferences;
+    private final Context context;
+    private final SocialInteractionDao dao;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<InteractionsListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private final Map<String, SocialInteractionEntity> interactions = new HashMap<>();
+    private final Set<String> dirty = new LinkedHashSet<>();
+    // Changes made before loading finished, replayed onto the stored rows
+    private final Map<String, List<Consumer<SocialInteractionEntity>>> earlyChanges = new HashMap<>();
+    private boolean loaded = false;
+    private ScheduledFuture<?> pendingFlush;
+
+    // Serializes batch writes so an older snapshot never overwrites a newer one
+    private final Object writeLock = new Object();
 
     private SocialInteractionManager(Context context) {
-        preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.context = context;
+        this.dao = AppDatabase.getInstance(context).socialInteractionDao();
+        AppExecutors.io().execute(this::load);
     }
 
     public static void initialize(Context context) {
@@ -38,29 +94,34 @@ public class SocialInteractionManager {
     }
 
     /**
-     * Toggle like status for an article
+     * Registers a listener for the end of the initial load. Listeners added after loading has
+     * finished are not called.
      */
-    public boolean toggleLike(Article article) {
-        if (article == null) return false;
-
-        String articleId = article.getId();
-        boolean wasLiked = isLiked(articleId);
-        boolean isLikedNow = !wasLiked;
+    public void addListener(InteractionsListener listener) {
+        listeners.add(listener);
+    }
 
-        // Update preferences
-        preferences.edit()
-            .putBoolean(KEY_LIKED_PREFIX + articleId, isLikedNow)
-            .apply();
+    public void removeListener(InteractionsListener listener) {
+        listeners.remove(listener);
+    }
 
-        // Update article like count
-        int currentLikes = getLikeCount(articleId);
-        if (isLikedNow) {
-            currentLikes++;
-        } else {
-            currentLikes = Math.max(0, currentLikes - 1);
+    /**
+     * Toggle like status for an article
+     */
+    public boolean toggleLike(Article article) {
+        if (article == null || article.getId() == null) return false;
+
+        boolean isLikedNow;
+        int currentLikes;
+        synchronized (this) {
+            SocialInteractionEntity current = interactions.get(article.getId());
+            isLikedNow = current == null || !current.liked;
+            // Recorded as the resulting state, so replaying it onto the stored row keeps the
+            // user's intent instead of flipping whatever was stored
+            boolean liked = isLikedNow;
+            currentLikes = change(article.getId(), state -> setLiked(state, liked)).likeCount;
         }
-
-        setLikeCount(articleId, currentLikes);
+        scheduleFlush();
 
         // Update article object
         article.setLikedByUser(isLikedNow);
@@ -73,115 +134,339 @@ public class SocialInteractionManager {
      * Record a share action
      */
     public void recordShare(Article article) {
-        if (article == null) return;
-
-        String articleId = article.getId();
-        boolean wasShared = isShared(articleId);
-
-        if (!wasShared) {
-            // Mark as shared
-            preferences.edit()
-                .putBoolean(KEY_SHARED_PREFIX + articleId, true)
-                .apply();
-
-            // Increment share count
-            int currentShares = getShareCount(articleId) + 1;
-            setShareCount(articleId, currentShares);
+        if (article == null || article.getId() == null) return;
 
-            // Update article object
-            article.setSharedByUser(true);
-            article.setShareCount(currentShares);
+        int currentShares;
+        synchronized (this) {
+            SocialInteractionEntity existing = interactions.get(article.getId());
+            if (existing != null && existing.shared) {
+                return;
+            }
+            currentShares = change(article.getId(), SocialInteractionManager::setShared).shareCount;
         }
+        scheduleFlush();
+
+        // Update article object
+        article.setSharedByUser(true);
+        article.setShareCount(currentShares);
     }
 
     /**
      * Check if article is liked by user
      */
-    public boolean isLiked(String articleId) {
-        return preferences.getBoolean(KEY_LIKED_PREFIX + articleId, false);
+    public synchronized boolean isLiked(String articleId) {
+        SocialInteractionEntity state = interactions.get(articleId);
+        return state != null && state.liked;
     }
 
     /**
      * Check if article is shared by user
      */
-    public boolean isShared(String articleId) {
-        return preferences.getBoolean(KEY_SHARED_PREFIX + articleId, false);
+    public synchronized boolean isShared(String articleId) {
+        SocialInteractionEntity state = interactions.get(articleId);
+        return state != null && state.shared;
     }
 
     /**
      * Get like count for article
      */
-    public int getLikeCount(String articleId) {
-        return preferences.getInt(KEY_LIKES_COUNT_PREFIX + articleId, 0);
+    public synchronized int getLikeCount(String articleId) {
+        SocialInteractionEntity state = interactions.get(articleId);
+        return state != null ? state.likeCount : 0;
     }
 
     /**
      * Set like count for article
      */
     public void setLikeCount(String articleId, int count) {
-        preferences.edit()
-            .putInt(KEY_LIKES_COUNT_PREFIX + articleId, count)
-            .apply();
+        if (articleId == null) return;
+        synchronized (this) {
+            change(articleId, state -> state.likeCount = count);
+        }
+        scheduleFlush();
     }
 
     /**
      * Get share count for article
      */
-    public int getShareCount(String articleId) {
-        return preferences.getInt(KEY_SHARES_COUNT_PREFIX + articleId, 0);
+    public synchronized int getShareCount(String articleId) {
+        SocialInteractionEntity state = interactions.get(articleId);
+        return state != null ? state.shareCount : 0;
     }
 
     /**
      * Set share count for article
      */
     public void setShareCount(String articleId, int count) {
-        preferences.edit()
-            .putInt(KEY_SHARES_COUNT_PREFIX + articleId, count)
-            .apply();
+        if (articleId == null) return;
+        synchronized (this) {
+            change(articleId, state -> state.shareCount = count);
+        }
+        scheduleFlush();
     }
 
     /**
      * Get comment count for article
      */
-    public int getCommentCount(String articleId) {
-        return preferences.getInt(KEY_COMMENTS_COUNT_PREFIX + articleId, 0);
+    public synchronized int getCommentCount(String articleId) {
+        SocialInteractionEntity state = interactions.get(articleId);
+        return state != null ? state.commentCount : 0;
     }
 
     /**
      * Set comment count for article
      */
     public void setCommentCount(String articleId, int count) {
-        preferences.edit()
-            .putInt(KEY_COMMENTS_COUNT_PREFIX + articleId, count)
-            .apply();
+        if (articleId == null) return;
+        synchronized (this) {
+            change(articleId, state -> state.commentCount = count);
+        }
+        scheduleFlush();
     }
 
     /**
-     * Initialize article social state from preferences
+     * Initialize article social state from the in-memory interactions
      */
     public void initializeArticleSocialState(Article article) {
         if (article == null || article.getId() == null) return;
 
-        String articleId = article.getId();
+        SocialInteractionEntity state;
+        synchronized (this) {
+            state = interactions.get(article.getId());
+            if (state == null) {
+                article.setLikedByUser(false);
+                article.setSharedByUser(false);
+                return;
+            }
+            state = state.copy();
+        }
 
         // Set user interaction states
-        article.setLikedByUser(isLiked(articleId));
-        article.setSharedByUser(isShared(articleId));
-
-        // Set counts from preferences (or use defaults if not set)
-        int likeCount = getLikeCount(articleId);
-        int shareCount = getShareCount(articleId);
-        int commentCount = getCommentCount(articleId);
+        article.setLikedByUser(state.liked);
+        article.setSharedByUser(state.shared);
 
-        if (likeCount > 0) article.setLikeCount(likeCount);
-        if (shareCount > 0) article.setShareCount(shareCount);
-        if (commentCount > 0) article.setCommentCount(commentCount);
+        // Set counts from local state (or keep the article's values if not set)
+        if (state.likeCount > 0) article.setLikeCount(state.likeCount);
+        if (state.shareCount > 0) article.setShareCount(state.shareCount);
+        if (state.commentCount > 0) article.setCommentCount(state.commentCount);
     }
 
     /**
      * Reset all social interactions (for testing or user reset)
      */
     public void resetAllInteractions() {
-        preferences.edit().clear().apply();
+        synchronized (this) {
+            interactions.clear();
+            dirty.clear();
+            earlyChanges.clear();
+            cancelPendingFlush();
+        }
+        AppExecutors.io().execute(() -> {
+            synchronized (writeLock) {
+                try {
+                    dao.deleteAll();
+                } catch (Exception e) {
+                    Log.e(TAG, "Failed to reset interactions", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes pending changes now instead of waiting for the batch delay, e.g. when the screen
+     * that made them is paused.
+     */
+    public void flush() {
+        synchronized (this) {
+            if (dirty.isEmpty()) return;
+            cancelPendingFlush();
+        }
+        AppExecutors.io().execute(this::writeDirty);
+    }
+
+    /**
+     * Applies a change to the state of an article, creating it if needed, and marks it for the
+     * next flush. Before loading has finished the change is also kept for replay onto the
+     * stored row. Must hold the lock.
+     *
+     * @return The changed state
+     */
+    private SocialInteractionEntity change(String articleId, Consumer<SocialInteractionEntity> change) {
+        SocialInteractionEntity state = interactions.get(articleId);
+        if (state == null) {
+            state = new SocialInteractionEntity(articleId);
+            interactions.put(articleId, state);
+        }
+        change.accept(state);
+        state.updatedAt = System.currentTimeMillis();
+        dirty.add(articleId);
+        if (!loaded) {
+            List<Consumer<SocialInteractionEntity>> changes = earlyChanges.get(articleId);
+            if (changes == null) {
+                changes = new ArrayList<>();
+                earlyChanges.put(articleId, changes);
+            }
+            changes.add(change);
+        }
+        return state;
+    }
+
+    private static void setLiked(SocialInteractionEntity state, boolean liked) {
+        if (state.liked == liked) return;
+        state.liked = liked;
+        state.likeCount = liked ? state.likeCount + 1 : Math.max(0, state.likeCount - 1);
+    }
+
+    private static void setShared(SocialInteractionEntity state) {
+        if (state.shared) return;
+        state.shared = true;
+        state.shareCount++;
+    }
+
+    private synchronized void scheduleFlush() {
+        if (pendingFlush == null) {
+            pendingFlush = AppExecutors.scheduler().schedule(
+                    () -> AppExecutors.io().execute(this::writeDirty),
+                    FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void cancelPendingFlush() {
+        if (pendingFlush != null) {
+            pendingFlush.cancel(false);
+            pendingFlush = null;
+        }
+    }
+
+    /**
+     * Writes a snapshot of all changed articles in one transaction. Runs on the I/O pool.
+     */
+    private void writeDirty() {
+        synchronized (writeLock) {
+            List<SocialInteractionEntity> batch;
+            synchronized (this) {
+                pendingFlush = null;
+                if (!loaded || dirty.isEmpty()) {
+                    // Flushed once loading has merged the stored rows
+                    return;
+                }
+                batch = new ArrayList<>(dirty.size());
+                for (String articleId : dirty) {
+                    SocialInteractionEntity state = interactions.get(articleId);
+                    if (state != null) {
+                        batch.add(state.copy());
+                    }
+                }
+                dirty.clear();
+            }
+            try {
+                dao.upsertAll(batch);
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to write interactions", e);
+                synchronized (this) {
+                    // Keep them for the next flush
+                    for (SocialInteractionEntity state : batch) {
+                        dirty.add(state.articleId);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the stored interactions into memory, importing the legacy preferences on first run.
+     * Changes made before loading finished are replayed onto the stored rows, so counters
+     * continue from the stored values.
+     */
+    private void load() {
+        List<SocialInteractionEntity> stored;
+        try {
+            stored = dao.getAll();
+            stored = importLegacyPreferences(stored);
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to load interactions", e);
+            stored = new ArrayList<>();
+        }
+
+        boolean hasChanges;
+        synchronized (this) {
+            for (SocialInteractionEntity state : stored) {
+                List<Consumer<SocialInteractionEntity>> changes = earlyChanges.get(state.articleId);
+                SocialInteractionEntity early = interactions.get(state.articleId);
+                if (changes != null && early != null) {
+                    for (Consumer<SocialInteractionEntity> change : changes) {
+                        change.accept(state);
+                    }
+                    state.updatedAt = early.updatedAt;
+                }
+                interactions.put(state.articleId, state);
+            }
+            earlyChanges.clear();
+            loaded = true;
+            hasChanges = !dirty.isEmpty();
+        }
+        if (hasChanges) {
+            scheduleFlush();
+        }
+        mainHandler.post(() -> {
+            for (InteractionsListener listener : listeners) {
+                listener.onInteractionsLoaded();
+            }
+        });
+    }
+
+    /**
+     * Moves interactions from the old per-key SharedPreferences file into Room and clears the
+     * file. Rows already in Room win over the preferences.
+     *
+     * @return The stored rows including the imported ones
+     */
+    private List<SocialInteractionEntity> importLegacyPreferences(List<SocialInteractionEntity> stored) {
+        SharedPreferences preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        Map<String, ?> legacy = preferences.getAll();
+        if (legacy.isEmpty()) {
+            return stored;
+        }
+
+        Map<String, SocialInteractionEntity> imported = new HashMap<>();
+        for (Map.Entry<String, ?> entry : legacy.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            if (key.startsWith(KEY_LIKED_PREFIX) && value instanceof Boolean) {
+                legacyRow(imported, key, KEY_LIKED_PREFIX).liked = (Boolean) value;
+            } else if (key.startsWith(KEY_SHARED_PREFIX) && value instanceof Boolean) {
+                legacyRow(imported, key, KEY_SHARED_PREFIX).shared = (Boolean) value;
+            } else if (key.startsWith(KEY_LIKES_COUNT_PREFIX) && value instanceof Integer) {
+                legacyRow(imported, key, KEY_LIKES_COUNT_PREFIX).likeCount = (Integer) value;
+            } else if (key.startsWith(KEY_SHARES_COUNT_PREFIX) && value instanceof Integer) {
+                legacyRow(imported, key, KEY_SHARES_COUNT_PREFIX).shareCount = (Integer) value;
+            } else if (key.startsWith(KEY_COMMENTS_COUNT_PREFIX) && value instanceof Integer) {
+                legacyRow(imported, key, KEY_COMMENTS_COUNT_PREFIX).commentCount = (Integer) value;
+            }
+        }
+        for (SocialInteractionEntity state : stored) {
+            imported.remove(state.articleId);
+        }
+
+        List<SocialInteractionEntity> merged = new ArrayList<>(stored);
+        if (!imported.isEmpty()) {
+            List<SocialInteractionEntity> rows = new ArrayList<>(imported.values());
+            dao.upsertAll(rows);
+            merged.addAll(rows);
+        }
+        // Only cleared once the rows are safely in Room
+        preferences.edit().clear().commit();
+        return merged;
+    }
+
+    private static SocialInteractionEntity legacyRow(Map<String, SocialInteractionEntity> rows,
+                                                     String key, String prefix) {
+        String articleId = key.substring(prefix.length());
+        SocialInteractionEntity row = rows.get(articleId);
+        if (row == null) {
+            row = new SocialInteractionEntity(articleId);
+            rows.put(articleId, row);
+        }
+        return row;
     }
 }
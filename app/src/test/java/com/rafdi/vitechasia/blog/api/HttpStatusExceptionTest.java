@@ -0,0 +1,49 @@
+package com.rafdi.vitechasia.blog.api;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks parsing of the {@code Retry-After} header in both of its forms.
+ */
+public class HttpStatusExceptionTest {
+    // Sun, 06 Nov 1994 08:49:37 GMT
+    private static final long NOW = 784111777000L;
+
+    @Test
+    public void parsesDeltaSeconds() {
+        assertEquals(120_000, HttpStatusException.parseRetryAfter("120", NOW));
+        assertEquals(0, HttpStatusException.parseRetryAfter("0", NOW));
+        assertEquals(5_000, HttpStatusException.parseRetryAfter(" 5 ", NOW));
+    }
+
+    @Test
+    public void negativeOrHugeDeltaStaysInRange() {
+        assertEquals(0, HttpStatusException.parseRetryAfter("-30", NOW));
+        assertEquals(Long.MAX_VALUE, HttpStatusException.parseRetryAfter("9223372036854775807", NOW));
+    }
+
+    @Test
+    public void parsesHttpDateRelativeToNow() {
+        assertEquals(90_000, HttpStatusException.parseRetryAfter("Sun, 06 Nov 1994 08:51:07 GMT", NOW));
+        // A date in the past means retry right away
+        assertEquals(0, HttpStatusException.parseRetryAfter("Sun, 06 Nov 1994 08:00:00 GMT", NOW));
+    }
+
+    @Test
+    public void missingOrMalformedHeaderIsMinusOne() {
+        assertEquals(-1, HttpStatusException.parseRetryAfter(null, NOW));
+        assertEquals(-1, HttpStatusException.parseRetryAfter("  ", NOW));
+        assertEquals(-1, HttpStatusException.parseRetryAfter("soon", NOW));
+        assertEquals(-1, HttpStatusException.parseRetryAfter("1.5", NOW));
+    }
+
+    @Test
+    public void onlyRateLimitingAndServerErrorsAreRetryable() {
+        assertTrue(new HttpStatusException(429, "Too Many Requests", -1).isRetryable());
+        assertTrue(new HttpStatusException(503, "Service Unavailable", -1).isRetryable());
+        assertFalse(new HttpStatusException(404, "Not Found", -1).isRetryable());
+        assertFalse(new HttpStatusException(400, "Bad Request", -1).isRetryable());
+    }
+}
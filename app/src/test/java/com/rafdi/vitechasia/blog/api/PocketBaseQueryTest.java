@@ -0,0 +1,116 @@
+package com.rafdi.vitechasia.blog.api;
+
+import com.rafdi.vitechasia.blog.models.SearchFilters;
+
+import org.junit.Test;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the filter strings built by {@link PocketBaseQuery}: escaping of user input,
+ * multi-word search, the length bound of multi-get id groups and the sort tiebreaker.
+ */
+public class PocketBaseQueryTest {
+    private static final int MAX_LENGTH = 1700;
+
+    @Test
+    public void quoteEscapesQuotesAndBackslashes() {
+        assertEquals("'plain'", PocketBaseQuery.quote("plain"));
+        assertEquals("'it\\'s'", PocketBaseQuery.quote("it's"));
+        assertEquals("'C:\\\\temp'", PocketBaseQuery.quote("C:\\temp"));
+        // The backslash is escaped first, so an escaped quote can't be undone by the input
+        assertEquals("'\\\\\\''", PocketBaseQuery.quote("\\'"));
+        assertEquals("''", PocketBaseQuery.quote(null));
+    }
+
+    @Test
+    public void matchTextRequiresEveryWord() {
+        String filter = new PocketBaseQuery().matchText("  android   o'reilly ").getFilter();
+
+        assertEquals("((title~'android' || content~'android' || authorName~'android'))"
+                        + " && ((title~'o\\'reilly' || content~'o\\'reilly' || authorName~'o\\'reilly'))",
+                filter);
+    }
+
+    @Test
+    public void matchTextIgnoresBlankText() {
+        assertTrue(new PocketBaseQuery().matchText("   ").toQueryMap().isEmpty());
+        assertTrue(new PocketBaseQuery().matchText(null).toQueryMap().isEmpty());
+    }
+
+    @Test
+    public void partitionIdsKeepsEveryGroupWithinLimit() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ids.add(String.format("rec%012d", i));
+        }
+
+        List<List<String>> groups = PocketBaseQuery.partitionIds(ids, MAX_LENGTH);
+
+        assertTrue(groups.size() > 1);
+        List<String> flattened = new ArrayList<>();
+        for (List<String> group : groups) {
+            assertFalse(group.isEmpty());
+            assertTrue(encodedFilterLength(group) <= MAX_LENGTH);
+            flattened.addAll(group);
+        }
+        assertEquals(ids, flattened);
+    }
+
+    @Test
+    public void partitionIdsCountsEscapedCharacters() {
+        // Quotes and non-ASCII characters take several bytes once encoded
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add("d'\u00e9j\u00e0-" + i);
+        }
+
+        for (List<String> group : PocketBaseQuery.partitionIds(ids, 200)) {
+            assertTrue(encodedFilterLength(group) <= 200);
+        }
+    }
+
+    @Test
+    public void partitionIdsGivesOversizedIdItsOwnGroup() {
+        char[] chars = new char[MAX_LENGTH];
+        Arrays.fill(chars, 'x');
+        String oversized = new String(chars);
+
+        List<List<String>> groups = PocketBaseQuery.partitionIds(
+                Arrays.asList("a", oversized, "b"), MAX_LENGTH);
+
+        assertEquals(3, groups.size());
+        assertEquals(Collections.singletonList("a"), groups.get(0));
+        assertEquals(Collections.singletonList(oversized), groups.get(1));
+        assertEquals(Collections.singletonList("b"), groups.get(2));
+    }
+
+    @Test
+    public void partitionIdsOfNothingIsEmpty() {
+        assertTrue(PocketBaseQuery.partitionIds(Collections.emptyList(), MAX_LENGTH).isEmpty());
+    }
+
+    @Test
+    public void everyServerSortEndsWithIdTiebreaker() {
+        assertEquals("-publishDate,-id", PocketBaseQuery.sortFor(SearchFilters.SortBy.DATE_NEWEST));
+        assertEquals("publishDate,-id", PocketBaseQuery.sortFor(SearchFilters.SortBy.DATE_OLDEST));
+        assertEquals("-viewCount,-id", PocketBaseQuery.sortFor(SearchFilters.SortBy.POPULARITY));
+        assertNull(PocketBaseQuery.sortFor(SearchFilters.SortBy.RELEVANCE));
+    }
+
+    private static int encodedFilterLength(List<String> ids) {
+        String filter = new PocketBaseQuery().withIds(ids).getFilter();
+        try {
+            return URLEncoder.encode(filter, "UTF-8").length();
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.rafdi.vitechasia.blog.api;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.lang.reflect.Type;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the streaming adapters registered by {@link ApiClient#createGson()} bind a
+ * 100-item page, the largest page the app requests, the same way reflection-based Gson does.
+ */
+public class PocketBaseResponseParsingTest {
+    private static final int ITEMS = 100;
+    private static final Type PAGE_TYPE = new TypeToken<PocketBaseResponse<Article>>() {}.getType();
+
+    private final Gson streaming = ApiClient.createGson();
+    private final Gson reflective = createReflectiveGson();
+
+    @Test
+    public void streamingAdapterBindsSamePage() {
+        String json = buildPage(ITEMS);
+        PocketBaseResponse<Article> expected = parse(reflective, json);
+        PocketBaseResponse<Article> actual = parse(streaming, json);
+
+        assertEquals(expected.getPage(), actual.getPage());
+        assertEquals(expected.getPerPage(), actual.getPerPage());
+        assertEquals(expected.getTotalItems(), actual.getTotalItems());
+        assertEquals(expected.getTotalPages(), actual.getTotalPages());
+        assertEquals(ITEMS, actual.getItems().size());
+        for (int i = 0; i < ITEMS; i++) {
+            Article e = expected.getItems().get(i);
+            Article a = actual.getItems().get(i);
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getTitle(), a.getTitle());
+            assertEquals(e.getContent(), a.getContent());
+            assertEquals(e.getCategoryId(), a.getCategoryId());
+            assertEquals(e.getAuthorName(), a.getAuthorName());
+            assertEquals(e.getViewCount(), a.getViewCount());
+            assertEquals(e.getLikeCount(), a.getLikeCount());
+            assertNotNull(a.getPublishDate());
+        }
+        assertEquals(PocketBaseDates.parse("2024-03-01 08:30:00.000Z"),
+                actual.getItems().get(0).getPublishDate());
+    }
+
+    /**
+     * What GsonConverterFactory.create() did before, with a date pattern so publishDate binds.
+     */
+    private static Gson createReflectiveGson() {
+        return new GsonBuilder()
+                .setDateFormat("yyyy-MM-dd HH:mm:ss.SSS'Z'")
+                .create();
+    }
+
+    private static PocketBaseResponse<Article> parse(Gson gson, String json) {
+        // A Reader, like the converter's ResponseBody.charStream()
+        return gson.fromJson(new StringReader(json), PAGE_TYPE);
+    }
+
+    /**
+     * Builds a page shaped like a PocketBase list response, including the record metadata
+     * fields that Article doesn't map.
+     */
+    private static String buildPage(int count) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"page\":1,\"perPage\":").append(count)
+                .append(",\"totalItems\":").append(count * 3)
+                .append(",\"totalPages\":3,\"items\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"collectionId\":\"pbc_article\",\"collectionName\":\"Article\"")
+                    .append(",\"id\":\"article").append(i).append('"')
+                    .append(",\"title\":\"Article title number ").append(i).append('"')
+                    .append(",\"content\":\"").append(paragraph(i)).append('"')
+                    .append(",\"imageUrl\":\"https://example.com/images/").append(i).append(".jpg\"")
+                    .append(",\"categoryId\":\"technology\",\"subcategoryId\":\"ai\"")
+                    .append(",\"authorId\":\"author").append(i % 7).append('"')
+                    .append(",\"authorName\":\"Author ").append(i % 7).append('"')
+                    .append(",\"authorImageUrl\":\"https://example.com/authors/").append(i % 7).append(".jpg\"")
+                    .append(",\"publishDate\":\"2024-03-").append(String.format("%02d", i % 28 + 1))
+                    .append(" 08:30:00.000Z\"")
+                    .append(",\"viewCount\":").append(i * 13)
+                    .append(",\"likeCount\":").append(i * 3)
+                    .append(",\"shareCount\":").append(i)
+                    .append(",\"commentCount\":").append(i % 5)
+                    .append(",\"created\":\"2024-02-28 12:00:00.000Z\"")
+                    .append(",\"updated\":\"2024-03-02 12:00:00.000Z\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String paragraph(int seed) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            text.append("Sentence ").append(seed).append('.').append(i)
+                    .append(" about technology and the people who build it. ");
+        }
+        return text.toString();
+    }
+}
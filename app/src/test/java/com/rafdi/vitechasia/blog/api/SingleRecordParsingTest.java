@@ -0,0 +1,56 @@
+package com.rafdi.vitechasia.blog.api;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the record returned by {@link ArticleApiService#getArticleById(String, String)},
+ * which PocketBase sends as a bare object rather than a list response, binds to an Article.
+ */
+public class SingleRecordParsingTest {
+    private static final String RECORD = "{"
+            + "\"collectionId\":\"pbc_article\",\"collectionName\":\"Article\","
+            + "\"id\":\"abc123def456ghi\","
+            + "\"title\":\"Building offline-first apps\","
+            + "\"content\":\"<p>Full article body</p>\","
+            + "\"imageUrl\":\"https://example.com/images/1.jpg\","
+            + "\"category\":\"tech\",\"subcategory\":\"android\","
+            + "\"authorName\":\"Jane Doe\","
+            + "\"publishDate\":\"2024-03-01 08:30:00.000Z\","
+            + "\"viewCount\":42,\"likeCount\":7,"
+            + "\"created\":\"2024-02-28 12:00:00.000Z\","
+            + "\"updated\":\"2024-03-02 12:00:00.000Z\""
+            + "}";
+
+    private final Gson gson = ApiClient.createGson();
+
+    @Test
+    public void bareRecordBindsToArticle() {
+        Article article = gson.fromJson(RECORD, Article.class);
+
+        assertEquals("abc123def456ghi", article.getId());
+        assertEquals("Building offline-first apps", article.getTitle());
+        assertEquals("<p>Full article body</p>", article.getContent());
+        assertEquals("tech", article.getCategoryId());
+        assertEquals("android", article.getSubcategoryId());
+        assertEquals(42, article.getViewCount());
+        assertEquals(PocketBaseDates.parse("2024-03-01 08:30:00.000Z"), article.getPublishDate());
+        assertEquals(PocketBaseDates.parse("2024-03-02 12:00:00.000Z"), article.getUpdated());
+    }
+
+    @Test
+    public void bareRecordHasNoListItems() {
+        // What the endpoint was declared as before: a list response has no items here
+        Type listType = new TypeToken<PocketBaseResponse<Article>>() {}.getType();
+        PocketBaseResponse<Article> response = gson.fromJson(RECORD, listType);
+
+        assertTrue(response.getItems() == null || response.getItems().isEmpty());
+    }
+}
@@ -0,0 +1,118 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that {@link ArticleIndex#withArticles(java.util.Collection)} leaves its inputs alone
+ * and that its incrementally updated views match an index built from scratch.
+ */
+public class ArticleIndexTest {
+    private int sequence;
+
+    @Test
+    public void summaryKeepsLoadedContentWithoutChangingTheCallersArticle() {
+        Article full = article("a", "tech", "android", 10);
+        full.setContent("Body");
+        ArticleIndex index = ArticleIndex.build(Collections.singletonList(full), 1);
+
+        Article summary = article("a", "tech", "android", 20);
+        ArticleIndex updated = index.withArticles(Collections.singletonList(summary));
+
+        assertNull(summary.getContent());
+        assertNotSame(summary, updated.getById("a"));
+        assertEquals("Body", updated.getById("a").getContent());
+        assertEquals(20, updated.getById("a").getViewCount());
+        assertEquals(2, updated.getVersion());
+        // The previous snapshot is unchanged
+        assertSame(full, index.getById("a"));
+        assertEquals(10, index.getById("a").getViewCount());
+    }
+
+    @Test
+    public void articleMovedToAnotherCategoryLeavesItsOldGroup() {
+        ArticleIndex index = ArticleIndex.build(Arrays.asList(
+                article("a", "tech", "android", 1),
+                article("b", "tech", "web", 2)), 1);
+
+        ArticleIndex updated = index.withArticles(Collections.singletonList(article("a", "sports", "football", 1)));
+
+        assertEquals(Collections.singletonList("b"), ids(updated.getByCategory("tech")));
+        assertEquals(Collections.singletonList("a"), ids(updated.getByCategory("SPORTS")));
+        assertTrue(updated.getBySubcategory("android").isEmpty());
+        assertEquals(2, updated.size());
+    }
+
+    @Test
+    public void incrementalViewsMatchARebuild() {
+        Random random = new Random(42);
+        List<Article> catalog = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            catalog.add(randomArticle("id" + i, random));
+        }
+        ArticleIndex index = ArticleIndex.build(catalog, 1);
+
+        for (int round = 0; round < 20; round++) {
+            List<Article> batch = new ArrayList<>();
+            for (int i = 0; i < 15; i++) {
+                Article changed = randomArticle("id" + random.nextInt(260), random);
+                batch.add(changed);
+                catalog.removeIf(article -> article.getId().equals(changed.getId()));
+                catalog.add(changed);
+            }
+            index = index.withArticles(batch);
+            ArticleIndex rebuilt = ArticleIndex.build(index.getAll(), index.getVersion());
+
+            assertEquals(ids(rebuilt.getAll()), ids(index.getAll()));
+            assertEquals(ids(rebuilt.getMostViewed(50)), ids(index.getMostViewed(50)));
+            assertEquals(ids(rebuilt.getMostLiked(50)), ids(index.getMostLiked(50)));
+            assertEquals(ids(rebuilt.getNewest(50)), ids(index.getNewest(50)));
+            for (String category : Arrays.asList("tech", "health", "sports")) {
+                assertEquals(ids(rebuilt.getByCategory(category)), ids(index.getByCategory(category)));
+            }
+            for (String author : Arrays.asList("author0", "author1", "author2")) {
+                assertEquals(ids(rebuilt.getByAuthor(author)), ids(index.getByAuthor(author)));
+            }
+        }
+    }
+
+    /** Sort keys end in a sequence number so the sorted views have no ties to order differently. */
+    private Article randomArticle(String id, Random random) {
+        String[] categories = {"tech", "health", "sports"};
+        int unique = sequence++;
+        Article article = article(id, categories[random.nextInt(categories.length)],
+                "sub" + random.nextInt(5), random.nextInt(1000) * 1000 + unique);
+        article.setLikeCount(random.nextInt(1000) * 1000 + unique);
+        article.setAuthorId("author" + random.nextInt(3));
+        article.setPublishDate(new Date(1_700_000_000_000L + random.nextInt(1_000_000) * 1000L + unique));
+        return article;
+    }
+
+    private static Article article(String id, String category, String subcategory, int views) {
+        Article article = new Article();
+        article.setId(id);
+        article.setTitle("Title " + id);
+        article.setCategoryId(category);
+        article.setSubcategoryId(subcategory);
+        article.setViewCount(views);
+        return article;
+    }
+
+    private static List<String> ids(List<Article> articles) {
+        List<String> ids = new ArrayList<>();
+        for (Article article : articles) {
+            ids.add(article.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,134 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks tokenization, matching and ranking of {@link ArticleSearchIndex}.
+ */
+public class ArticleSearchIndexTest {
+    private ArticleSearchIndex index;
+
+    @Before
+    public void setUp() {
+        index = new ArticleSearchIndex();
+        index.rebuild(Arrays.asList(
+                article("title", "Android performance tips", "Jane Doe", "Profiling apps."),
+                article("body", "Weekly roundup", "John Roe", "A note on android tooling and performance."),
+                article("author", "Gardening basics", "Andrea Android", "Soil and water."),
+                article("other", "Cooking at home", "Sam Poe", "Simple recipes.")), 1);
+    }
+
+    @Test
+    public void tokenizeLowercasesAndSplitsOnNonAlphanumerics() {
+        assertEquals(Arrays.asList("c", "is", "fun", "2024", "o", "reilly"),
+                ArticleSearchIndex.tokenize("  C++ is FUN... 2024 O'Reilly "));
+        assertEquals(Collections.singletonList("caf\u00e9"), ArticleSearchIndex.tokenize("Caf\u00c9"));
+        assertTrue(ArticleSearchIndex.tokenize("").isEmpty());
+        assertTrue(ArticleSearchIndex.tokenize(" -- ").isEmpty());
+        assertTrue(ArticleSearchIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    public void titleMatchRanksAboveAuthorAboveContent() {
+        assertEquals(Arrays.asList("title", "author", "body"), ids(index.search("android", 0)));
+    }
+
+    @Test
+    public void everyTermMustMatch() {
+        assertEquals(Arrays.asList("title", "body"), ids(index.search("android performance", 0)));
+        assertTrue(index.search("android cooking", 0).isEmpty());
+    }
+
+    @Test
+    public void exactPhraseRanksFirst() {
+        index.update(Collections.singletonList(
+                article("phrase", "Tips on performance", "Jo Ann", "Android apps and performance tips.")), 2);
+
+        // Both have "performance" and "tips" in their title and the exact phrase in one field:
+        // "title" in its title, "phrase" in its body. "phrase" also matches both words in its
+        // body, so it scores higher
+        List<String> results = ids(index.search("performance tips", 0));
+
+        assertEquals(Arrays.asList("phrase", "title"), results);
+    }
+
+    @Test
+    public void onlyLastTermMatchesAsPrefix() {
+        assertEquals(Arrays.asList("title", "author", "body"), ids(index.search("androi", 0)));
+        // "andr" also matches "Andrea", so the author's name matches twice
+        assertEquals(Arrays.asList("author", "title", "body"), ids(index.search("andr", 0)));
+        assertEquals(Arrays.asList("title", "body"), ids(index.search("android perf", 0)));
+        // An earlier term has to be a whole word
+        assertTrue(index.search("andr performance", 0).isEmpty());
+    }
+
+    @Test
+    public void limitCapsResults() {
+        assertEquals(Collections.singletonList("title"), ids(index.search("android", 1)));
+    }
+
+    @Test
+    public void emptyQueryFindsNothing() {
+        assertTrue(index.search("", 0).isEmpty());
+        assertTrue(index.search("  !! ", 0).isEmpty());
+        assertTrue(index.search(null, 0).isEmpty());
+    }
+
+    @Test
+    public void removedArticleIsNoLongerFound() {
+        index.remove("title");
+
+        assertEquals(Arrays.asList("author", "body"), ids(index.search("android", 0)));
+        assertTrue(index.search("profiling", 0).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void reindexedArticleMatchesItsNewText() {
+        index.update(Collections.singletonList(
+                article("title", "Kotlin coroutines", "Jane Doe", "Structured concurrency.")), 2);
+
+        assertEquals(Arrays.asList("author", "body"), ids(index.search("android", 0)));
+        assertEquals(Collections.singletonList("title"), ids(index.search("coroutines", 0)));
+        assertEquals(4, index.size());
+        assertEquals(2, index.getVersion());
+    }
+
+    @Test
+    public void rankKeepsUnscoredCandidatesInServerOrder() {
+        List<Article> candidates = Arrays.asList(
+                article("x", "Unrelated", "Nobody", "Nothing"),
+                index.search("android", 0).get(2),
+                article("y", "Also unrelated", "Nobody", "Nothing"),
+                index.search("android", 0).get(0));
+
+        assertEquals(Arrays.asList("title", "body", "x", "y"), ids(index.rank("android", candidates)));
+    }
+
+    private static Article article(String id, String title, String authorName, String content) {
+        Article article = new Article();
+        article.setId(id);
+        article.setTitle(title);
+        article.setAuthorName(authorName);
+        article.setContent(content);
+        return article;
+    }
+
+    private static List<String> ids(List<Article> articles) {
+        List<String> ids = new ArrayList<>();
+        for (Article article : articles) {
+            ids.add(article.getId());
+        }
+        return ids;
+    }
+}
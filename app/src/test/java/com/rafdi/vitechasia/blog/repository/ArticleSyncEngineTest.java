@@ -0,0 +1,541 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import android.content.SharedPreferences;
+
+import com.rafdi.vitechasia.blog.api.ArticleApiService;
+import com.rafdi.vitechasia.blog.api.PocketBaseDates;
+import com.rafdi.vitechasia.blog.api.PocketBaseQuery;
+import com.rafdi.vitechasia.blog.api.PocketBaseResponse;
+import com.rafdi.vitechasia.blog.database.ArticleDao;
+import com.rafdi.vitechasia.blog.database.ArticleEntity;
+import com.rafdi.vitechasia.blog.database.ArticlePageEntity;
+import com.rafdi.vitechasia.blog.database.ArticleSummary;
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs {@link ArticleSyncEngine} against an in-memory server, cache and preferences. The fake
+ * server answers the queries the engine builds the way PocketBase would, so the tests check
+ * that the cache ends up holding what the server holds.
+ */
+public class ArticleSyncEngineTest {
+    private static final long HOUR_MS = 3_600_000L;
+    private static final long BASE_TIME = 1_700_000_000_000L;
+
+    private long now = BASE_TIME;
+    private final FakeServer server = new FakeServer();
+    private final FakeDao dao = new FakeDao();
+    private final FakePreferences preferences = new FakePreferences();
+    private final ExecutorService pageExecutor = Executors.newFixedThreadPool(3);
+    private final ArticleSyncEngine engine = new ArticleSyncEngine(server, dao, preferences,
+            null, Runnable::run, pageExecutor, () -> now);
+
+    @After
+    public void shutDown() {
+        pageExecutor.shutdownNow();
+    }
+
+    @Test
+    public void firstSyncFetchesEveryPageAndDeliversTheNewestFirst() throws Exception {
+        server.create(450);
+        List<List<Article>> firstPages = new ArrayList<>();
+
+        ArticleSyncEngine.SyncResult result = engine.syncNow(firstPages::add);
+
+        assertTrue(engine.hasCompleteCatalog());
+        assertEquals(450, result.changed);
+        assertEquals(server.ids(), dao.ids());
+        assertEquals(1, firstPages.size());
+        assertEquals(200, firstPages.get(0).size());
+        assertEquals("a449", firstPages.get(0).get(0).getId());
+    }
+
+    @Test
+    public void fullSyncFetchesRecordsSkippedByADeletionBetweenPages() throws Exception {
+        server.create(450);
+        // Shifts every later record one position towards the first page
+        server.afterFirstFullPage = () -> server.delete("a449");
+
+        engine.syncNow(null);
+
+        assertEquals(449, dao.ids().size());
+        assertEquals(server.ids(), dao.ids());
+    }
+
+    @Test
+    public void laterSyncsOnlyFetchChanges() throws Exception {
+        server.create(450);
+        engine.syncNow(null);
+        server.requests.clear();
+
+        now += HOUR_MS;
+        server.rename("a10", "Edited");
+        server.create(1);
+
+        ArticleSyncEngine.SyncResult result = engine.syncNow(null);
+
+        assertEquals(2, result.changed);
+        assertEquals(0, result.deleted);
+        assertEquals("Edited", dao.rows.get("a10").title);
+        assertEquals(server.ids(), dao.ids());
+        assertFalse(server.requests.contains(FakeServer.FULL));
+        assertFalse(server.requests.contains(FakeServer.ID_LIST));
+    }
+
+    @Test
+    public void deletionIsReconciledWhenTheCountsDiffer() throws Exception {
+        server.create(450);
+        engine.syncNow(null);
+
+        now += HOUR_MS;
+        server.delete("a42");
+        ArticleSyncEngine.SyncResult result = engine.syncNow(null);
+
+        assertEquals(1, result.deleted);
+        assertEquals(server.ids(), dao.ids());
+    }
+
+    @Test
+    public void deletionBalancedByACreationIsReconciledOnceTheListingIsDue() throws Exception {
+        server.create(450);
+        engine.syncNow(null);
+
+        now += HOUR_MS;
+        server.delete("a42");
+        server.create(1);
+        // Cached by a list page before the sync sees it, so the counts match after the merge
+        dao.insert(ArticleEntity.fromArticle(server.records.get("a450")));
+        engine.syncNow(null);
+        assertTrue(dao.rows.containsKey("a42"));
+
+        now += 24 * HOUR_MS;
+        ArticleSyncEngine.SyncResult result = engine.syncNow(null);
+
+        assertEquals(1, result.deleted);
+        assertEquals(server.ids(), dao.ids());
+    }
+
+    /**
+     * Answers the list queries of the engine from a set of records, routing them by sort order
+     * the way the engine builds them.
+     */
+    private class FakeServer implements ArticleApiService {
+        static final String FULL = "full";
+        static final String CHANGES = "changes";
+        static final String ID_LIST = "ids";
+        static final String COUNT = "count";
+        static final String BY_ID = "byId";
+
+        private final Pattern updatedAfter = Pattern.compile("updated>'([^']*)'");
+        private final Pattern idAfter = Pattern.compile("\\bid>'([^']*)'");
+        private final Pattern idEquals = Pattern.compile("\\bid='([^']*)'");
+
+        final Map<String, Article> records = new TreeMap<>();
+        final List<String> requests = new ArrayList<>();
+        Runnable afterFirstFullPage;
+        private int created = 0;
+        private long lastUpdated = BASE_TIME;
+
+        void create(int count) {
+            for (int i = 0; i < count; i++) {
+                Article article = new Article();
+                article.setId("a" + created++);
+                article.setTitle("Title");
+                article.setPublishDate(new Date(BASE_TIME));
+                touch(article);
+                records.put(article.getId(), article);
+            }
+        }
+
+        void rename(String id, String title) {
+            Article article = records.get(id);
+            article.setTitle(title);
+            touch(article);
+        }
+
+        void delete(String id) {
+            records.remove(id);
+        }
+
+        Set<String> ids() {
+            return new HashSet<>(records.keySet());
+        }
+
+        private void touch(Article article) {
+            lastUpdated += 1000;
+            article.setUpdated(new Date(lastUpdated));
+        }
+
+        @Override
+        public synchronized Call<PocketBaseResponse<Article>> getArticles(int page, int perPage,
+                                                                         Map<String, String> params) {
+            String filter = params.getOrDefault(PocketBaseQuery.PARAM_FILTER, "");
+            String sort = params.get(PocketBaseQuery.PARAM_SORT);
+            List<Article> matching = new ArrayList<>(records.values());
+            String kind;
+            if ("-updated,-id".equals(sort)) {
+                kind = FULL;
+                matching.sort(byUpdatedThenId().reversed());
+            } else if ("updated,id".equals(sort)) {
+                kind = CHANGES;
+                long after = PocketBaseDates.parseMillis(group(updatedAfter, filter));
+                String afterId = group(idAfter, filter);
+                matching.removeIf(article -> {
+                    long updated = article.getUpdated().getTime();
+                    return updated < after || (updated == after
+                            && (afterId == null || article.getId().compareTo(afterId) <= 0));
+                });
+                matching.sort(byUpdatedThenId());
+            } else if ("id".equals(sort)) {
+                kind = ID_LIST;
+                String afterId = group(idAfter, filter);
+                if (afterId != null) {
+                    matching.removeIf(article -> article.getId().compareTo(afterId) <= 0);
+                }
+            } else if (filter.isEmpty()) {
+                kind = COUNT;
+            } else {
+                kind = BY_ID;
+                Set<String> wanted = new HashSet<>();
+                Matcher matcher = idEquals.matcher(filter);
+                while (matcher.find()) {
+                    wanted.add(matcher.group(1));
+                }
+                matching.removeIf(article -> !wanted.contains(article.getId()));
+            }
+            requests.add(kind);
+
+            int from = Math.min((page - 1) * perPage, matching.size());
+            List<Article> items = new ArrayList<>(matching.subList(from, Math.min(from + perPage, matching.size())));
+            int totalPages = (matching.size() + perPage - 1) / perPage;
+            PocketBaseResponse<Article> body =
+                    new PocketBaseResponse<>(items, page, perPage, matching.size(), totalPages);
+            if (FULL.equals(kind) && page == 1 && afterFirstFullPage != null) {
+                afterFirstFullPage.run();
+            }
+            return new FakeCall<>(Response.success(body));
+        }
+
+        private Comparator<Article> byUpdatedThenId() {
+            return Comparator.comparing(Article::getUpdated).thenComparing(Article::getId);
+        }
+
+        private String group(Pattern pattern, String filter) {
+            Matcher matcher = pattern.matcher(filter);
+            return matcher.find() ? matcher.group(1) : null;
+        }
+
+        @Override
+        public Call<PocketBaseResponse<Article>> getAllArticles(String sort) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Call<PocketBaseResponse<Article>> getFirstMatchingArticle(String filter, String expand) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Call<Article> getArticleById(String id, String expand) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class FakeCall<T> implements Call<T> {
+        private final Response<T> response;
+        private boolean cancelled = false;
+
+        FakeCall(Response<T> response) {
+            this.response = response;
+        }
+
+        @Override
+        public Response<T> execute() {
+            return response;
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            callback.onResponse(this, response);
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return true;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return cancelled;
+        }
+
+        @Override
+        public Call<T> clone() {
+            return new FakeCall<>(response);
+        }
+
+        @Override
+        public Request request() {
+            return new Request.Builder().url("http://localhost/").build();
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+    }
+
+    /**
+     * Keeps the rows in a map; the upsert of {@link ArticleDao} runs on top of it as is.
+     */
+    private static class FakeDao implements ArticleDao {
+        final Map<String, ArticleEntity> rows = new HashMap<>();
+
+        Set<String> ids() {
+            return new HashSet<>(rows.keySet());
+        }
+
+        @Override
+        public List<ArticleEntity> getPage(String queryKey, int page) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getPageSize(String queryKey, int page) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deletePage(String queryKey, int page) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void insertPageEntries(List<ArticlePageEntity> entries) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<ArticleEntity> getAllArticles() {
+            return new ArrayList<>(rows.values());
+        }
+
+        @Override
+        public int getArticleCount() {
+            return rows.size();
+        }
+
+        @Override
+        public List<String> getAllIds() {
+            return new ArrayList<>(rows.keySet());
+        }
+
+        @Override
+        public void deleteByIds(List<String> ids) {
+            rows.keySet().removeAll(ids);
+        }
+
+        @Override
+        public ArticleEntity getArticleById(String id) {
+            return rows.get(id);
+        }
+
+        @Override
+        public List<ArticleEntity> getArticlesByIds(List<String> ids) {
+            List<ArticleEntity> found = new ArrayList<>();
+            for (String id : ids) {
+                if (rows.containsKey(id)) {
+                    found.add(rows.get(id));
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public void insertAll(List<ArticleEntity> articles) {
+            for (ArticleEntity article : articles) {
+                insert(article);
+            }
+        }
+
+        @Override
+        public void insert(ArticleEntity article) {
+            rows.put(article.id, article);
+        }
+
+        @Override
+        public void insertAllIfAbsent(List<ArticleEntity> articles) {
+            for (ArticleEntity article : articles) {
+                rows.putIfAbsent(article.id, article);
+            }
+        }
+
+        @Override
+        public void updateSummaries(List<ArticleSummary> summaries) {
+            for (ArticleSummary summary : summaries) {
+                ArticleEntity row = rows.get(summary.id);
+                if (row != null) {
+                    row.title = summary.title;
+                    row.publishDate = summary.publishDate;
+                    row.viewCount = summary.viewCount;
+                }
+            }
+        }
+    }
+
+    private static class FakePreferences implements SharedPreferences {
+        private final Map<String, Object> values = new HashMap<>();
+
+        @Override
+        public Map<String, ?> getAll() {
+            return new HashMap<>(values);
+        }
+
+        @Override
+        public String getString(String key, String defValue) {
+            return values.containsKey(key) ? (String) values.get(key) : defValue;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Set<String> getStringSet(String key, Set<String> defValues) {
+            return values.containsKey(key) ? (Set<String>) values.get(key) : defValues;
+        }
+
+        @Override
+        public int getInt(String key, int defValue) {
+            return values.containsKey(key) ? (Integer) values.get(key) : defValue;
+        }
+
+        @Override
+        public long getLong(String key, long defValue) {
+            return values.containsKey(key) ? (Long) values.get(key) : defValue;
+        }
+
+        @Override
+        public float getFloat(String key, float defValue) {
+            return values.containsKey(key) ? (Float) values.get(key) : defValue;
+        }
+
+        @Override
+        public boolean getBoolean(String key, boolean defValue) {
+            return values.containsKey(key) ? (Boolean) values.get(key) : defValue;
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return values.containsKey(key);
+        }
+
+        @Override
+        public Editor edit() {
+            return new FakeEditor();
+        }
+
+        @Override
+        public void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+        }
+
+        @Override
+        public void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+        }
+
+        private class FakeEditor implements Editor {
+            private final Map<String, Object> changes = new HashMap<>();
+            private final Set<String> removed = new HashSet<>();
+            private boolean cleared = false;
+
+            @Override
+            public Editor putString(String key, String value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putStringSet(String key, Set<String> values) {
+                changes.put(key, values);
+                return this;
+            }
+
+            @Override
+            public Editor putInt(String key, int value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putLong(String key, long value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putFloat(String key, float value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor putBoolean(String key, boolean value) {
+                changes.put(key, value);
+                return this;
+            }
+
+            @Override
+            public Editor remove(String key) {
+                removed.add(key);
+                return this;
+            }
+
+            @Override
+            public Editor clear() {
+                cleared = true;
+                return this;
+            }
+
+            @Override
+            public boolean commit() {
+                apply();
+                return true;
+            }
+
+            @Override
+            public void apply() {
+                if (cleared) {
+                    values.clear();
+                }
+                values.keySet().removeAll(removed);
+                values.putAll(changes);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import com.rafdi.vitechasia.blog.utils.Cancellable;
+import com.rafdi.vitechasia.blog.utils.RetryWithBackoff;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks how {@link RequestCoalescer} shares, memoizes and cancels requests. Requests are
+ * completed by hand and memoized results are delivered inline.
+ */
+public class RequestCoalescerTest {
+    private static final long TTL_MS = 1000;
+
+    private long now = 0;
+    private final RequestCoalescer<String> coalescer =
+            new RequestCoalescer<>(TTL_MS, 2, Runnable::run, () -> now);
+
+    @Test
+    public void concurrentCallersShareOneRequest() {
+        FakeRequest request = new FakeRequest();
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+
+        coalescer.execute("page=1", request, first);
+        coalescer.execute("page=1", request, second);
+        request.succeed(0, "result");
+
+        assertEquals(1, request.starts());
+        assertEquals(Collections.singletonList("result"), first.results);
+        assertEquals(Collections.singletonList("result"), second.results);
+    }
+
+    @Test
+    public void differentKeysStartSeparateRequests() {
+        FakeRequest request = new FakeRequest();
+
+        coalescer.execute("page=1", request, new Recorder());
+        coalescer.execute("page=2", request, new Recorder());
+
+        assertEquals(2, request.starts());
+    }
+
+    @Test
+    public void resultIsMemoizedUntilTtlExpires() {
+        FakeRequest request = new FakeRequest();
+        coalescer.execute("page=1", request, new Recorder());
+        request.succeed(0, "result");
+
+        now += TTL_MS - 1;
+        Recorder memoized = new Recorder();
+        coalescer.execute("page=1", request, memoized);
+        assertEquals(1, request.starts());
+        assertEquals(Collections.singletonList("result"), memoized.results);
+
+        now += 1;
+        coalescer.execute("page=1", request, new Recorder());
+        assertEquals(2, request.starts());
+    }
+
+    @Test
+    public void errorsAreDeliveredToAllWaitersAndNotMemoized() {
+        FakeRequest request = new FakeRequest();
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+
+        coalescer.execute("page=1", request, first);
+        coalescer.execute("page=1", request, second);
+        request.fail(0, "offline");
+        coalescer.execute("page=1", request, new Recorder());
+
+        assertEquals(Collections.singletonList("offline"), first.errors);
+        assertEquals(Collections.singletonList("offline"), second.errors);
+        assertEquals(2, request.starts());
+    }
+
+    @Test
+    public void clearForgetsMemoizedResults() {
+        FakeRequest request = new FakeRequest();
+        coalescer.execute("page=1", request, new Recorder());
+        request.succeed(0, "result");
+
+        coalescer.clear();
+        coalescer.execute("page=1", request, new Recorder());
+
+        assertEquals(2, request.starts());
+    }
+
+    @Test
+    public void requestInFlightDuringClearIsNeitherJoinedNorMemoized() {
+        FakeRequest request = new FakeRequest();
+        Recorder before = new Recorder();
+        coalescer.execute("page=1", request, before);
+
+        coalescer.clear();
+        Recorder after = new Recorder();
+        coalescer.execute("page=1", request, after);
+        request.succeed(0, "stale");
+        request.succeed(1, "fresh");
+        coalescer.execute("page=1", request, new Recorder());
+
+        assertEquals(Collections.singletonList("stale"), before.results);
+        assertEquals(Collections.singletonList("fresh"), after.results);
+        // The fresh result was memoized, so only the two requests around the clear ran
+        assertEquals(2, request.starts());
+    }
+
+    @Test
+    public void resultOfRequestStartedBeforeClearIsNotMemoized() {
+        FakeRequest request = new FakeRequest();
+        coalescer.execute("page=1", request, new Recorder());
+
+        coalescer.clear();
+        request.succeed(0, "stale");
+        coalescer.execute("page=1", request, new Recorder());
+
+        assertEquals(2, request.starts());
+    }
+
+    @Test
+    public void memoIsBoundedToMaxEntries() {
+        FakeRequest request = new FakeRequest();
+        for (String key : Arrays.asList("a", "b", "c")) {
+            coalescer.execute(key, request, new Recorder());
+            request.succeed(request.starts() - 1, key);
+        }
+
+        // "a" was the least recently used of the three and was evicted
+        coalescer.execute("c", request, new Recorder());
+        coalescer.execute("a", request, new Recorder());
+
+        assertEquals(4, request.starts());
+    }
+
+    @Test
+    public void cancellingOneWaiterKeepsTheRequestForTheOthers() {
+        FakeRequest request = new FakeRequest();
+        Recorder cancelled = new Recorder();
+        Recorder remaining = new Recorder();
+
+        Cancellable handle = coalescer.execute("page=1", request, cancelled);
+        coalescer.execute("page=1", request, remaining);
+        handle.cancel();
+        request.succeed(0, "result");
+
+        assertFalse(request.handles.get(0).isCancelled());
+        assertTrue(cancelled.results.isEmpty());
+        assertEquals(Collections.singletonList("result"), remaining.results);
+    }
+
+    @Test
+    public void cancellingTheLastWaiterCancelsTheRequest() {
+        FakeRequest request = new FakeRequest();
+
+        Cancellable first = coalescer.execute("page=1", request, new Recorder());
+        Cancellable second = coalescer.execute("page=1", request, new Recorder());
+        first.cancel();
+        second.cancel();
+
+        assertTrue(request.handles.get(0).isCancelled());
+        // The next caller starts over instead of joining the cancelled request
+        coalescer.execute("page=1", request, new Recorder());
+        assertEquals(2, request.starts());
+    }
+
+    @Test
+    public void cancelledCallerDoesNotReceiveMemoizedResult() {
+        List<Runnable> posted = new ArrayList<>();
+        RequestCoalescer<String> deferred = new RequestCoalescer<>(TTL_MS, 2, posted::add, () -> now);
+        FakeRequest request = new FakeRequest();
+        deferred.execute("page=1", request, new Recorder());
+        request.succeed(0, "result");
+
+        Recorder recorder = new Recorder();
+        deferred.execute("page=1", request, recorder).cancel();
+        for (Runnable runnable : posted) {
+            runnable.run();
+        }
+
+        assertTrue(recorder.results.isEmpty());
+    }
+
+    /**
+     * Records every start and lets the test complete each one.
+     */
+    private static final class FakeRequest implements RequestCoalescer.Request<String> {
+        final List<RetryWithBackoff.Callback<String>> callbacks = new ArrayList<>();
+        final List<FakeHandle> handles = new ArrayList<>();
+
+        @Override
+        public Cancellable start(RetryWithBackoff.Callback<String> callback) {
+            FakeHandle handle = new FakeHandle();
+            callbacks.add(callback);
+            handles.add(handle);
+            return handle;
+        }
+
+        int starts() {
+            return callbacks.size();
+        }
+
+        void succeed(int index, String result) {
+            callbacks.get(index).onSuccess(result);
+        }
+
+        void fail(int index, String message) {
+            callbacks.get(index).onError(message, true);
+        }
+    }
+
+    private static final class FakeHandle implements Cancellable {
+        private boolean cancelled;
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private static final class Recorder implements RetryWithBackoff.Callback<String> {
+        final List<String> results = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+
+        @Override
+        public void onSuccess(String result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onError(String errorMessage, boolean isNetworkError) {
+            errors.add(errorMessage);
+        }
+    }
+}
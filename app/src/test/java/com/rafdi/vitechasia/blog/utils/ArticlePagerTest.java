@@ -0,0 +1,187 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.api.PocketBaseResponse;
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Drives {@link ArticlePager} with a fake page source that answers inline and reports visible
+ * ranges by hand, the way the attached RecyclerView would.
+ */
+public class ArticlePagerTest {
+    private static final int PAGE_SIZE = 10;
+    private static final int PREFETCH_DISTANCE = 3;
+    private static final int MAX_PAGES = 3;
+    private static final int TOTAL_PAGES = 8;
+
+    private final FakePageSource source = new FakePageSource();
+    private final Recorder recorder = new Recorder();
+    private final ArticlePager pager =
+            new ArticlePager(source, recorder, PAGE_SIZE, PREFETCH_DISTANCE, MAX_PAGES);
+
+    @Test
+    public void scrollingDownLoadsEachPageOnceAndKeepsTheWindowBounded() {
+        pager.refresh();
+        for (int i = 0; i < 20; i++) {
+            // Bottom of the list in view
+            int count = recorder.articles.size();
+            pager.onVisibleRangeChanged(count - 5, count - 1, count);
+        }
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), source.requested);
+        assertEquals(MAX_PAGES * PAGE_SIZE, recorder.articles.size());
+        assertEquals("p6-0", recorder.articles.get(0).getId());
+        assertEquals("p8-9", recorder.articles.get(recorder.articles.size() - 1).getId());
+    }
+
+    @Test
+    public void scrollingBackUpReloadsDroppedPages() {
+        pager.refresh();
+        for (int i = 0; i < 4; i++) {
+            int count = recorder.articles.size();
+            pager.onVisibleRangeChanged(count - 5, count - 1, count);
+        }
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), source.requested);
+
+        // Top of the window in view
+        pager.onVisibleRangeChanged(0, 4, recorder.articles.size());
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 2), source.requested);
+        assertEquals(MAX_PAGES * PAGE_SIZE, recorder.articles.size());
+        assertEquals("p2-0", recorder.articles.get(0).getId());
+        assertEquals("p4-9", recorder.articles.get(recorder.articles.size() - 1).getId());
+    }
+
+    @Test
+    public void listShowingEveryItemStopsLoadingOnceTheWindowIsFull() {
+        // A RecyclerView that lays out every item reports the whole window as visible
+        pager.refresh();
+        for (int i = 0; i < 50; i++) {
+            int count = recorder.articles.size();
+            pager.onVisibleRangeChanged(0, count - 1, count);
+        }
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), source.requested);
+        assertEquals(MAX_PAGES * PAGE_SIZE, recorder.articles.size());
+    }
+
+    @Test
+    public void shortLastPageEndsTheList() {
+        source.lastPageSize = 4;
+        source.reportTotalPages = false;
+        pager.refresh();
+        for (int i = 0; i < 20; i++) {
+            int count = recorder.articles.size();
+            pager.onVisibleRangeChanged(count - 5, count - 1, count);
+        }
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), source.requested);
+        assertEquals("p8-3", recorder.articles.get(recorder.articles.size() - 1).getId());
+    }
+
+    @Test
+    public void refreshDropsResponsesForTheEarlierList() {
+        source.deferred = true;
+        pager.refresh();
+        DataHandler.PageListener stale = source.pending;
+        DataRequest staleRequest = source.pendingRequest;
+        pager.refresh();
+        DataHandler.PageListener current = source.pending;
+
+        assertTrue(staleRequest.isCancelled());
+        assertFalse(source.pendingRequest.isCancelled());
+        stale.onPageLoaded(source.page(1));
+        assertTrue(recorder.articles.isEmpty());
+        assertTrue(pager.isLoading());
+
+        current.onPageLoaded(source.page(1));
+        assertEquals(PAGE_SIZE, recorder.articles.size());
+        assertFalse(pager.isLoading());
+    }
+
+    @Test
+    public void detachCancelsThePageInFlight() {
+        source.deferred = true;
+        pager.refresh();
+        DataRequest request = source.pendingRequest;
+
+        pager.detach();
+
+        assertTrue(request.isCancelled());
+        assertFalse(pager.isLoading());
+    }
+
+    @Test
+    public void articleThatMovedToTheNextPageIsListedOnce() {
+        // An article pushed down by a newer one is also the first item of the next page
+        source.repeatPreviousLast = true;
+        pager.refresh();
+        int count = recorder.articles.size();
+        pager.onVisibleRangeChanged(count - 5, count - 1, count);
+
+        assertEquals(Arrays.asList(1, 2), source.requested);
+        assertEquals(2 * PAGE_SIZE - 1, recorder.articles.size());
+        assertEquals("p1-9", recorder.articles.get(PAGE_SIZE - 1).getId());
+        assertEquals("p2-1", recorder.articles.get(PAGE_SIZE).getId());
+    }
+
+    private static class FakePageSource implements ArticlePager.PageSource {
+        final List<Integer> requested = new ArrayList<>();
+        int lastPageSize = PAGE_SIZE;
+        boolean reportTotalPages = true;
+        boolean deferred = false;
+        boolean repeatPreviousLast = false;
+        DataHandler.PageListener pending;
+        DataRequest pendingRequest;
+
+        @Override
+        public void loadPage(int page, int perPage, DataRequest request, DataHandler.PageListener listener) {
+            requested.add(page);
+            if (deferred) {
+                pending = listener;
+                pendingRequest = request;
+            } else {
+                listener.onPageLoaded(page(page));
+            }
+        }
+
+        PocketBaseResponse<Article> page(int page) {
+            List<Article> items = new ArrayList<>();
+            int size = page < TOTAL_PAGES ? PAGE_SIZE : page == TOTAL_PAGES ? lastPageSize : 0;
+            for (int i = 0; i < size; i++) {
+                Article article = new Article();
+                boolean repeated = repeatPreviousLast && page > 1 && i == 0;
+                article.setId(repeated ? "p" + (page - 1) + "-" + (PAGE_SIZE - 1) : "p" + page + "-" + i);
+                items.add(article);
+            }
+            int totalItems = (TOTAL_PAGES - 1) * PAGE_SIZE + lastPageSize;
+            return new PocketBaseResponse<>(items, page, PAGE_SIZE,
+                    reportTotalPages ? totalItems : 0, reportTotalPages ? TOTAL_PAGES : 0);
+        }
+    }
+
+    private static class Recorder implements ArticlePager.Listener {
+        List<Article> articles = new ArrayList<>();
+
+        @Override
+        public void onArticlesChanged(List<Article> articles) {
+            this.articles = articles;
+        }
+
+        @Override
+        public void onLoadingChanged(boolean loading) {
+        }
+
+        @Override
+        public void onError(String message) {
+            fail(message);
+        }
+    }
+}
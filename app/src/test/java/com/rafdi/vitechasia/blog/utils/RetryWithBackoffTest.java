@@ -0,0 +1,38 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.api.HttpStatusException;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks how {@link RetryWithBackoff} picks the delay before the next attempt.
+ */
+public class RetryWithBackoffTest {
+
+    @Test
+    public void retryAfterTakesPrecedenceOverBackoff() {
+        HttpStatusException rateLimited = new HttpStatusException(429, "Too Many Requests", 7_000);
+
+        assertEquals(7_000, RetryWithBackoff.retryDelay(rateLimited, 1_000));
+    }
+
+    @Test
+    public void retryAfterIsCapped() {
+        HttpStatusException unavailable = new HttpStatusException(503, "Service Unavailable", 3_600_000);
+
+        assertEquals(60_000, RetryWithBackoff.retryDelay(unavailable, 1_000));
+    }
+
+    @Test
+    public void backoffIsJitteredBetweenHalfAndAllOfTheDelay() {
+        HttpStatusException noHint = new HttpStatusException(500, "Internal Server Error", -1);
+        for (int i = 0; i < 1000; i++) {
+            long delay = RetryWithBackoff.retryDelay(i % 2 == 0 ? noHint : new IOException("reset"), 4_000);
+            assertTrue("delay " + delay, delay >= 2_000 && delay <= 4_000);
+        }
+    }
+}